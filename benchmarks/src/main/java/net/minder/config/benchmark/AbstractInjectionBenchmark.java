@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.benchmark;
+
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.impl.DefaultConfigurationBinding;
+import net.minder.config.impl.MappedConfigurationBinding;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The shared axes of the injection benchmarks.  The full cross product is large so use -p to narrow it, e.g.
+ * java -jar benchmarks.jar WarmInjection -p members=100 -p keys=1000
+ */
+@State( Scope.Benchmark )
+public abstract class AbstractInjectionBenchmark {
+
+  @Param( { "FIELD", "METHOD" } )
+  public Injection injection;
+
+  @Param( { "PROPERTIES", "MAP", "BEAN" } )
+  public Adapter adapter;
+
+  @Param( { "DEFAULT", "MAPPED" } )
+  public Binding binding;
+
+  @Param( { "1", "10", "100", "500" } )
+  public int members;
+
+  // Total keys in the source, never fewer than the bound members.  Bean sources only expose the bound members.
+  @Param( { "1", "1000", "1000000" } )
+  public int keys;
+
+  protected Object createSource() throws ReflectiveOperationException {
+    if( adapter == Adapter.BEAN ) {
+      return TargetClasses.createBean( binding, members );
+    }
+    Map<Object,Object> map = adapter == Adapter.PROPERTIES ? new Properties() : new HashMap<Object,Object>();
+    for( int i=0; i<members; i++ ) {
+      map.put( binding == Binding.DEFAULT ? TargetClasses.memberName( i ) : TargetClasses.mappedName( i ), TargetClasses.VALUE );
+    }
+    for( int i=members; i<keys; i++ ) {
+      map.put( "filler" + i, TargetClasses.VALUE );
+    }
+    return map;
+  }
+
+  protected ConfigurationBinding createBinding() {
+    if( binding == Binding.DEFAULT ) {
+      return new DefaultConfigurationBinding();
+    }
+    MappedConfigurationBinding mapped = new MappedConfigurationBinding();
+    for( int i=0; i<members; i++ ) {
+      mapped.bind( TargetClasses.memberName( i ), TargetClasses.mappedName( i ) );
+    }
+    return mapped;
+  }
+
+  protected Object createTarget() throws ReflectiveOperationException {
+    return TargetClasses.createTarget( injection, members ).getConstructor().newInstance();
+  }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.benchmark;
+
+import net.minder.config.ConfigurationBinding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+
+/**
+ * The first injection into a freshly loaded target class, including all per-class metadata work.
+ */
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 20 )
+@Measurement( iterations = 50 )
+@Fork( 1 )
+public class ColdInjectionBenchmark extends AbstractInjectionBenchmark {
+
+  private Object target;
+  private Object source;
+  private ConfigurationBinding configBinding;
+
+  @Setup( Level.Trial )
+  public void setupSource() throws ReflectiveOperationException {
+    source = createSource();
+    configBinding = createBinding();
+  }
+
+  @Setup( Level.Invocation )
+  public void setupTarget() throws ReflectiveOperationException {
+    target = createTarget();
+  }
+
+  @Benchmark
+  public Object inject() {
+    configuration().target( target ).source( source ).binding( configBinding ).inject();
+    return target;
+  }
+
+}
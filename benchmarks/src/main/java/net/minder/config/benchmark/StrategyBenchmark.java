@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.benchmark;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.impl.AccessStrategy;
+import net.minder.config.impl.CompiledConfigurationInjector;
+import net.minder.config.impl.ConfigurationAdapterFactory;
+import net.minder.config.impl.DefaultConfigurationInjector;
+import net.minder.config.spi.ConfigurationInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the injector implementations directly, bypassing the builder.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( { Mode.Throughput, Mode.AverageTime } )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class StrategyBenchmark {
+
+  public enum Strategy { REFLECTION, METHOD_HANDLES, COMPILED }
+
+  @Param( { "REFLECTION", "METHOD_HANDLES", "COMPILED" } )
+  public Strategy strategy;
+
+  @Param( { "FIELD", "METHOD" } )
+  public Injection injection;
+
+  @Param( { "10", "100" } )
+  public int members;
+
+  private ConfigurationInjector injector;
+  private Object target;
+  private ConfigurationAdapter adapter;
+  private ConfigurationBinding binding;
+
+  @Setup( Level.Trial )
+  public void setup() throws ReflectiveOperationException {
+    switch( strategy ) {
+      case REFLECTION:
+        injector = new DefaultConfigurationInjector( AccessStrategy.REFLECTION );
+        break;
+      case METHOD_HANDLES:
+        injector = new DefaultConfigurationInjector( AccessStrategy.METHOD_HANDLES );
+        break;
+      default:
+        injector = new CompiledConfigurationInjector();
+    }
+    AbstractInjectionBenchmark axes = new AbstractInjectionBenchmark() {};
+    axes.injection = injection;
+    axes.adapter = Adapter.MAP;
+    axes.binding = Binding.DEFAULT;
+    axes.members = members;
+    axes.keys = members;
+    target = axes.createTarget();
+    adapter = ConfigurationAdapterFactory.get( axes.createSource() );
+    binding = axes.createBinding();
+  }
+
+  @Benchmark
+  public Object configure() {
+    injector.configure( target, adapter, binding );
+    return target;
+  }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.benchmark;
+
+import net.minder.config.Configure;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates target and bean classes with a configurable number of members so the member axis can scale to hundreds.
+ * Even members are String typed and odd members are int typed so both plain assignment and conversion are measured.
+ */
+final class TargetClasses implements Opcodes {
+
+  static final String VALUE = "42";
+
+  private static final String CONFIGURE = Type.getDescriptor( Configure.class );
+
+  private TargetClasses() {
+  }
+
+  static String memberName( int index ) {
+    return "f" + index;
+  }
+
+  static String mappedName( int index ) {
+    return "mapped" + index;
+  }
+
+  static Class<?> createTarget( Injection injection, int members ) {
+    String name = "net/minder/config/benchmark/generated/" + injection.name().charAt( 0 ) + members + "Target";
+    ClassWriter cw = new ClassWriter( ClassWriter.COMPUTE_MAXS );
+    cw.visit( V11, ACC_PUBLIC | ACC_SUPER, name, null, "java/lang/Object", null );
+    defaultConstructor( cw );
+    for( int i=0; i<members; i++ ) {
+      String desc = memberType( i );
+      if( injection == Injection.FIELD ) {
+        cw.visitField( ACC_PUBLIC, memberName( i ), desc, null, null ).visitAnnotation( CONFIGURE, true ).visitEnd();
+      } else {
+        cw.visitField( ACC_PRIVATE, memberName( i ), desc, null, null ).visitEnd();
+        String setter = "set" + Character.toUpperCase( memberName( i ).charAt( 0 ) ) + memberName( i ).substring( 1 );
+        MethodVisitor mv = cw.visitMethod( ACC_PUBLIC, setter, "(" + desc + ")V", null, null );
+        mv.visitAnnotation( CONFIGURE, true ).visitEnd();
+        mv.visitCode();
+        mv.visitVarInsn( ALOAD, 0 );
+        mv.visitVarInsn( desc.equals( "I" ) ? ILOAD : ALOAD, 1 );
+        mv.visitFieldInsn( PUTFIELD, name, memberName( i ), desc );
+        mv.visitInsn( RETURN );
+        mv.visitMaxs( 0, 0 );
+        mv.visitEnd();
+      }
+    }
+    cw.visitEnd();
+    return new GeneratedClassLoader().define( name, cw.toByteArray() );
+  }
+
+  static Object createBean( Binding binding, int members ) throws ReflectiveOperationException {
+    String name = "net/minder/config/benchmark/generated/" + binding.name().charAt( 0 ) + members + "Bean";
+    ClassWriter cw = new ClassWriter( ClassWriter.COMPUTE_MAXS );
+    cw.visit( V11, ACC_PUBLIC | ACC_SUPER, name, null, "java/lang/Object", null );
+    defaultConstructor( cw );
+    for( int i=0; i<members; i++ ) {
+      String property = binding == Binding.DEFAULT ? memberName( i ) : mappedName( i );
+      String getter = "get" + Character.toUpperCase( property.charAt( 0 ) ) + property.substring( 1 );
+      MethodVisitor mv = cw.visitMethod( ACC_PUBLIC, getter, "()Ljava/lang/String;", null, null );
+      mv.visitCode();
+      mv.visitLdcInsn( VALUE );
+      mv.visitInsn( ARETURN );
+      mv.visitMaxs( 0, 0 );
+      mv.visitEnd();
+    }
+    cw.visitEnd();
+    return new GeneratedClassLoader().define( name, cw.toByteArray() ).getConstructor().newInstance();
+  }
+
+  private static String memberType( int index ) {
+    return index % 2 == 0 ? "Ljava/lang/String;" : "I";
+  }
+
+  private static void defaultConstructor( ClassWriter cw ) {
+    MethodVisitor mv = cw.visitMethod( ACC_PUBLIC, "<init>", "()V", null, null );
+    mv.visitCode();
+    mv.visitVarInsn( ALOAD, 0 );
+    mv.visitMethodInsn( INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false );
+    mv.visitInsn( RETURN );
+    mv.visitMaxs( 0, 0 );
+    mv.visitEnd();
+  }
+
+  // A new loader per class so that "cold" targets really are classes the injector has never seen.
+  private static class GeneratedClassLoader extends ClassLoader {
+
+    private GeneratedClassLoader() {
+      super( TargetClasses.class.getClassLoader() );
+    }
+
+    private Class<?> define( String internalName, byte[] bytes ) {
+      return defineClass( internalName.replace( '/', '.' ), bytes, 0, bytes.length );
+    }
+
+  }
+
+}
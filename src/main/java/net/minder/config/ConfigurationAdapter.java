@@ -17,8 +17,37 @@
  */
 package net.minder.config;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 public interface ConfigurationAdapter {
 
   String getConfigurationValue( String name ) throws ConfigurationException;
 
+  /**
+   * Returns the values of all the names that have one.
+   * Injectors fetch all the names a target needs with a single call when an adapter overrides this,
+   * which is worthwhile for sources where each lookup is a round trip.
+   */
+  default Map<String,String> getConfigurationValues( Collection<String> names ) throws ConfigurationException {
+    Map<String,String> values = new HashMap<String,String>();
+    for( String name : names ) {
+      String value = getConfigurationValue( name );
+      if( value != null ) {
+        values.put( name, value );
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Returns the value in the type the source holds it, such as the Integer values of a Map, or null when the name
+   * has no value.  Injectors read int, long, boolean and double members through this, so an adapter that holds
+   * typed values can override it and a value that already has the member's type is used without a conversion.
+   */
+  default Object getTypedValue( String name ) throws ConfigurationException {
+    return getConfigurationValue( name );
+  }
+
 }
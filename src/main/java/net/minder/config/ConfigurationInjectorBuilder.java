@@ -18,26 +18,47 @@
 package net.minder.config;
 
 import net.minder.config.impl.ConfigurationAdapterFactory;
+import net.minder.config.impl.ConfigurationStatistics;
 import net.minder.config.impl.DefaultConfigurationBinding;
 import net.minder.config.impl.MappedConfigurationBinding;
+import net.minder.config.spi.ConfigurationInjectionListener;
 import net.minder.config.spi.ConfigurationInjector;
 
 import java.util.Iterator;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ConfigurationInjectorBuilder {
 
-  private static ConfigurationBinding DEFAULT_BINDING = new DefaultConfigurationBinding();
-  private static ConfigurationInjector INSTANCE = null;
+  static final ConfigurationBinding DEFAULT_BINDING = new DefaultConfigurationBinding();
+  private static volatile ConfigurationInjector INSTANCE = null;
+  private static final Lock LOCK = new ReentrantLock();
 
-  private static synchronized ConfigurationInjector getInjector() {
-    if( INSTANCE == null ) {
-      INSTANCE = createInjector();
+  // A lock rather than synchronized so virtual threads loading the injector don't pin their carrier threads.
+  static ConfigurationInjector getInjector() {
+    ConfigurationInjector injector = INSTANCE;
+    if( injector == null ) {
+      LOCK.lock();
+      try {
+        if( INSTANCE == null ) {
+          INSTANCE = createInjector();
+        }
+        injector = INSTANCE;
+      } finally {
+        LOCK.unlock();
+      }
     }
-    return INSTANCE;
+    return injector;
   }
 
-  private static synchronized ConfigurationInjector createInjector() {
+  private static ConfigurationInjector createInjector() {
+    if( Boolean.getBoolean( ConfigurationStatistics.PROPERTY ) ) {
+      ConfigurationStatistics.register();
+    }
     ConfigurationInjector injector = null;
     ServiceLoader<ConfigurationInjector> loader = ServiceLoader.load( ConfigurationInjector.class );
     if( loader != null ) {
@@ -59,6 +80,7 @@ public class ConfigurationInjectorBuilder {
   private Object target = null;
   private ConfigurationAdapter source = null;
   private ConfigurationBinding binding = null;
+  private ConfigurationInjectionListener listener = null;
 
   public static ConfigurationInjectorBuilder configuration() {
     return new ConfigurationInjectorBuilder();
@@ -89,6 +111,21 @@ public class ConfigurationInjectorBuilder {
     return this;
   }
 
+  /**
+   * Reports the lookups, conversions and timing of each injection to the listener, for example an InjectionMetrics.
+   */
+  public ConfigurationInjectorBuilder listener( ConfigurationInjectionListener listener ) {
+    this.listener = listener;
+    return this;
+  }
+
+  /**
+   * Starts preparing a reusable injection of one type, carrying over any source, binding and listener already set.
+   */
+  public <T> PreparedInjection.Builder<T> forType( Class<T> type ) {
+    return new PreparedInjection.Builder<T>( type, source, binding, listener );
+  }
+
   public ConfigurationBinding binding() {
     if( binding == null ) {
       binding = new MappedConfigurationBinding();
@@ -101,7 +138,49 @@ public class ConfigurationInjectorBuilder {
     if( binding == null ) {
       binding = DEFAULT_BINDING;
     }
-    injector.configure( target, source, binding );
+    if( listener != null ) {
+      injector.configure( target, source, binding, listener );
+    } else {
+      injector.configure( target, source, binding );
+    }
+  }
+
+  /**
+   * Fetches all of the target's configuration values concurrently and then injects them in declaration order.
+   * Lookups run on virtual threads where the runtime has them and on a bounded pool of daemon threads otherwise.
+   */
+  public CompletableFuture<Void> injectAsync() {
+    return injectAsync( null );
+  }
+
+  public CompletableFuture<Void> injectAsync( Executor executor ) {
+    ConfigurationInjector injector = getInjector();
+    if( binding == null ) {
+      binding = DEFAULT_BINDING;
+    }
+    return listener != null
+        ? injector.configureAsync( target, source, binding, executor, listener )
+        : injector.configureAsync( target, source, binding, executor );
+  }
+
+  /**
+   * Injects every target from the source on the common fork-join pool.
+   * Each distinct configuration value is fetched and converted once for the whole batch.
+   */
+  public void injectAll( Iterable<?> targets ) throws ConfigurationException {
+    injectAll( targets, ForkJoinPool.commonPool() );
+  }
+
+  public void injectAll( Iterable<?> targets, Executor executor ) throws ConfigurationException {
+    ConfigurationInjector injector = getInjector();
+    if( binding == null ) {
+      binding = DEFAULT_BINDING;
+    }
+    if( listener != null ) {
+      injector.configureAll( targets, source, binding, executor, listener );
+    } else {
+      injector.configureAll( targets, source, binding, executor );
+    }
   }
 
 }
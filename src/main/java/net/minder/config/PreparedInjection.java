@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config;
+
+import net.minder.config.impl.ConfigurationAdapterFactory;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import net.minder.config.spi.ConfigurationInjector;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An injection of one type from one source and binding, set up once and reused for every target.
+ * The injector, adapter and binding are resolved and the type's injection metadata computed when it is prepared,
+ * so inject() takes no locks and creates nothing besides the injected values.
+ * Instances are immutable and may be shared between threads.
+ * <pre>
+ * PreparedInjection&lt;Request&gt; injection = configuration().forType( Request.class ).source( props ).prepare();
+ * injection.inject( request );
+ * </pre>
+ */
+public final class PreparedInjection<T> {
+
+  private final Class<T> type;
+  private final ConfigurationInjector injector;
+  private final ConfigurationAdapter source;
+  private final ConfigurationBinding binding;
+  private final ConfigurationInjectionListener listener;
+
+  private PreparedInjection( Builder<T> builder, ConfigurationBinding binding ) {
+    this.type = builder.type;
+    this.injector = ConfigurationInjectorBuilder.getInjector();
+    this.source = builder.source;
+    this.binding = binding;
+    this.listener = builder.listener;
+  }
+
+  public Class<T> getType() {
+    return type;
+  }
+
+  public void inject( T target ) throws ConfigurationException {
+    if( listener != null ) {
+      injector.configure( target, source, binding, listener );
+    } else {
+      injector.configure( target, source, binding );
+    }
+  }
+
+  /**
+   * Injects every target on the common fork-join pool.
+   */
+  public void injectAll( Iterable<? extends T> targets ) throws ConfigurationException {
+    injectAll( targets, ForkJoinPool.commonPool() );
+  }
+
+  public void injectAll( Iterable<? extends T> targets, Executor executor ) throws ConfigurationException {
+    if( listener != null ) {
+      injector.configureAll( targets, source, binding, executor, listener );
+    } else {
+      injector.configureAll( targets, source, binding, executor );
+    }
+  }
+
+  public static final class Builder<T> {
+
+    private final Class<T> type;
+    private ConfigurationAdapter source;
+    private ConfigurationBinding binding;
+    private ConfigurationInjectionListener listener;
+    private final Map<String,String> binds = new HashMap<String,String>();
+
+    Builder( Class<T> type, ConfigurationAdapter source, ConfigurationBinding binding, ConfigurationInjectionListener listener ) {
+      this.type = type;
+      this.source = source;
+      this.binding = binding;
+      this.listener = listener;
+    }
+
+    public Builder<T> source( Object source ) {
+      this.source = ConfigurationAdapterFactory.get( source );
+      return this;
+    }
+
+    public Builder<T> source( ConfigurationAdapter adapter ) {
+      this.source = adapter;
+      return this;
+    }
+
+    public Builder<T> binding( ConfigurationBinding binding ) {
+      this.binding = binding;
+      return this;
+    }
+
+    /**
+     * Binds a member name to a source name, taking priority over the binding.
+     */
+    public Builder<T> bind( String targetName, String sourceName ) {
+      binds.put( targetName, sourceName );
+      return this;
+    }
+
+    public Builder<T> listener( ConfigurationInjectionListener listener ) {
+      this.listener = listener;
+      return this;
+    }
+
+    public PreparedInjection<T> prepare() throws ConfigurationException {
+      if( source == null ) {
+        throw new ConfigurationException( String.format(
+            "Failed to prepare injection for %s without a source", type.getName() ) );
+      }
+      ConfigurationBinding prepared = binding != null ? binding : ConfigurationInjectorBuilder.DEFAULT_BINDING;
+      if( !binds.isEmpty() ) {
+        prepared = new OverridingBinding( new HashMap<String,String>( binds ), prepared );
+      }
+      PreparedInjection<T> injection = new PreparedInjection<T>( this, prepared );
+      injection.injector.prepare( type );
+      return injection;
+    }
+
+  }
+
+  private static final class OverridingBinding implements ConfigurationBinding {
+
+    private final Map<String,String> binds;
+    private final ConfigurationBinding fallback;
+
+    private OverridingBinding( Map<String,String> binds, ConfigurationBinding fallback ) {
+      this.binds = Collections.unmodifiableMap( binds );
+      this.fallback = fallback;
+    }
+
+    @Override
+    public String getConfigurationName( String name ) {
+      String bind = binds.get( name );
+      return bind != null ? bind : fallback.getConfigurationName( name );
+    }
+
+  }
+
+}
@@ -0,0 +1,327 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Selects how injected values are written to target members.
+ * The default can be chosen with the net.minder.config.access system property.
+ */
+public enum AccessStrategy {
+
+  REFLECTION {
+    @Override
+    FieldWriter createFieldWriter( Field field ) {
+      return new ReflectiveFieldWriter( field );
+    }
+    @Override
+    MethodWriter createMethodWriter( Method method ) {
+      return new ReflectiveMethodWriter( method );
+    }
+  },
+
+  METHOD_HANDLES {
+    @Override
+    FieldWriter createFieldWriter( Field field ) {
+      return new HandleFieldWriter( field );
+    }
+    @Override
+    MethodWriter createMethodWriter( Method method ) {
+      return new HandleMethodWriter( method );
+    }
+  };
+
+  public static final String PROPERTY = "net.minder.config.access";
+
+  public static AccessStrategy getDefault() {
+    String value = System.getProperty( PROPERTY );
+    if( value == null || value.trim().length() == 0 ) {
+      return METHOD_HANDLES;
+    }
+    try {
+      return valueOf( value.trim().toUpperCase() );
+    } catch( IllegalArgumentException e ) {
+      throw new ConfigurationException( String.format(
+          "Invalid value %s for %s", value, PROPERTY ), e );
+    }
+  }
+
+  abstract FieldWriter createFieldWriter( Field field );
+
+  abstract MethodWriter createMethodWriter( Method method );
+
+  // The primitive variants are only used when the member type, or the single parameter type, matches exactly.
+  interface FieldWriter {
+    void set( Object target, Object value ) throws Exception;
+    void setInt( Object target, int value ) throws Exception;
+    void setLong( Object target, long value ) throws Exception;
+    void setBoolean( Object target, boolean value ) throws Exception;
+    void setDouble( Object target, double value ) throws Exception;
+  }
+
+  interface MethodWriter {
+    void invoke( Object target, Object[] args ) throws Exception;
+    void invokeInt( Object target, int value ) throws Exception;
+    void invokeLong( Object target, long value ) throws Exception;
+    void invokeBoolean( Object target, boolean value ) throws Exception;
+    void invokeDouble( Object target, double value ) throws Exception;
+  }
+
+  static boolean isUnboxed( Class<?> type ) {
+    return type == int.class || type == long.class || type == boolean.class || type == double.class;
+  }
+
+  // A private lookup in the declaring class reaches private members without relying on the accessible flag.
+  // Writing final fields still needs the flag, which the plan sets, and so does a declaring module that isn't open to us.
+  private static MethodHandles.Lookup lookup( Member member ) {
+    try {
+      return MethodHandles.privateLookupIn( member.getDeclaringClass(), MethodHandles.lookup() );
+    } catch( IllegalAccessException e ) {
+      return MethodHandles.lookup();
+    }
+  }
+
+  private static Exception propagate( Throwable t ) {
+    if( t instanceof Exception ) {
+      return (Exception)t;
+    }
+    if( t instanceof Error ) {
+      throw (Error)t;
+    }
+    return new UndeclaredThrowableException( t );
+  }
+
+  private static class ReflectiveFieldWriter implements FieldWriter {
+
+    private final Field field;
+
+    private ReflectiveFieldWriter( Field field ) {
+      this.field = field;
+    }
+
+    @Override
+    public void set( Object target, Object value ) throws Exception {
+      field.set( target, value );
+    }
+
+    @Override
+    public void setInt( Object target, int value ) throws Exception {
+      field.setInt( target, value );
+    }
+
+    @Override
+    public void setLong( Object target, long value ) throws Exception {
+      field.setLong( target, value );
+    }
+
+    @Override
+    public void setBoolean( Object target, boolean value ) throws Exception {
+      field.setBoolean( target, value );
+    }
+
+    @Override
+    public void setDouble( Object target, double value ) throws Exception {
+      field.setDouble( target, value );
+    }
+
+  }
+
+  private static class ReflectiveMethodWriter implements MethodWriter {
+
+    private final Method method;
+
+    private ReflectiveMethodWriter( Method method ) {
+      this.method = method;
+    }
+
+    @Override
+    public void invoke( Object target, Object[] args ) throws Exception {
+      method.invoke( target, args );
+    }
+
+    @Override
+    public void invokeInt( Object target, int value ) throws Exception {
+      method.invoke( target, value );
+    }
+
+    @Override
+    public void invokeLong( Object target, long value ) throws Exception {
+      method.invoke( target, value );
+    }
+
+    @Override
+    public void invokeBoolean( Object target, boolean value ) throws Exception {
+      method.invoke( target, value );
+    }
+
+    @Override
+    public void invokeDouble( Object target, double value ) throws Exception {
+      method.invoke( target, value );
+    }
+
+  }
+
+  private static class HandleFieldWriter implements FieldWriter {
+
+    private final MethodHandle handle;
+    private final MethodHandle unboxed;
+
+    private HandleFieldWriter( Field field ) {
+      try {
+        MethodHandle setter = lookup( field ).unreflectSetter( field );
+        if( Modifier.isStatic( field.getModifiers() ) ) {
+          setter = MethodHandles.dropArguments( setter, 0, Object.class );
+        }
+        handle = setter.asType( MethodType.methodType( void.class, Object.class, Object.class ) );
+        unboxed = isUnboxed( field.getType() )
+            ? setter.asType( MethodType.methodType( void.class, Object.class, field.getType() ) )
+            : null;
+      } catch( IllegalAccessException e ) {
+        throw new ConfigurationException( String.format(
+            "Failed to access field %s of %s", field.getName(), field.getDeclaringClass().getName() ), e );
+      }
+    }
+
+    @Override
+    public void set( Object target, Object value ) throws Exception {
+      try {
+        handle.invokeExact( target, value );
+      } catch( Throwable t ) {
+        throw propagate( t );
+      }
+    }
+
+    @Override
+    public void setInt( Object target, int value ) throws Exception {
+      try {
+        unboxed.invokeExact( target, value );
+      } catch( Throwable t ) {
+        throw propagate( t );
+      }
+    }
+
+    @Override
+    public void setLong( Object target, long value ) throws Exception {
+      try {
+        unboxed.invokeExact( target, value );
+      } catch( Throwable t ) {
+        throw propagate( t );
+      }
+    }
+
+    @Override
+    public void setBoolean( Object target, boolean value ) throws Exception {
+      try {
+        unboxed.invokeExact( target, value );
+      } catch( Throwable t ) {
+        throw propagate( t );
+      }
+    }
+
+    @Override
+    public void setDouble( Object target, double value ) throws Exception {
+      try {
+        unboxed.invokeExact( target, value );
+      } catch( Throwable t ) {
+        throw propagate( t );
+      }
+    }
+
+  }
+
+  private static class HandleMethodWriter implements MethodWriter {
+
+    private final MethodHandle handle;
+    private final MethodHandle unboxed;
+
+    private HandleMethodWriter( Method method ) {
+      try {
+        MethodHandle invoker = lookup( method ).unreflect( method );
+        if( Modifier.isStatic( method.getModifiers() ) ) {
+          invoker = MethodHandles.dropArguments( invoker, 0, Object.class );
+        }
+        Class<?>[] types = method.getParameterTypes();
+        unboxed = types.length == 1 && isUnboxed( types[ 0 ] )
+            ? invoker.asType( MethodType.methodType( void.class, Object.class, types[ 0 ] ) )
+            : null;
+        invoker = invoker.asSpreader( Object[].class, types.length );
+        handle = invoker.asType( MethodType.methodType( void.class, Object.class, Object[].class ) );
+      } catch( IllegalAccessException e ) {
+        throw new ConfigurationException( String.format(
+            "Failed to access method %s of %s", method.getName(), method.getDeclaringClass().getName() ), e );
+      }
+    }
+
+    @Override
+    public void invoke( Object target, Object[] args ) throws Exception {
+      try {
+        handle.invokeExact( target, args );
+      } catch( Throwable t ) {
+        throw propagate( t );
+      }
+    }
+
+    @Override
+    public void invokeInt( Object target, int value ) throws Exception {
+      try {
+        unboxed.invokeExact( target, value );
+      } catch( Throwable t ) {
+        throw propagate( t );
+      }
+    }
+
+    @Override
+    public void invokeLong( Object target, long value ) throws Exception {
+      try {
+        unboxed.invokeExact( target, value );
+      } catch( Throwable t ) {
+        throw propagate( t );
+      }
+    }
+
+    @Override
+    public void invokeBoolean( Object target, boolean value ) throws Exception {
+      try {
+        unboxed.invokeExact( target, value );
+      } catch( Throwable t ) {
+        throw propagate( t );
+      }
+    }
+
+    @Override
+    public void invokeDouble( Object target, double value ) throws Exception {
+      try {
+        unboxed.invokeExact( target, value );
+      } catch( Throwable t ) {
+        throw propagate( t );
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationConverter;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts comma separated values, optionally wrapped in braces, to arrays using the component type's converter.
+ */
+class ArrayConfigurationConverter implements ConfigurationConverter<Object> {
+
+  private final Class<?> componentType;
+  private final ConfigurationConverter<?> componentConverter;
+
+  ArrayConfigurationConverter( Class<?> componentType, ConfigurationConverter<?> componentConverter ) {
+    this.componentType = componentType;
+    this.componentConverter = componentConverter;
+  }
+
+  @Override
+  public Object convert( String value ) throws Exception {
+    String text = value.trim();
+    if( text.startsWith( "{" ) && text.endsWith( "}" ) ) {
+      text = text.substring( 1, text.length() - 1 );
+    }
+    List<String> items = new ArrayList<String>();
+    if( text.trim().length() > 0 ) {
+      int start = 0;
+      int comma;
+      while( ( comma = text.indexOf( ',', start ) ) >= 0 ) {
+        items.add( text.substring( start, comma ).trim() );
+        start = comma + 1;
+      }
+      items.add( text.substring( start ).trim() );
+    }
+    Object array = Array.newInstance( componentType, items.size() );
+    for( int i=0; i<items.size(); i++ ) {
+      Array.set( array, i, componentConverter.convert( items.get( i ) ) );
+    }
+    return array;
+  }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationConverter;
+import net.minder.config.ConfigurationException;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Shares the values fetched from a source, and their conversions, between all the targets of one batch.
+ * Only conversions to immutable types are shared so targets never see each other's mutations.
+ */
+final class BatchConfigurationAdapter implements ConfigurationAdapter {
+
+  private static final Object MISSING = new Object();
+
+  private static final Set<Class<?>> SHAREABLE = new HashSet<Class<?>>( Arrays.<Class<?>>asList(
+      int.class, long.class, boolean.class, double.class, float.class, short.class, byte.class, char.class,
+      Integer.class, Long.class, Boolean.class, Double.class, Float.class, Short.class, Byte.class, Character.class,
+      String.class, BigInteger.class, BigDecimal.class, Duration.class, URI.class, URL.class, File.class, Path.class,
+      UUID.class, Charset.class, Pattern.class, Locale.class ) );
+
+  private final ConfigurationAdapter source;
+  private final Map<String,Object> values = new ConcurrentHashMap<String,Object>();
+  private final Map<Class<?>,Map<String,Object>> converted = new ConcurrentHashMap<Class<?>,Map<String,Object>>();
+
+  BatchConfigurationAdapter( ConfigurationAdapter source ) {
+    this.source = source;
+  }
+
+  ConfigurationAdapter getSource() {
+    return source;
+  }
+
+  void prefetch( Collection<String> names ) throws ConfigurationException {
+    Map<String,String> fetched = source.getConfigurationValues( names );
+    for( String name : names ) {
+      String value = fetched != null ? fetched.get( name ) : null;
+      values.put( name, value != null ? value : MISSING );
+    }
+  }
+
+  @Override
+  public String getConfigurationValue( String name ) throws ConfigurationException {
+    Object value = values.get( name );
+    if( value == null ) {
+      // The first caller fetches outside the map, so a slow source doesn't hold a bin lock, while others wait for it.
+      CompletableFuture<Object> loading = new CompletableFuture<Object>();
+      value = values.putIfAbsent( name, loading );
+      if( value == null ) {
+        value = fetch( name, loading );
+      }
+    }
+    if( value instanceof CompletableFuture ) {
+      value = await( (CompletableFuture<?>)value );
+    }
+    return value == MISSING ? null : (String)value;
+  }
+
+  private Object fetch( String name, CompletableFuture<Object> loading ) {
+    Object value;
+    try {
+      String fetched = source.getConfigurationValue( name );
+      value = fetched != null ? fetched : MISSING;
+    } catch( RuntimeException | Error e ) {
+      values.remove( name, loading );
+      loading.completeExceptionally( e );
+      throw e;
+    }
+    values.put( name, value );
+    loading.complete( value );
+    return value;
+  }
+
+  private static Object await( CompletableFuture<?> loading ) {
+    try {
+      return loading.join();
+    } catch( CompletionException e ) {
+      Throwable cause = e.getCause();
+      if( cause instanceof RuntimeException ) {
+        throw (RuntimeException)cause;
+      }
+      if( cause instanceof Error ) {
+        throw (Error)cause;
+      }
+      throw new ConfigurationException( "Failed to retrieve configuration", cause );
+    }
+  }
+
+  /**
+   * Converts a value fetched through this adapter, reusing the result for the same name and type.
+   */
+  Object convert( String name, String value, Class<?> type, ConfigurationConverter<?> converter ) throws Exception {
+    if( !SHAREABLE.contains( type ) ) {
+      return converter.convert( value );
+    }
+    Map<String,Object> results = converted.get( type );
+    if( results == null ) {
+      results = converted.computeIfAbsent( type, key -> new ConcurrentHashMap<String,Object>() );
+    }
+    Object result = results.get( name );
+    if( result == null ) {
+      result = converter.convert( value );
+      if( result != null ) {
+        Object prior = results.putIfAbsent( name, result );
+        if( prior != null ) {
+          result = prior;
+        }
+      }
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.ConfigurationException;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import net.minder.config.spi.ConfigurationInjector;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Configures a batch of targets through one shared BatchConfigurationAdapter, split into chunks run on an executor.
+ * A listener sees each target's lookups as served by the shared adapter, not the prefetch that filled it.
+ */
+final class BatchInjection {
+
+  private static final int CHUNKS_PER_PROCESSOR = 4;
+
+  private BatchInjection() {
+  }
+
+  static void configureAll(
+      ConfigurationInjector injector, AccessStrategy strategy, Iterable<?> targets,
+      ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor,
+      ConfigurationInjectionListener listener ) throws ConfigurationException {
+    final List<Object> list = new ArrayList<Object>();
+    for( Object target : targets ) {
+      list.add( target );
+    }
+    if( list.isEmpty() ) {
+      return;
+    }
+    final BatchConfigurationAdapter batch = new BatchConfigurationAdapter( adapter );
+    if( DefaultConfigurationInjector.isBatching( adapter ) ) {
+      batch.prefetch( getBindNames( list, strategy, binding ) );
+    }
+    int chunks = Math.min( list.size(), Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR );
+    if( executor == null || chunks == 1 ) {
+      configureChunk( injector, list, batch, binding, listener );
+      return;
+    }
+    List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>( chunks );
+    for( int i=0; i<chunks; i++ ) {
+      final List<Object> chunk = list.subList( i * list.size() / chunks, ( i + 1 ) * list.size() / chunks );
+      futures.add( CompletableFuture.runAsync( () -> configureChunk( injector, chunk, batch, binding, listener ), executor ) );
+    }
+    // Wait for every chunk before reporting, so no target is still being configured when the caller sees a failure.
+    CompletableFuture.allOf( futures.toArray( new CompletableFuture[ futures.size() ] ) ).exceptionally( t -> null ).join();
+    for( CompletableFuture<Void> future : futures ) {
+      try {
+        future.join();
+      } catch( CompletionException e ) {
+        throw unwrap( e.getCause() );
+      }
+    }
+  }
+
+  private static void configureChunk(
+      ConfigurationInjector injector, List<Object> targets, ConfigurationAdapter adapter, ConfigurationBinding binding,
+      ConfigurationInjectionListener listener ) {
+    for( Object target : targets ) {
+      if( listener != null ) {
+        injector.configure( target, adapter, binding, listener );
+      } else {
+        injector.configure( target, adapter, binding );
+      }
+    }
+  }
+
+  private static Set<String> getBindNames( List<Object> targets, AccessStrategy strategy, ConfigurationBinding binding ) {
+    Set<String> binds = new LinkedHashSet<String>();
+    Set<Class<?>> types = new HashSet<Class<?>>();
+    for( Object target : targets ) {
+      if( types.add( target.getClass() ) ) {
+        for( String name : InjectionPlan.get( target.getClass(), strategy ).getNames() ) {
+          binds.add( DefaultConfigurationInjector.getBindName( target, name, binding ) );
+        }
+      }
+    }
+    return binds;
+  }
+
+  private static RuntimeException unwrap( Throwable cause ) {
+    if( cause instanceof RuntimeException ) {
+      return (RuntimeException)cause;
+    }
+    if( cause instanceof Error ) {
+      throw (Error)cause;
+    }
+    return new ConfigurationException( "Failed to configure targets", cause );
+  }
+
+}
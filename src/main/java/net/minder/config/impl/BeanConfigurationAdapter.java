@@ -19,10 +19,33 @@ package net.minder.config.impl;
 
 import net.minder.config.ConfigurationAdapter;
 import net.minder.config.ConfigurationException;
-import org.apache.commons.beanutils.PropertyUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads configuration values from the public getters of a bean.
+ * Dotted names such as db.pool.max are read through a chain of getters.
+ * Each name is compiled to getter method handles once per bean class.
+ */
 public class BeanConfigurationAdapter implements ConfigurationAdapter {
 
+  private static final MethodType GETTER_TYPE = MethodType.methodType( Object.class, Object.class );
+
+  private static final ClassValue<Map<String, PropertyPath>> PATHS = new ClassValue<Map<String, PropertyPath>>() {
+    @Override
+    protected Map<String, PropertyPath> computeValue( Class<?> type ) {
+      return new ConcurrentHashMap<String, PropertyPath>();
+    }
+  };
+
   private Object bean;
 
   public BeanConfigurationAdapter( Object bean ) {
@@ -31,13 +54,148 @@ public class BeanConfigurationAdapter implements ConfigurationAdapter {
 
   @Override
   public String getConfigurationValue( String name ) throws ConfigurationException {
-    try {
-      Object obj = PropertyUtils.getSimpleProperty( bean, name );
-      String str = obj != null ? obj.toString() : null;
-      return str;
-    } catch( Exception e ) {
-      throw new ConfigurationException( String.format( "" ), e );
+    Object obj = getPropertyValue( name );
+    String str = obj != null ? obj.toString() : null;
+    return str;
+  }
+
+  @Override
+  public Object getTypedValue( String name ) throws ConfigurationException {
+    return getPropertyValue( name );
+  }
+
+  private Object getPropertyValue( String name ) throws ConfigurationException {
+    return getProperty( bean, name );
+  }
+
+  private static Object getProperty( Object bean, String name ) throws ConfigurationException {
+    Map<String, PropertyPath> paths = PATHS.get( bean.getClass() );
+    PropertyPath path = paths.get( name );
+    if( path == null ) {
+      path = PropertyPath.compile( bean.getClass(), name );
+      paths.putIfAbsent( name, path );
     }
+    return path.get( bean );
+  }
+
+  /**
+   * The getters of a dotted name resolved against the declared getter return types.
+   * Segments not found on a declared type are resolved against the runtime type of the value instead.
+   */
+  private static final class PropertyPath {
+
+    private final String name;
+    private final MethodHandle[] getters;
+    private final String remainder;
+    private final String failure;
+    private final Throwable cause;
+
+    private PropertyPath( String name, MethodHandle[] getters, String remainder, String failure, Throwable cause ) {
+      this.name = name;
+      this.getters = getters;
+      this.remainder = remainder;
+      this.failure = failure;
+      this.cause = cause;
+    }
+
+    static PropertyPath compile( Class<?> type, String name ) {
+      String[] segments = name.split( "\\.", -1 );
+      List<MethodHandle> getters = new ArrayList<MethodHandle>( segments.length );
+      Class<?> current = type;
+      for( int i=0; i<segments.length; i++ ) {
+        Method getter = findGetter( current, segments[ i ] );
+        if( getter == null ) {
+          if( i == 0 ) {
+            return new PropertyPath( name, null, null, String.format(
+                "Failed to find property %s of %s", name, type.getName() ), null );
+          }
+          return new PropertyPath( name, toArray( getters ), join( segments, i ), null, null );
+        }
+        try {
+          getters.add( unreflect( getter ) );
+        } catch( IllegalAccessException e ) {
+          return new PropertyPath( name, null, null, String.format(
+              "Failed to access property %s of %s", name, type.getName() ), e );
+        }
+        current = getter.getReturnType();
+      }
+      return new PropertyPath( name, toArray( getters ), null, null, null );
+    }
+
+    Object get( Object bean ) throws ConfigurationException {
+      if( failure != null ) {
+        throw new ConfigurationException( failure, cause );
+      }
+      Object value = bean;
+      try {
+        for( MethodHandle getter : getters ) {
+          if( value == null ) {
+            return null;
+          }
+          value = getter.invokeExact( value );
+        }
+      } catch( ConfigurationException e ) {
+        throw e;
+      } catch( Throwable t ) {
+        throw new ConfigurationException( String.format(
+            "Failed to read property %s of %s", name, bean.getClass().getName() ), t );
+      }
+      if( remainder != null && value != null ) {
+        value = getProperty( value, remainder );
+      }
+      return value;
+    }
+
+    private static Method findGetter( Class<?> type, String property ) {
+      if( property.length() == 0 || type.isPrimitive() ) {
+        return null;
+      }
+      String suffix = Character.toUpperCase( property.charAt( 0 ) ) + property.substring( 1 );
+      Method getter = findMethod( type, "get" + suffix );
+      if( getter == null || getter.getReturnType() == void.class ) {
+        getter = findMethod( type, "is" + suffix );
+        if( getter != null && getter.getReturnType() != boolean.class ) {
+          getter = null;
+        }
+      }
+      return getter;
+    }
+
+    private static Method findMethod( Class<?> type, String name ) {
+      try {
+        Method method = type.getMethod( name );
+        return Modifier.isStatic( method.getModifiers() ) ? null : method;
+      } catch( NoSuchMethodException e ) {
+        return null;
+      }
+    }
+
+    // Public getters of non-public classes, such as nested beans, need to be made accessible first.
+    private static MethodHandle unreflect( Method getter ) throws IllegalAccessException {
+      MethodHandle handle;
+      if( getter.trySetAccessible() ) {
+        handle = MethodHandles.lookup().unreflect( getter );
+      } else {
+        handle = MethodHandles.publicLookup().unreflect( getter );
+      }
+      return handle.asType( GETTER_TYPE );
+    }
+
+    private static MethodHandle[] toArray( List<MethodHandle> getters ) {
+      return getters.toArray( new MethodHandle[ getters.size() ] );
+    }
+
+    private static String join( String[] segments, int from ) {
+      StringBuilder joined = new StringBuilder();
+      for( int i=from; i<segments.length; i++ ) {
+        if( i > from ) {
+          joined.append( '.' );
+        }
+        joined.append( segments[ i ] );
+      }
+      return joined.toString();
+    }
+
   }
 
 }
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationConverter;
+import org.apache.commons.beanutils.ConvertUtilsBean2;
+import org.apache.commons.beanutils.Converter;
+
+/**
+ * Adapts a commons-beanutils converter for types without a built in converter.
+ * Only loaded when the optional commons-beanutils dependency is present.
+ */
+class BeanUtilsConfigurationConverter implements ConfigurationConverter<Object> {
+
+  private static final ConvertUtilsBean2 CONVERTERS = new ConvertUtilsBean2();
+
+  private final Class<?> type;
+  private final Converter converter;
+
+  private BeanUtilsConfigurationConverter( Class<?> type, Converter converter ) {
+    this.type = type;
+    this.converter = converter;
+  }
+
+  static BeanUtilsConfigurationConverter find( Class<?> type ) {
+    Converter converter = CONVERTERS.lookup( String.class, type );
+    return converter == null ? null : new BeanUtilsConfigurationConverter( type, converter );
+  }
+
+  @Override
+  public Object convert( String value ) {
+    return converter.convert( type, value );
+  }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import java.util.Collection;
+
+/**
+ * A fixed set of names that answers "definitely absent" or "possibly present".
+ * About ten bits per name and seven probes give roughly one false positive per hundred absent names.
+ * The probes are derived from a single 64 bit hash of the name so one hash can be shared by several filters.
+ */
+final class BloomFilter {
+
+  private static final int BITS_PER_NAME = 10;
+  private static final int PROBES = 7;
+
+  private final long[] words;
+  private final int mask;
+
+  BloomFilter( Collection<String> names ) {
+    int bits = Integer.highestOneBit( Math.max( 64, names.size() * BITS_PER_NAME ) - 1 ) << 1;
+    words = new long[ bits >>> 6 ];
+    mask = bits - 1;
+    for( String name : names ) {
+      add( hash( name ) );
+    }
+  }
+
+  static long hash( String name ) {
+    long hash = 0xCBF29CE484222325L;
+    for( int i=0; i<name.length(); i++ ) {
+      hash = ( hash ^ name.charAt( i ) ) * 0x100000001B3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  boolean mightContain( long hash ) {
+    int h1 = (int)hash;
+    int h2 = (int)( hash >>> 32 ) | 1;
+    for( int i=0; i<PROBES; i++ ) {
+      int bit = ( h1 + i * h2 ) & mask;
+      if( ( words[ bit >>> 6 ] & ( 1L << bit ) ) == 0 ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void add( long hash ) {
+    int h1 = (int)hash;
+    int h2 = (int)( hash >>> 32 ) | 1;
+    for( int i=0; i<PROBES; i++ ) {
+      int bit = ( h1 + i * h2 ) & mask;
+      words[ bit >>> 6 ] |= 1L << bit;
+    }
+  }
+
+}
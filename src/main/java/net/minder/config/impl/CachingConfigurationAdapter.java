@@ -0,0 +1,354 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationException;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the values of an expensive source, including the absence of a value.
+ * Concurrent misses for the same name share a single lookup of the source.
+ * When the cache is full the least recently used entries are evicted, approximated with a second chance queue so
+ * hits only set a flag and never take a lock.
+ * Entries can expire after a time to live, and can be refreshed in the background some time before that.
+ * <pre>
+ * CachingConfigurationAdapter.cache( source ).maximumSize( 10000 ).timeToLive( Duration.ofMinutes( 5 ) ).build();
+ * </pre>
+ */
+public class CachingConfigurationAdapter implements ConfigurationAdapter {
+
+  private final ConfigurationAdapter source;
+  private final int maximumSize;
+  private final long timeToLive;
+  private final long missingTimeToLive;
+  private final long refreshAfter;
+  private final Executor executor;
+  private final LongSupplier clock;
+
+  private final ConcurrentMap<String,Entry> entries = new ConcurrentHashMap<String,Entry>();
+  private final ConcurrentMap<String,CompletableFuture<Entry>> loading = new ConcurrentHashMap<String,CompletableFuture<Entry>>();
+  private final Queue<Entry> order = new ConcurrentLinkedQueue<Entry>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final Lock evictionLock = new ReentrantLock();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder refreshes = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+
+  private CachingConfigurationAdapter( Builder builder ) {
+    this.source = builder.source;
+    this.maximumSize = builder.maximumSize;
+    this.timeToLive = builder.timeToLive;
+    this.missingTimeToLive = builder.missingTimeToLive;
+    this.refreshAfter = builder.refreshAfter;
+    this.executor = builder.executor;
+    this.clock = builder.clock;
+  }
+
+  public static Builder cache( ConfigurationAdapter source ) {
+    return new Builder( source );
+  }
+
+  @Override
+  public String getConfigurationValue( String name ) throws ConfigurationException {
+    long now = clock.getAsLong();
+    Entry entry = entries.get( name );
+    if( entry != null && !entry.isExpired( now ) ) {
+      hits.increment();
+      entry.referenced = true;
+      if( refreshAfter > 0 && now - entry.loaded >= refreshAfter ) {
+        refresh( name, entry );
+      }
+      return entry.value;
+    }
+    misses.increment();
+    return load( name ).value;
+  }
+
+  public void invalidate( String name ) {
+    Entry entry = entries.remove( name );
+    if( entry != null ) {
+      size.decrementAndGet();
+    }
+  }
+
+  public void invalidateAll() {
+    for( String name : entries.keySet() ) {
+      invalidate( name );
+    }
+  }
+
+  public int size() {
+    return size.get();
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  public long getRefreshCount() {
+    return refreshes.sum();
+  }
+
+  public long getLoadFailureCount() {
+    return failures.sum();
+  }
+
+  // The first thread to miss a name loads it and the others wait for its result.
+  private Entry load( String name ) {
+    CompletableFuture<Entry> future = new CompletableFuture<Entry>();
+    CompletableFuture<Entry> existing = loading.putIfAbsent( name, future );
+    if( existing != null ) {
+      try {
+        return existing.join();
+      } catch( CompletionException e ) {
+        if( e.getCause() instanceof Error ) {
+          throw (Error)e.getCause();
+        }
+        throw e.getCause() instanceof RuntimeException ? (RuntimeException)e.getCause() : e;
+      }
+    }
+    try {
+      // Another thread may have finished loading between the cache check and claiming the load.
+      Entry entry = entries.get( name );
+      if( entry == null || entry.isExpired( clock.getAsLong() ) ) {
+        entry = fetch( name );
+        store( name, entry );
+      }
+      future.complete( entry );
+      return entry;
+    } catch( RuntimeException | Error e ) {
+      // Errors must reach the waiters too or they would wait forever.
+      failures.increment();
+      future.completeExceptionally( e );
+      throw e;
+    } finally {
+      loading.remove( name, future );
+    }
+  }
+
+  private void refresh( final String name, final Entry entry ) {
+    if( !entry.claimRefresh() ) {
+      return;
+    }
+    try {
+      executor.execute( () -> {
+        try {
+          Entry fresh = fetch( name );
+          if( entries.replace( name, entry, fresh ) ) {
+            enqueue( fresh );
+            refreshes.increment();
+          }
+        } catch( RuntimeException e ) {
+          // Keep serving the current value until it expires.
+          failures.increment();
+          entry.releaseRefresh();
+        }
+      } );
+    } catch( RuntimeException e ) {
+      entry.releaseRefresh();
+    }
+  }
+
+  private Entry fetch( String name ) {
+    String value = source.getConfigurationValue( name );
+    long now = clock.getAsLong();
+    long expiry = value == null ? missingTimeToLive : timeToLive;
+    return new Entry( name, value, now, expiry > 0 ? now + expiry : Long.MAX_VALUE, expiry > 0 );
+  }
+
+  private void store( String name, Entry entry ) {
+    if( entries.put( name, entry ) == null ) {
+      size.incrementAndGet();
+    }
+    enqueue( entry );
+  }
+
+  private void enqueue( Entry entry ) {
+    order.add( entry );
+    int count = queued.incrementAndGet();
+    int current = size.get();
+    if( current > maximumSize || count > 2 * Math.max( current, 16 ) ) {
+      evict();
+    }
+  }
+
+  // Entries referenced since they were last looked at are given a second chance at the back of the queue.
+  // Queued entries that are no longer in the map were replaced or invalidated and are dropped, and the whole queue is
+  // passed over when these make up most of it.
+  private void evict() {
+    if( !evictionLock.tryLock() ) {
+      return;
+    }
+    try {
+      int remaining = queued.get() > 2 * Math.max( size.get(), 16 ) ? queued.get() : 0;
+      for( ; remaining > 0 || size.get() > maximumSize; remaining-- ) {
+        Entry entry = order.poll();
+        if( entry == null ) {
+          break;
+        }
+        queued.decrementAndGet();
+        if( entries.get( entry.name ) != entry ) {
+          continue;
+        }
+        if( size.get() <= maximumSize ) {
+          order.add( entry );
+          queued.incrementAndGet();
+        } else if( entry.referenced ) {
+          entry.referenced = false;
+          order.add( entry );
+          queued.incrementAndGet();
+        } else if( entries.remove( entry.name, entry ) ) {
+          size.decrementAndGet();
+          evictions.increment();
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private static final class Entry {
+
+    private final String name;
+    private final String value;
+    private final long loaded;
+    private final long expires;
+    private final boolean expiring;
+    private final AtomicInteger refreshing = new AtomicInteger();
+    private volatile boolean referenced;
+
+    private Entry( String name, String value, long loaded, long expires, boolean expiring ) {
+      this.name = name;
+      this.value = value;
+      this.loaded = loaded;
+      this.expires = expires;
+      this.expiring = expiring;
+    }
+
+    private boolean isExpired( long now ) {
+      return expiring && now - expires >= 0;
+    }
+
+    private boolean claimRefresh() {
+      return refreshing.compareAndSet( 0, 1 );
+    }
+
+    private void releaseRefresh() {
+      refreshing.set( 0 );
+    }
+
+  }
+
+  public static final class Builder {
+
+    private final ConfigurationAdapter source;
+    private int maximumSize = 10000;
+    private long timeToLive;
+    private long missingTimeToLive = -1;
+    private long refreshAfter;
+    private Executor executor;
+    private LongSupplier clock = System::nanoTime;
+
+    private Builder( ConfigurationAdapter source ) {
+      this.source = source;
+    }
+
+    public Builder maximumSize( int maximumSize ) {
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * How long a value is kept after it was loaded, forever by default.
+     */
+    public Builder timeToLive( Duration timeToLive ) {
+      this.timeToLive = timeToLive.toNanos();
+      return this;
+    }
+
+    /**
+     * How long the absence of a value is kept, the same as for values by default.
+     */
+    public Builder missingTimeToLive( Duration missingTimeToLive ) {
+      this.missingTimeToLive = missingTimeToLive.toNanos();
+      return this;
+    }
+
+    /**
+     * How long after loading a value a hit starts a background reload of it, never by default.
+     */
+    public Builder refreshAfter( Duration refreshAfter ) {
+      this.refreshAfter = refreshAfter.toNanos();
+      return this;
+    }
+
+    /**
+     * Where background reloads run, virtual threads or a small daemon pool by default.
+     */
+    public Builder executor( Executor executor ) {
+      this.executor = executor;
+      return this;
+    }
+
+    Builder clock( LongSupplier clock ) {
+      this.clock = clock;
+      return this;
+    }
+
+    public CachingConfigurationAdapter build() {
+      if( maximumSize < 1 ) {
+        throw new IllegalArgumentException( "Cache maximum size must be positive: " + maximumSize );
+      }
+      if( missingTimeToLive < 0 ) {
+        missingTimeToLive = timeToLive;
+      }
+      if( executor == null ) {
+        executor = FetchExecutor.get();
+      }
+      return new CachingConfigurationAdapter( this );
+    }
+
+  }
+
+}
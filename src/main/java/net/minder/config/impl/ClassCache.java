@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A ClassValue held by an injector instance that can still be emptied by evictAll(), like the static plan and
+ * adapter caches.  Live caches are held weakly so an injector that is no longer used can be collected.
+ */
+abstract class ClassCache<T> extends ClassValue<T> {
+
+  private static final Set<ClassCache<?>> CACHES = Collections.newSetFromMap( new WeakHashMap<ClassCache<?>,Boolean>() );
+  private static final Lock LOCK = new ReentrantLock();
+
+  private final ClassSet<Boolean> types = new ClassSet<Boolean>();
+
+  ClassCache() {
+    LOCK.lock();
+    try {
+      CACHES.add( this );
+    } finally {
+      LOCK.unlock();
+    }
+  }
+
+  protected abstract T compute( Class<?> type );
+
+  @Override
+  protected final T computeValue( Class<?> type ) {
+    types.put( type, Boolean.TRUE );
+    return compute( type );
+  }
+
+  void evict() {
+    for( Class<?> type : types.clear() ) {
+      remove( type );
+    }
+  }
+
+  /**
+   * Empties every live cache so values are computed again on next use.
+   */
+  static void evictAll() {
+    List<ClassCache<?>> caches;
+    LOCK.lock();
+    try {
+      caches = new ArrayList<ClassCache<?>>( CACHES );
+    } finally {
+      LOCK.unlock();
+    }
+    for( ClassCache<?> cache : caches ) {
+      cache.evict();
+    }
+  }
+
+}
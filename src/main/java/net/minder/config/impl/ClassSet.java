@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The classes a ClassValue cache has computed values for, held weakly so their loaders can still be unloaded.
+ * ClassValue can't enumerate its entries, and this is only touched when an entry is computed or listed.
+ */
+final class ClassSet<T> {
+
+  private final Map<Class<?>,T> values = new WeakHashMap<Class<?>,T>();
+  private final Lock lock = new ReentrantLock();
+
+  void put( Class<?> type, T value ) {
+    lock.lock();
+    try {
+      values.put( type, value );
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  Map<Class<?>,T> snapshot() {
+    lock.lock();
+    try {
+      return new HashMap<Class<?>,T>( values );
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  List<Class<?>> clear() {
+    lock.lock();
+    try {
+      List<Class<?>> types = new ArrayList<Class<?>>( values.keySet() );
+      values.clear();
+      return types;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return values.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+}
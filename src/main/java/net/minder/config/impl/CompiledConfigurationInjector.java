@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.ConfigurationException;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import net.minder.config.spi.ConfigurationInjector;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * An injector that generates a hidden class per configurable class containing straight-line injection code.
+ * Members the generated code cannot reach, and classes for which generation fails, use the default injection path.
+ * Select it by listing it in a META-INF/services/net.minder.config.spi.ConfigurationInjector file.
+ */
+public class CompiledConfigurationInjector implements ConfigurationInjector {
+
+  private final DefaultConfigurationInjector delegate;
+
+  private final ClassCache<ClassInjector> injectors = new ClassCache<ClassInjector>() {
+    @Override
+    protected ClassInjector compute( Class<?> type ) {
+      return createClassInjector( InjectionPlan.get( type, delegate.getAccessStrategy() ) );
+    }
+  };
+
+  public CompiledConfigurationInjector() {
+    this( new DefaultConfigurationInjector() );
+  }
+
+  public CompiledConfigurationInjector( DefaultConfigurationInjector delegate ) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void configure( Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
+      throws ConfigurationException {
+    if( ListeningConfigurationAdapter.needsRecording( adapter ) ) {
+      ListeningConfigurationAdapter.configure( this, delegate.getAccessStrategy(), target, adapter, binding, null );
+      return;
+    }
+    adapter = delegate.prefetch( target, adapter, binding );
+    InjectionPlan plan = InjectionPlan.get( target.getClass(), delegate.getAccessStrategy() );
+    while( plan != null ) {
+      injectors.get( plan.getType() ).inject( target, adapter, binding );
+      plan = plan.getParent();
+    }
+  }
+
+  @Override
+  public void prepare( Class<?> type ) throws ConfigurationException {
+    InjectionPlan plan = InjectionPlan.get( type, delegate.getAccessStrategy() );
+    while( plan != null ) {
+      injectors.get( plan.getType() );
+      plan = plan.getParent();
+    }
+  }
+
+  @Override
+  public void configure(
+      Object target, ConfigurationAdapter adapter, ConfigurationBinding binding, ConfigurationInjectionListener listener )
+      throws ConfigurationException {
+    ListeningConfigurationAdapter.configure( this, delegate.getAccessStrategy(), target, adapter, binding, listener );
+  }
+
+  @Override
+  public CompletableFuture<Void> configureAsync(
+      Object target, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor ) {
+    return delegate.fetchAsync( target, adapter, binding, executor ).thenAccept( fetched -> configure( target, fetched, binding ) );
+  }
+
+  @Override
+  public CompletableFuture<Void> configureAsync(
+      Object target, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor,
+      ConfigurationInjectionListener listener ) {
+    return ListeningConfigurationAdapter.configureAsync( this, delegate.getAccessStrategy(), target, adapter, binding, executor, listener );
+  }
+
+  @Override
+  public void configureAll( Iterable<?> targets, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor )
+      throws ConfigurationException {
+    BatchInjection.configureAll( this, delegate.getAccessStrategy(), targets, adapter, binding, executor, null );
+  }
+
+  @Override
+  public void configureAll(
+      Iterable<?> targets, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor,
+      ConfigurationInjectionListener listener ) throws ConfigurationException {
+    BatchInjection.configureAll( this, delegate.getAccessStrategy(), targets, adapter, binding, executor, listener );
+  }
+
+  boolean isCompiled( Class<?> type ) {
+    return !( injectors.get( type ) instanceof FallbackClassInjector );
+  }
+
+  private ClassInjector createClassInjector( InjectionPlan plan ) {
+    Support support = new Support( plan, delegate );
+    try {
+      return InjectorClassGenerator.generate( plan, support );
+    } catch( Exception e ) {
+      return new FallbackClassInjector( support );
+    } catch( LinkageError e ) {
+      // Also covers the optional bytecode library being absent at runtime.
+      return new FallbackClassInjector( support );
+    }
+  }
+
+  public interface ClassInjector {
+    void inject( Object target, ConfigurationAdapter adapter, ConfigurationBinding binding );
+  }
+
+  /**
+   * The operations generated injectors call back into, addressed by member index within the plan.
+   */
+  public static final class Support {
+
+    private final InjectionPlan plan;
+    private final DefaultConfigurationInjector injector;
+
+    private Support( InjectionPlan plan, DefaultConfigurationInjector injector ) {
+      this.plan = plan;
+      this.injector = injector;
+    }
+
+    public Object fieldValue( int field, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding ) {
+      return injector.resolveFieldValue( plan.getFields()[ field ], target, adapter, binding );
+    }
+
+    public Object argumentValue( int method, int param, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding ) {
+      return injector.resolveArgumentValue( plan.getMethods()[ method ].getParameters()[ param ], target, adapter, binding );
+    }
+
+    public void injectField( int field, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding ) {
+      injector.injectFieldValue( plan.getFields()[ field ], target, adapter, binding );
+    }
+
+    public void injectMethod( int method, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding ) {
+      injector.injectMethodValue( plan.getMethods()[ method ], target, adapter, binding );
+    }
+
+    public ConfigurationException methodFailure(
+        int method, Object target, Throwable cause, ConfigurationAdapter adapter, ConfigurationBinding binding ) {
+      return injector.methodFailure( plan.getMethods()[ method ], target, cause, adapter, binding );
+    }
+
+    void injectClass( Object target, ConfigurationAdapter adapter, ConfigurationBinding binding ) {
+      injector.injectClass( plan, target, adapter, binding );
+    }
+
+  }
+
+  private static class FallbackClassInjector implements ClassInjector {
+
+    private final Support support;
+
+    private FallbackClassInjector( Support support ) {
+      this.support = support;
+    }
+
+    @Override
+    public void inject( Object target, ConfigurationAdapter adapter, ConfigurationBinding binding ) {
+      support.injectClass( target, adapter, binding );
+    }
+
+  }
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stacks several sources, for example defaults, a file, the environment and overrides, with later sources taking
+ * priority over earlier ones.
+ * Layers whose names are fixed, frozen snapshots, mapped properties files and composites of those, get a bloom filter
+ * of their names so a name they don't contain is skipped without a lookup.
+ */
+public class CompositeConfigurationAdapter implements ConfigurationAdapter {
+
+  // Highest priority first, with a null filter for layers that can't list their names.
+  private final ConfigurationAdapter[] layers;
+  private final BloomFilter[] filters;
+  private final boolean filtered;
+
+  /**
+   * Creates a composite from sources in increasing priority, each being an adapter or any object an adapter is
+   * registered for.
+   */
+  public CompositeConfigurationAdapter( Object... sources ) throws ConfigurationException {
+    int count = sources.length;
+    layers = new ConfigurationAdapter[ count ];
+    filters = new BloomFilter[ count ];
+    boolean any = false;
+    for( int i=0; i<count; i++ ) {
+      Object source = sources[ count - 1 - i ];
+      layers[ i ] = source instanceof ConfigurationAdapter
+          ? (ConfigurationAdapter)source
+          : ConfigurationAdapterFactory.get( source );
+      Collection<String> names = getNames( layers[ i ] );
+      if( names != null ) {
+        filters[ i ] = new BloomFilter( names );
+        any = true;
+      }
+    }
+    filtered = any;
+  }
+
+  @Override
+  public String getConfigurationValue( String name ) throws ConfigurationException {
+    long hash = filtered ? BloomFilter.hash( name ) : 0;
+    for( int i=0; i<layers.length; i++ ) {
+      if( filters[ i ] == null || filters[ i ].mightContain( hash ) ) {
+        String value = layers[ i ].getConfigurationValue( name );
+        if( value != null ) {
+          return value;
+        }
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Object getTypedValue( String name ) throws ConfigurationException {
+    long hash = filtered ? BloomFilter.hash( name ) : 0;
+    for( int i=0; i<layers.length; i++ ) {
+      if( filters[ i ] == null || filters[ i ].mightContain( hash ) ) {
+        Object value = layers[ i ].getTypedValue( name );
+        if( value != null ) {
+          return value;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Merges the layers into a single frozen snapshot when every layer's names are fixed, so a lookup is one probe.
+   * Only the value that wins for each name is read, so shadowed values in mapped files are never decoded.
+   * Returns this composite unchanged when any layer can change.
+   */
+  public ConfigurationAdapter flatten() throws ConfigurationException {
+    if( getMergedNames() == null ) {
+      return this;
+    }
+    Map<String,Object> merged = new HashMap<String,Object>();
+    for( int i=0; i<layers.length; i++ ) {
+      for( String name : getNames( layers[ i ] ) ) {
+        if( !merged.containsKey( name ) ) {
+          merged.put( name, layers[ i ].getTypedValue( name ) );
+        }
+      }
+    }
+    return FrozenConfigurationAdapter.create( merged );
+  }
+
+  private Collection<String> getMergedNames() {
+    Set<String> merged = new HashSet<String>();
+    for( int i=0; i<layers.length; i++ ) {
+      if( filters[ i ] == null ) {
+        return null;
+      }
+      merged.addAll( getNames( layers[ i ] ) );
+    }
+    return merged;
+  }
+
+  // Every name of layers that can't change, or null for any other layer.
+  private static Collection<String> getNames( ConfigurationAdapter layer ) {
+    if( layer instanceof FrozenConfigurationAdapter ) {
+      return ((FrozenConfigurationAdapter)layer).getNames();
+    } else if( layer instanceof MappedPropertiesConfigurationAdapter ) {
+      return ((MappedPropertiesConfigurationAdapter)layer).getNames();
+    } else if( layer instanceof CompositeConfigurationAdapter ) {
+      return ((CompositeConfigurationAdapter)layer).getMergedNames();
+    }
+    return null;
+  }
+
+}
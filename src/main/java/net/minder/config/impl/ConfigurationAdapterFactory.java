@@ -21,22 +21,55 @@ import net.minder.config.ConfigurationAdapter;
 import net.minder.config.ConfigurationException;
 import net.minder.config.spi.ConfigurationAdapterDescriptor;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ConfigurationAdapterFactory {
 
-  private static Map<Class<?>, Class<? extends ConfigurationAdapter>> ADAPTERS = null;
+  private static final MethodType FACTORY_TYPE = MethodType.methodType( ConfigurationAdapter.class, Object.class );
 
-  private static synchronized Map<Class<?>, Class<? extends ConfigurationAdapter>> getAdapters() {
-    if( ADAPTERS == null ) {
-      loadAdapters();
+  private static volatile Map<Class<?>, Class<? extends ConfigurationAdapter>> ADAPTERS = null;
+  private static final Lock LOCK = new ReentrantLock();
+
+  // The adapter resolution for each concrete config class is done once, so sources only pay for construction.
+  private static final ClassValue<AdapterFactory> FACTORIES = new ClassValue<AdapterFactory>() {
+    @Override
+    protected AdapterFactory computeValue( Class<?> configType ) {
+      TYPES.put( configType, Boolean.TRUE );
+      return createFactory( configType );
+    }
+  };
+  private static final ClassSet<Boolean> TYPES = new ClassSet<Boolean>();
+
+  private static Map<Class<?>, Class<? extends ConfigurationAdapter>> getAdapters() {
+    Map<Class<?>, Class<? extends ConfigurationAdapter>> adapters = ADAPTERS;
+    if( adapters == null ) {
+      LOCK.lock();
+      try {
+        if( ADAPTERS == null ) {
+          loadAdapters();
+        }
+        adapters = ADAPTERS;
+      } finally {
+        LOCK.unlock();
+      }
     }
-    return ADAPTERS;
+    return adapters;
   }
 
   private static void loadAdapters() {
@@ -62,36 +95,68 @@ public class ConfigurationAdapterFactory {
     if( config == null ) {
       throw new NullPointerException( "Configuration adapter instantiation impossible for null config object." );
     }
-    try {
-      Map<Class<?>, Class<? extends ConfigurationAdapter>> adapters = getAdapters();
-      Class configType = config.getClass();
-      Class adapterType = findAdapterTypeForConfigTypeOrParent( adapters, configType );
-      if( adapterType == null ) {
+    ConfigurationStatistics.adapterResolved( config.getClass() );
+    return FACTORIES.get( config.getClass() ).create( config );
+  }
+
+  /**
+   * Drops the cached adapter resolution of every config type.
+   */
+  public static void evictAll() {
+    for( Class<?> type : TYPES.clear() ) {
+      FACTORIES.remove( type );
+    }
+  }
+
+  private interface AdapterFactory {
+    ConfigurationAdapter create( Object config ) throws ConfigurationException;
+  }
+
+  // Failures are cached as factories that throw so unsupported config types are not resolved again either.
+  private static AdapterFactory createFactory( final Class<?> configType ) {
+    final Class<? extends ConfigurationAdapter> adapterType =
+        findAdapterTypeForConfigTypeOrParent( getAdapters(), configType );
+    if( adapterType == null ) {
+      return config -> {
         throw new ConfigurationException( "No configuration adapter found for config type " + configType.getName() );
-      }
-      Constructor c = findConstructorForConfigType( adapterType, configType );
-      if( !c.isAccessible() ) {
-        c.setAccessible( true );
-      }
-      Object adapter = c.newInstance( config );
-      return ConfigurationAdapter.class.cast( adapter );
-    } catch( ConfigurationException e ) {
-      throw e;
+      };
+    }
+    final MethodHandle constructor;
+    try {
+      Constructor<?> c = findConstructorForConfigType( adapterType, configType );
+      c.trySetAccessible();
+      constructor = MethodHandles.lookup().unreflectConstructor( c ).asType( FACTORY_TYPE );
     } catch( Exception e ) {
-      throw new ConfigurationException( "Configuration adapter instantiation failed.", e );
+      return config -> {
+        throw new ConfigurationException( "Configuration adapter instantiation failed.", e );
+      };
     }
+    return config -> {
+      try {
+        return (ConfigurationAdapter)constructor.invokeExact( config );
+      } catch( ConfigurationException e ) {
+        throw e;
+      } catch( Error e ) {
+        throw e;
+      } catch( Throwable t ) {
+        throw new ConfigurationException( "Configuration adapter instantiation failed.", t );
+      }
+    };
   }
 
-  public static Constructor findConstructorForConfigType( Class<?> adapterType, Class<?> configType ) throws NoSuchMethodException {
-    Constructor constructor = null;
-    Constructor[] constructors = adapterType.getConstructors();
-    for( Constructor candidate : constructors ) {
+  /**
+   * Picks the single argument constructor with the most specific parameter type that accepts the config type.
+   */
+  public static Constructor<?> findConstructorForConfigType( Class<?> adapterType, Class<?> configType ) throws NoSuchMethodException {
+    Constructor<?> constructor = null;
+    Constructor<?>[] constructors = adapterType.getConstructors();
+    for( Constructor<?> candidate : constructors ) {
       Class<?>[] paramTypes = candidate.getParameterTypes();
       if( paramTypes.length == 1 ) {
         Class<?> paramType = paramTypes[0];
-        if( paramType.isAssignableFrom( configType ) ) {
+        if( paramType.isAssignableFrom( configType ) &&
+            ( constructor == null || constructor.getParameterTypes()[0].isAssignableFrom( paramType ) ) ) {
           constructor = candidate;
-          break;
         }
       }
     }
@@ -101,31 +166,63 @@ public class ConfigurationAdapterFactory {
     return constructor;
   }
 
+  /**
+   * Finds the adapter registered for the most specific supertype of the config type.
+   * A registered type is never picked when a subtype of it is also registered and matches, so for example an
+   * adapter registered for an interface wins over the one registered for Object.
+   * Unrelated matches are decided by distance in the type hierarchy, superclasses before interfaces.
+   */
   public static Class<? extends ConfigurationAdapter> findAdapterTypeForConfigTypeOrParent(
       Map<Class<?>, Class<? extends ConfigurationAdapter>> adapters, Class<?> configType ) {
-    Class<? extends ConfigurationAdapter> adapterType = null;
-    while( configType != null ) {
-      adapterType = findAdapterTypeForConfigType( adapters, configType );
-      if( adapterType != null ) {
+    List<Class<?>> matches = new ArrayList<Class<?>>();
+    for( Class<?> type : getSupertypes( configType ) ) {
+      if( adapters.containsKey( type ) ) {
+        matches.add( type );
+      }
+    }
+    Class<?> match = null;
+    for( Class<?> candidate : matches ) {
+      if( isMostSpecific( candidate, matches ) ) {
+        match = candidate;
         break;
       }
-      configType = configType.getSuperclass();
     }
-    return adapterType;
+    return match == null ? null : adapters.get( match );
   }
 
-  public static Class<? extends ConfigurationAdapter> findAdapterTypeForConfigType(
-      Map<Class<?>, Class<? extends ConfigurationAdapter>> adapters, Class<?> configType ) {
-    Class<? extends ConfigurationAdapter> adapterType = adapters.get( configType );
-    if( adapterType == null ) {
-      for( Class interfaceType : configType.getInterfaces() ) {
-        adapterType = findAdapterTypeForConfigTypeOrParent( adapters, interfaceType );
-        if( adapterType != null ) {
-          break;
+  private static boolean isMostSpecific( Class<?> candidate, List<Class<?>> matches ) {
+    for( Class<?> other : matches ) {
+      if( other != candidate && candidate.isAssignableFrom( other ) ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // The config type and all of its supertypes in breadth first order.
+  private static Set<Class<?>> getSupertypes( Class<?> configType ) {
+    Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+    Deque<Class<?>> queue = new ArrayDeque<Class<?>>();
+    queue.add( configType );
+    while( !queue.isEmpty() ) {
+      Class<?> type = queue.poll();
+      if( types.add( type ) ) {
+        if( type.getSuperclass() != null ) {
+          queue.add( type.getSuperclass() );
         }
+        Collections.addAll( queue, type.getInterfaces() );
       }
     }
-    return adapterType;
+    types.add( Object.class );
+    return types;
+  }
+
+  /**
+   * Finds the adapter registered for the config type, resolved the same way as findAdapterTypeForConfigTypeOrParent.
+   */
+  public static Class<? extends ConfigurationAdapter> findAdapterTypeForConfigType(
+      Map<Class<?>, Class<? extends ConfigurationAdapter>> adapters, Class<?> configType ) {
+    return findAdapterTypeForConfigTypeOrParent( adapters, configType );
   }
 
 }
@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationConverter;
+import net.minder.config.ConfigurationException;
+import net.minder.config.spi.ConfigurationConverterDescriptor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConfigurationConverterFactory {
+
+  private static final String BEANUTILS_CLASS = "org.apache.commons.beanutils.ConvertUtilsBean2";
+
+  private static volatile Map<Class<?>, ConfigurationConverter<?>> CONVERTERS = null;
+  private static final Lock LOCK = new ReentrantLock();
+
+  private static final ClassValue<ConfigurationConverter<?>> RESOLVED = new ClassValue<ConfigurationConverter<?>>() {
+    @Override
+    protected ConfigurationConverter<?> computeValue( Class<?> type ) {
+      return resolve( type );
+    }
+  };
+
+  private static Map<Class<?>, ConfigurationConverter<?>> getConverters() {
+    Map<Class<?>, ConfigurationConverter<?>> converters = CONVERTERS;
+    if( converters == null ) {
+      LOCK.lock();
+      try {
+        if( CONVERTERS == null ) {
+          loadConverters();
+        }
+        converters = CONVERTERS;
+      } finally {
+        LOCK.unlock();
+      }
+    }
+    return converters;
+  }
+
+  private static void loadConverters() {
+    Map<Class<?>, ConfigurationConverter<?>> all = new HashMap<Class<?>, ConfigurationConverter<?>>();
+    all.putAll( new DefaultConfigurationConverterDescriptor().providedConfigurationConverters() );
+    ServiceLoader<ConfigurationConverterDescriptor> loader = ServiceLoader.load( ConfigurationConverterDescriptor.class );
+    if( loader != null ) {
+      Iterator<ConfigurationConverterDescriptor> i = loader.iterator();
+      if( i != null ) {
+        while( i.hasNext() ) {
+          ConfigurationConverterDescriptor descriptor = i.next();
+          Map<Class<?>, ConfigurationConverter<?>> add = descriptor.providedConfigurationConverters();
+          if( add != null ) {
+            all.putAll( add );
+          }
+        }
+      }
+    }
+    CONVERTERS = Collections.unmodifiableMap( all );
+  }
+
+  /**
+   * Returns the converter for a target type.  The lookup is resolved once per type and cached.
+   */
+  public static ConfigurationConverter<?> get( Class<?> type ) {
+    return RESOLVED.get( type );
+  }
+
+  @SuppressWarnings( { "unchecked", "rawtypes" } )
+  private static ConfigurationConverter<?> resolve( Class<?> type ) {
+    ConfigurationConverter<?> converter = getConverters().get( type );
+    if( converter == null && type.isEnum() ) {
+      converter = new EnumConfigurationConverter( type );
+    }
+    if( converter == null && type.isArray() ) {
+      converter = new ArrayConfigurationConverter( type.getComponentType(), get( type.getComponentType() ) );
+    }
+    if( converter == null && isBeanUtilsAvailable() ) {
+      converter = BeanUtilsConfigurationConverter.find( type );
+    }
+    if( converter == null ) {
+      converter = FactoryMethodConfigurationConverter.find( type );
+    }
+    if( converter == null ) {
+      converter = new UnsupportedConverter( type );
+    }
+    return converter;
+  }
+
+  private static boolean isBeanUtilsAvailable() {
+    try {
+      Class.forName( BEANUTILS_CLASS, false, ConfigurationConverterFactory.class.getClassLoader() );
+      return true;
+    } catch( ClassNotFoundException e ) {
+      return false;
+    } catch( LinkageError e ) {
+      return false;
+    }
+  }
+
+  private static class UnsupportedConverter implements ConfigurationConverter<Object> {
+
+    private final Class<?> type;
+
+    private UnsupportedConverter( Class<?> type ) {
+      this.type = type;
+    }
+
+    @Override
+    public Object convert( String value ) {
+      throw new ConfigurationException( "No configuration converter found for type " + type.getName() );
+    }
+
+  }
+
+}
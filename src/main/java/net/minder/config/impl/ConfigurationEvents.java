@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+
+import java.util.Collection;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder events for injections, lookups and conversions.
+ * Events are only filled in and committed when a recording has them enabled, and creating one that isn't is
+ * optimized away, so they cost nothing without a recording.
+ * Enable them with the net.minder.config.* event names, for example in a JFC file.
+ * On a runtime without the jdk.jfr module no event is ever created, so callers hold events as plain objects that
+ * are null there, and only {@link Recorder} refers to the event types.
+ */
+final class ConfigurationEvents {
+
+  private static final boolean AVAILABLE = ModuleLayer.boot().findModule( "jdk.jfr" ).isPresent();
+
+  private ConfigurationEvents() {
+  }
+
+  static boolean isEnabled() {
+    return AVAILABLE && Recorder.isEnabled();
+  }
+
+  static Object beginInjection() {
+    return AVAILABLE ? Recorder.beginInjection() : null;
+  }
+
+  static Object beginLookup() {
+    return AVAILABLE ? Recorder.beginLookup() : null;
+  }
+
+  static Object beginConversion() {
+    return AVAILABLE ? Recorder.beginConversion() : null;
+  }
+
+  static void injected( Object event, Class<?> type, int members ) {
+    if( event != null ) {
+      Recorder.injected( (InjectionEvent)event, type, members );
+    }
+  }
+
+  static void lookedUp( Object event, ConfigurationAdapter source, String name, boolean found ) {
+    if( event != null ) {
+      Recorder.lookedUp( (LookupEvent)event, source, name, found );
+    }
+  }
+
+  // The whole batch is one event, found only when every name was, and its key is only joined when it's recorded.
+  static void lookedUp( Object event, ConfigurationAdapter source, Collection<String> names, boolean found ) {
+    if( event != null ) {
+      Recorder.lookedUp( (LookupEvent)event, source, names, found );
+    }
+  }
+
+  static void converted( Object event, String name, Class<?> type, Throwable failure ) {
+    if( event != null ) {
+      Recorder.converted( (ConversionEvent)event, name, type, failure );
+    }
+  }
+
+  private static final class Recorder {
+
+    // Looked up once so checking whether a recording wants any of the events allocates nothing.
+    private static final EventType INJECTION = EventType.getEventType( InjectionEvent.class );
+    private static final EventType LOOKUP = EventType.getEventType( LookupEvent.class );
+    private static final EventType CONVERSION = EventType.getEventType( ConversionEvent.class );
+
+    static boolean isEnabled() {
+      return INJECTION.isEnabled() || LOOKUP.isEnabled() || CONVERSION.isEnabled();
+    }
+
+    static Object beginInjection() {
+      InjectionEvent event = new InjectionEvent();
+      event.begin();
+      return event;
+    }
+
+    static Object beginLookup() {
+      LookupEvent event = new LookupEvent();
+      event.begin();
+      return event;
+    }
+
+    static Object beginConversion() {
+      ConversionEvent event = new ConversionEvent();
+      event.begin();
+      return event;
+    }
+
+    static void injected( InjectionEvent event, Class<?> type, int members ) {
+      if( event.shouldCommit() ) {
+        event.targetClass = type;
+        event.memberCount = members;
+        event.commit();
+      }
+    }
+
+    static void lookedUp( LookupEvent event, ConfigurationAdapter source, String name, boolean found ) {
+      if( event.shouldCommit() ) {
+        commit( event, source, name, found, 1 );
+      }
+    }
+
+    static void lookedUp( LookupEvent event, ConfigurationAdapter source, Collection<String> names, boolean found ) {
+      if( event.shouldCommit() ) {
+        commit( event, source, String.join( ",", names ), found, names.size() );
+      }
+    }
+
+    private static void commit( LookupEvent event, ConfigurationAdapter source, String key, boolean found, int batch ) {
+      event.adapterClass = source.getClass();
+      event.key = key;
+      event.found = found;
+      event.batchSize = batch;
+      event.commit();
+    }
+
+    static void converted( ConversionEvent event, String name, Class<?> type, Throwable failure ) {
+      if( event.shouldCommit() ) {
+        event.key = name;
+        event.targetType = type;
+        event.failure = failure == null ? null : String.valueOf( failure.getCause() != null ? failure.getCause() : failure );
+        event.commit();
+      }
+    }
+
+  }
+
+  @Name( "net.minder.config.ConfigInjection" )
+  @Label( "Configuration Injection" )
+  @Category( "Configuration" )
+  @Description( "Configuration of one target object" )
+  @StackTrace( false )
+  static final class InjectionEvent extends Event {
+    @Label( "Target Class" )
+    Class<?> targetClass;
+    @Label( "Member Count" )
+    int memberCount;
+  }
+
+  @Name( "net.minder.config.ConfigLookup" )
+  @Label( "Configuration Lookup" )
+  @Category( "Configuration" )
+  @Description( "Lookup of one configuration value from a source adapter" )
+  @StackTrace( false )
+  static final class LookupEvent extends Event {
+    @Label( "Adapter Class" )
+    Class<?> adapterClass;
+    @Label( "Key" )
+    String key;
+    @Label( "Found" )
+    boolean found;
+    @Label( "Batch Size" )
+    @Description( "The number of values looked up by the same call to the adapter" )
+    int batchSize;
+  }
+
+  @Name( "net.minder.config.ConfigConversion" )
+  @Label( "Configuration Conversion" )
+  @Category( "Configuration" )
+  @Description( "Conversion of one configuration value to the type of the member it is injected into" )
+  @StackTrace( false )
+  static final class ConversionEvent extends Event {
+    @Label( "Key" )
+    String key;
+    @Label( "Target Type" )
+    Class<?> targetType;
+    @Label( "Failure" )
+    String failure;
+  }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import java.util.Map;
+
+/**
+ * The management interface registered by ConfigurationStatistics.register().
+ */
+public interface ConfigurationInjectorMXBean {
+
+  /**
+   * The number of injections that completed, which the rate and the per class times are also based on.
+   */
+  long getInjectionCount();
+
+  long getInjectionFailureCount();
+
+  /**
+   * The average rate of completed injections since statistics were enabled or last reset.
+   */
+  double getInjectionsPerSecond();
+
+  int getCachedPlanCount();
+
+  long getPlanCacheHitCount();
+
+  long getPlanCacheMissCount();
+
+  double getPlanCacheHitRatio();
+
+  /**
+   * The number of adapters created for each config class name.
+   */
+  Map<String,Long> getAdapterResolutions();
+
+  long getConversionFailureCount();
+
+  /**
+   * The target classes with the highest mean injection time, slowest first.
+   */
+  String[] getSlowestTargetClasses();
+
+  void resetCounters();
+
+  /**
+   * Drops the cached injection plans, adapter resolutions and injector classes so they are computed again on next use.
+   */
+  void evictClassMetadata();
+
+}
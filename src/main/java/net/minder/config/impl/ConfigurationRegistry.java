@@ -0,0 +1,242 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.ConfigurationException;
+import net.minder.config.impl.InjectionPlan.FieldPlan;
+import net.minder.config.impl.InjectionPlan.MethodPlan;
+import net.minder.config.impl.InjectionPlan.ParameterPlan;
+import net.minder.config.impl.PrefixedConfigurationAdapter.KeyTable;
+import net.minder.config.spi.ConfigurationChangeListener;
+import net.minder.config.spi.ObservableConfigurationAdapter;
+
+import java.io.Closeable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps weakly held targets configured from an observable source.
+ * Registration records which bound source names feed which members of each target, and when the source reports
+ * changed names only the fields and setters fed by them are injected again.
+ * Nested configuration objects are indexed under the full keys of their members, so a change to db.url injects the
+ * db field again.
+ * Names are bound once at registration, so later changes to a MappedConfigurationBinding are not picked up.
+ */
+public class ConfigurationRegistry implements ConfigurationChangeListener, Closeable {
+
+  // Shared so registrations without a binding also share the key tables of their nested members.
+  private static final ConfigurationBinding DEFAULT_BINDING = new DefaultConfigurationBinding();
+
+  private final ObservableConfigurationAdapter source;
+  private final DefaultConfigurationInjector injector;
+  private final Map<String, Set<Member>> index = new ConcurrentHashMap<String, Set<Member>>();
+  private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+  private final ReferenceQueue<Object> collected = new ReferenceQueue<Object>();
+
+  public ConfigurationRegistry( ObservableConfigurationAdapter source ) {
+    this( source, new DefaultConfigurationInjector() );
+  }
+
+  public ConfigurationRegistry( ObservableConfigurationAdapter source, DefaultConfigurationInjector injector ) {
+    this.source = source;
+    this.injector = injector;
+    source.addConfigurationChangeListener( this );
+  }
+
+  /**
+   * Injects the target and keeps its members up to date with the source until it is unregistered or collected.
+   */
+  public void register( Object target, ConfigurationBinding binding ) throws ConfigurationException {
+    purge();
+    if( binding == null ) {
+      binding = DEFAULT_BINDING;
+    }
+    injector.configure( target, source, binding );
+    Registration registration = new Registration( target, binding, collected );
+    InjectionPlan plan = InjectionPlan.get( target.getClass(), injector.getAccessStrategy() );
+    while( plan != null ) {
+      for( FieldPlan field : plan.getFields() ) {
+        Member member = new Member( registration, field, null );
+        String bind = DefaultConfigurationInjector.getBindName( target, field.getName(), binding );
+        registration.add( bind, member );
+        if( field.isNested() ) {
+          addNestedKeys( registration, member, bind, 1, getFieldValue( field, target ), binding );
+        }
+      }
+      for( MethodPlan method : plan.getMethods() ) {
+        Member member = new Member( registration, null, method );
+        for( ParameterPlan param : method.getParameters() ) {
+          registration.add( DefaultConfigurationInjector.getBindName( target, param.getName(), binding ), member );
+        }
+      }
+      plan = plan.getParent();
+    }
+    registrations.add( registration );
+    for( Map.Entry<String, Member> entry : registration.members ) {
+      index.computeIfAbsent( entry.getKey(), key -> ConcurrentHashMap.newKeySet() ).add( entry.getValue() );
+    }
+  }
+
+  // A nested object is injected again as a whole, so its member is indexed under every full key below it.
+  private void addNestedKeys(
+      Registration registration, Member member, String scope, int depth, Object nested, ConfigurationBinding binding ) {
+    if( nested == null ) {
+      return;
+    }
+    InjectionPlan plan = InjectionPlan.get( nested.getClass(), injector.getAccessStrategy() );
+    KeyTable keys = plan.getKeyTable( scope, depth, nested, binding );
+    for( ; plan != null; plan = plan.getParent() ) {
+      for( FieldPlan field : plan.getFields() ) {
+        String key = keys.resolve( DefaultConfigurationInjector.getBindName( nested, field.getName(), binding ) );
+        registration.add( key, member );
+        if( field.isNested() ) {
+          addNestedKeys( registration, member, key, depth + 1, getFieldValue( field, nested ), binding );
+        }
+      }
+      for( MethodPlan method : plan.getMethods() ) {
+        for( ParameterPlan param : method.getParameters() ) {
+          registration.add( keys.resolve( DefaultConfigurationInjector.getBindName( nested, param.getName(), binding ) ), member );
+        }
+      }
+    }
+  }
+
+  private static Object getFieldValue( FieldPlan field, Object target ) throws ConfigurationException {
+    try {
+      return field.getField().get( target );
+    } catch( IllegalAccessException e ) {
+      throw new ConfigurationException( String.format(
+          "Failed to read nested configuration %s of %s", field.getName(), target.getClass().getName() ), e );
+    }
+  }
+
+  public void unregister( Object target ) {
+    for( Registration registration : registrations ) {
+      if( registration.get() == target ) {
+        remove( registration );
+      }
+    }
+  }
+
+  public int getRegisteredCount() {
+    purge();
+    return registrations.size();
+  }
+
+  /**
+   * Injects again only the members fed by the changed names.  Every affected member is updated before the first
+   * failure, if any, is thrown.
+   */
+  @Override
+  public void configurationChanged( Set<String> names ) throws ConfigurationException {
+    purge();
+    Set<Member> affected = new LinkedHashSet<Member>();
+    for( String name : names ) {
+      Set<Member> members = index.get( name );
+      if( members != null ) {
+        affected.addAll( members );
+      }
+    }
+    ConfigurationException failure = null;
+    for( Member member : affected ) {
+      Object target = member.registration.get();
+      if( target != null ) {
+        try {
+          member.inject( injector, target, source );
+        } catch( ConfigurationException e ) {
+          if( failure == null ) {
+            failure = e;
+          }
+        }
+      }
+    }
+    if( failure != null ) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public void close() {
+    source.removeConfigurationChangeListener( this );
+  }
+
+  private void purge() {
+    Reference<?> reference;
+    while( ( reference = collected.poll() ) != null ) {
+      remove( (Registration)reference );
+    }
+  }
+
+  private void remove( Registration registration ) {
+    if( registrations.remove( registration ) ) {
+      for( Map.Entry<String, Member> entry : registration.members ) {
+        Set<Member> members = index.get( entry.getKey() );
+        if( members != null ) {
+          members.remove( entry.getValue() );
+        }
+      }
+    }
+  }
+
+  private static final class Registration extends WeakReference<Object> {
+
+    final ConfigurationBinding binding;
+    final List<Map.Entry<String, Member>> members = new ArrayList<Map.Entry<String, Member>>();
+
+    Registration( Object target, ConfigurationBinding binding, ReferenceQueue<Object> queue ) {
+      super( target, queue );
+      this.binding = binding;
+    }
+
+    void add( String name, Member member ) {
+      members.add( Map.entry( name, member ) );
+    }
+
+  }
+
+  private static final class Member {
+
+    final Registration registration;
+    final FieldPlan field;
+    final MethodPlan method;
+
+    Member( Registration registration, FieldPlan field, MethodPlan method ) {
+      this.registration = registration;
+      this.field = field;
+      this.method = method;
+    }
+
+    void inject( DefaultConfigurationInjector injector, Object target, ObservableConfigurationAdapter source ) {
+      if( field != null ) {
+        injector.injectFieldValue( field, target, source, registration.binding );
+      } else {
+        injector.injectMethodValue( method, target, source, registration.binding );
+      }
+    }
+
+  }
+
+}
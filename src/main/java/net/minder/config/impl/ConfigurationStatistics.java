@@ -0,0 +1,278 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationException;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Injector, plan cache and adapter statistics published as a JMX MBean.
+ * Nothing is counted until the MBean is registered, either by calling register() or by setting the
+ * net.minder.config.jmx system property to true before the first injection.
+ * Counters are striped LongAdders and per class statistics live in ClassValues, so injecting threads never contend.
+ */
+public final class ConfigurationStatistics implements ConfigurationInjectorMXBean {
+
+  public static final String PROPERTY = "net.minder.config.jmx";
+  public static final String OBJECT_NAME = "net.minder.config:type=ConfigurationInjector";
+
+  private static final int SLOWEST_COUNT = 10;
+  private static final ConfigurationStatistics INSTANCE = new ConfigurationStatistics();
+  private static volatile boolean enabled;
+
+  private final LongAdder injections = new LongAdder();
+  private final LongAdder injectionFailures = new LongAdder();
+  private final LongAdder planRequests = new LongAdder();
+  private final LongAdder planMisses = new LongAdder();
+  private final LongAdder conversionFailures = new LongAdder();
+  private volatile long since = System.nanoTime();
+
+  private final ClassSet<TypeStatistics> types = new ClassSet<TypeStatistics>();
+  private final ClassValue<TypeStatistics> typeStatistics = new ClassValue<TypeStatistics>() {
+    @Override
+    protected TypeStatistics computeValue( Class<?> type ) {
+      TypeStatistics statistics = new TypeStatistics();
+      types.put( type, statistics );
+      return statistics;
+    }
+  };
+
+  private final ClassSet<LongAdder> configTypes = new ClassSet<LongAdder>();
+  private final ClassValue<LongAdder> resolutions = new ClassValue<LongAdder>() {
+    @Override
+    protected LongAdder computeValue( Class<?> type ) {
+      LongAdder count = new LongAdder();
+      configTypes.put( type, count );
+      return count;
+    }
+  };
+
+  private ConfigurationStatistics() {
+  }
+
+  public static ConfigurationStatistics getInstance() {
+    return INSTANCE;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Registers the MBean with the platform MBean server and starts counting.
+   */
+  public static void register() throws ConfigurationException {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName name = new ObjectName( OBJECT_NAME );
+      if( !server.isRegistered( name ) ) {
+        server.registerMBean( INSTANCE, name );
+      }
+    } catch( JMException e ) {
+      throw new ConfigurationException( String.format( "Failed to register MBean %s", OBJECT_NAME ), e );
+    }
+    if( !enabled ) {
+      INSTANCE.since = System.nanoTime();
+      enabled = true;
+    }
+  }
+
+  public static void unregister() throws ConfigurationException {
+    enabled = false;
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName name = new ObjectName( OBJECT_NAME );
+      if( server.isRegistered( name ) ) {
+        server.unregisterMBean( name );
+      }
+    } catch( JMException e ) {
+      throw new ConfigurationException( String.format( "Failed to unregister MBean %s", OBJECT_NAME ), e );
+    }
+  }
+
+  static void injected( Class<?> type, long nanos ) {
+    if( enabled ) {
+      INSTANCE.injections.increment();
+      INSTANCE.typeStatistics.get( type ).record( nanos );
+    }
+  }
+
+  static void injectionFailed() {
+    if( enabled ) {
+      INSTANCE.injectionFailures.increment();
+    }
+  }
+
+  static void planRequested() {
+    if( enabled ) {
+      INSTANCE.planRequests.increment();
+    }
+  }
+
+  static void planCreated() {
+    if( enabled ) {
+      INSTANCE.planMisses.increment();
+    }
+  }
+
+  static void adapterResolved( Class<?> configType ) {
+    if( enabled ) {
+      INSTANCE.resolutions.get( configType ).increment();
+    }
+  }
+
+  static void conversionFailed() {
+    if( enabled ) {
+      INSTANCE.conversionFailures.increment();
+    }
+  }
+
+  @Override
+  public long getInjectionCount() {
+    return injections.sum();
+  }
+
+  @Override
+  public long getInjectionFailureCount() {
+    return injectionFailures.sum();
+  }
+
+  @Override
+  public double getInjectionsPerSecond() {
+    double seconds = ( System.nanoTime() - since ) / 1e9;
+    return seconds <= 0 ? 0 : injections.sum() / seconds;
+  }
+
+  @Override
+  public int getCachedPlanCount() {
+    return InjectionPlan.getCachedCount();
+  }
+
+  @Override
+  public long getPlanCacheHitCount() {
+    return Math.max( 0, planRequests.sum() - planMisses.sum() );
+  }
+
+  @Override
+  public long getPlanCacheMissCount() {
+    return planMisses.sum();
+  }
+
+  @Override
+  public double getPlanCacheHitRatio() {
+    long requests = planRequests.sum();
+    return requests == 0 ? 0 : (double)getPlanCacheHitCount() / requests;
+  }
+
+  @Override
+  public Map<String,Long> getAdapterResolutions() {
+    Map<String,Long> counts = new TreeMap<String,Long>();
+    for( Map.Entry<Class<?>,LongAdder> entry : configTypes.snapshot().entrySet() ) {
+      long count = entry.getValue().sum();
+      if( count > 0 ) {
+        counts.put( entry.getKey().getName(), count );
+      }
+    }
+    return counts;
+  }
+
+  @Override
+  public long getConversionFailureCount() {
+    return conversionFailures.sum();
+  }
+
+  @Override
+  public String[] getSlowestTargetClasses() {
+    List<Map.Entry<Class<?>,TypeStatistics>> entries = new ArrayList<Map.Entry<Class<?>,TypeStatistics>>();
+    for( Map.Entry<Class<?>,TypeStatistics> entry : types.snapshot().entrySet() ) {
+      if( entry.getValue().count.sum() > 0 ) {
+        entries.add( entry );
+      }
+    }
+    Collections.sort( entries, ( a, b ) -> Double.compare( b.getValue().getMean(), a.getValue().getMean() ) );
+    int count = Math.min( SLOWEST_COUNT, entries.size() );
+    String[] slowest = new String[ count ];
+    for( int i=0; i<count; i++ ) {
+      TypeStatistics statistics = entries.get( i ).getValue();
+      slowest[ i ] = String.format( "%s mean=%.1fus max=%.1fus count=%d",
+          entries.get( i ).getKey().getName(), statistics.getMean() / 1e3, statistics.max.get() / 1e3,
+          statistics.count.sum() );
+    }
+    return slowest;
+  }
+
+  @Override
+  public void resetCounters() {
+    injections.reset();
+    injectionFailures.reset();
+    planRequests.reset();
+    planMisses.reset();
+    conversionFailures.reset();
+    for( TypeStatistics statistics : types.snapshot().values() ) {
+      statistics.reset();
+    }
+    for( LongAdder count : configTypes.snapshot().values() ) {
+      count.reset();
+    }
+    since = System.nanoTime();
+  }
+
+  @Override
+  public void evictClassMetadata() {
+    InjectionPlan.evictAll();
+    ConfigurationAdapterFactory.evictAll();
+    ClassCache.evictAll();
+  }
+
+  private static final class TypeStatistics {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator( Math::max, 0 );
+
+    private void record( long nanos ) {
+      count.increment();
+      total.add( nanos );
+      max.accumulate( nanos );
+    }
+
+    private double getMean() {
+      long n = count.sum();
+      return n == 0 ? 0 : (double)total.sum() / n;
+    }
+
+    private void reset() {
+      count.reset();
+      total.reset();
+      max.reset();
+    }
+
+  }
+
+}
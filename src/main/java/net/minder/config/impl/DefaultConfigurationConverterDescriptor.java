@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationConverter;
+import net.minder.config.spi.AbstractConfigurationConverterDescriptor;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * The built in converters.  Converters from other descriptors take precedence over these.
+ */
+public class DefaultConfigurationConverterDescriptor extends AbstractConfigurationConverterDescriptor {
+
+  private static final Map<String, Boolean> BOOLEANS = new HashMap<String, Boolean>();
+  static {
+    for( String value : new String[]{ "true", "yes", "y", "on", "1" } ) {
+      BOOLEANS.put( value, Boolean.TRUE );
+    }
+    for( String value : new String[]{ "false", "no", "n", "off", "0" } ) {
+      BOOLEANS.put( value, Boolean.FALSE );
+    }
+  }
+
+  public DefaultConfigurationConverterDescriptor() {
+    ConfigurationConverter<Boolean> booleans = DefaultConfigurationConverterDescriptor::parseBoolean;
+    ConfigurationConverter<Character> chars = DefaultConfigurationConverterDescriptor::parseCharacter;
+    ConfigurationConverter<Byte> bytes = value -> Byte.valueOf( value.trim() );
+    ConfigurationConverter<Short> shorts = value -> Short.valueOf( value.trim() );
+    ConfigurationConverter<Integer> ints = value -> Integer.valueOf( value.trim() );
+    ConfigurationConverter<Long> longs = value -> Long.valueOf( value.trim() );
+    ConfigurationConverter<Float> floats = value -> Float.valueOf( value.trim() );
+    ConfigurationConverter<Double> doubles = value -> Double.valueOf( value.trim() );
+    add( String.class, value -> value );
+    add( Object.class, value -> value );
+    add( boolean.class, booleans );
+    add( Boolean.class, booleans );
+    add( char.class, chars );
+    add( Character.class, chars );
+    add( byte.class, bytes );
+    add( Byte.class, bytes );
+    add( short.class, shorts );
+    add( Short.class, shorts );
+    add( int.class, ints );
+    add( Integer.class, ints );
+    add( long.class, longs );
+    add( Long.class, longs );
+    add( float.class, floats );
+    add( Float.class, floats );
+    add( double.class, doubles );
+    add( Double.class, doubles );
+    add( BigInteger.class, value -> new BigInteger( value.trim() ) );
+    add( BigDecimal.class, value -> new BigDecimal( value.trim() ) );
+    add( Duration.class, DefaultConfigurationConverterDescriptor::parseDuration );
+    add( URI.class, value -> new URI( value.trim() ) );
+    add( URL.class, value -> new URI( value.trim() ).toURL() );
+    add( File.class, value -> new File( value ) );
+    add( Path.class, value -> Paths.get( value ) );
+    add( UUID.class, value -> UUID.fromString( value.trim() ) );
+    add( Charset.class, value -> Charset.forName( value.trim() ) );
+    add( Pattern.class, value -> Pattern.compile( value ) );
+    add( Locale.class, value -> Locale.forLanguageTag( value.trim().replace( '_', '-' ) ) );
+  }
+
+  private static Boolean parseBoolean( String value ) {
+    Boolean result = BOOLEANS.get( value.trim().toLowerCase( Locale.ROOT ) );
+    if( result == null ) {
+      throw new IllegalArgumentException( "Invalid boolean value " + value );
+    }
+    return result;
+  }
+
+  private static Character parseCharacter( String value ) {
+    if( value.length() == 0 ) {
+      throw new IllegalArgumentException( "Empty character value" );
+    }
+    return value.charAt( 0 );
+  }
+
+  // Accepts ISO-8601 durations like PT10S as well as a number with an optional ns, us, ms, s, m, h or d unit.
+  static Duration parseDuration( String value ) {
+    String text = value.trim();
+    if( text.length() > 0 && ( text.charAt( 0 ) == 'P' || text.charAt( 0 ) == 'p' || text.startsWith( "-P" ) ) ) {
+      return Duration.parse( text );
+    }
+    int end = text.length();
+    while( end > 0 && Character.isLetter( text.charAt( end - 1 ) ) ) {
+      end--;
+    }
+    long amount = Long.parseLong( text.substring( 0, end ).trim() );
+    String unit = text.substring( end ).toLowerCase( Locale.ROOT );
+    switch( unit ) {
+      case "ns":
+        return Duration.ofNanos( amount );
+      case "us":
+        return Duration.ofNanos( Math.multiplyExact( amount, 1000L ) );
+      case "":
+      case "ms":
+        return Duration.ofMillis( amount );
+      case "s":
+        return Duration.ofSeconds( amount );
+      case "m":
+        return Duration.ofMinutes( amount );
+      case "h":
+        return Duration.ofHours( amount );
+      case "d":
+        return Duration.ofDays( amount );
+      default:
+        throw new IllegalArgumentException( "Invalid duration unit " + unit );
+    }
+  }
+
+}
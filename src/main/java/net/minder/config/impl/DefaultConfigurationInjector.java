@@ -17,120 +17,481 @@
  */
 package net.minder.config.impl;
 
-import net.minder.config.Alias;
 import net.minder.config.ConfigurationAdapter;
 import net.minder.config.ConfigurationBinding;
 import net.minder.config.ConfigurationException;
-import net.minder.config.Configure;
-import net.minder.config.Default;
-import net.minder.config.Optional;
+import net.minder.config.spi.ConfigurationInjectionListener;
 import net.minder.config.spi.ConfigurationInjector;
-import org.apache.commons.beanutils.ConvertUtilsBean2;
+import net.minder.config.impl.AccessStrategy.FieldWriter;
+import net.minder.config.impl.AccessStrategy.MethodWriter;
+import net.minder.config.impl.InjectionPlan.FieldPlan;
+import net.minder.config.impl.InjectionPlan.MethodPlan;
+import net.minder.config.impl.InjectionPlan.ParameterPlan;
+import net.minder.config.ConfigurationConverter;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 public class DefaultConfigurationInjector implements ConfigurationInjector {
 
-  private static ConvertUtilsBean2 DEFAULT_CONVERTER = new ConvertUtilsBean2();
+  private final AccessStrategy strategy;
+
+  private final ClassCache<ConfigurationInjector> generated = new ClassCache<ConfigurationInjector>() {
+    @Override
+    protected ConfigurationInjector compute( Class<?> type ) {
+      return GeneratedConfigurationInjector.find( type, DefaultConfigurationInjector.this );
+    }
+  };
+
+  public DefaultConfigurationInjector() {
+    this( AccessStrategy.getDefault() );
+  }
+
+  public DefaultConfigurationInjector( AccessStrategy strategy ) {
+    this.strategy = strategy;
+  }
+
+  public AccessStrategy getAccessStrategy() {
+    return strategy;
+  }
+
+  // Whether an adapter class overrides the batch lookup, in which case values are fetched with one call per target.
+  private static final ClassValue<Boolean> BATCHING = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue( Class<?> type ) {
+      try {
+        Method method = type.getMethod( "getConfigurationValues", Collection.class );
+        return method.getDeclaringClass() != ConfigurationAdapter.class;
+      } catch( NoSuchMethodException e ) {
+        return false;
+      }
+    }
+  };
 
   @Override
   public void configure( Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
       throws ConfigurationException {
-    Class type = target.getClass();
-    while( type != null ) {
-      injectClass( type, target, adapter, binding );
-      type = type.getSuperclass();
+    if( ListeningConfigurationAdapter.needsRecording( adapter ) ) {
+      ListeningConfigurationAdapter.configure( this, strategy, target, adapter, binding, null );
+      return;
     }
+    inject( target, adapter, binding );
+  }
+
+  // Nested objects are injected here directly so they are observed as part of the enclosing injection.
+  void inject( Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
+      throws ConfigurationException {
+    adapter = prefetch( target, adapter, binding );
+    ConfigurationInjector injector = generated.get( target.getClass() );
+    if( injector != null ) {
+      injector.configure( target, adapter, binding );
+      return;
+    }
+    InjectionPlan plan = InjectionPlan.get( target.getClass(), strategy );
+    while( plan != null ) {
+      injectClass( plan, target, adapter, binding );
+      plan = plan.getParent();
+    }
+  }
+
+  @Override
+  public void prepare( Class<?> type ) throws ConfigurationException {
+    InjectionPlan.get( type, strategy );
+    generated.get( type );
+  }
+
+  @Override
+  public void configure(
+      Object target, ConfigurationAdapter adapter, ConfigurationBinding binding, ConfigurationInjectionListener listener )
+      throws ConfigurationException {
+    ListeningConfigurationAdapter.configure( this, strategy, target, adapter, binding, listener );
   }
 
-  private void injectClass( Class type, Object target, ConfigurationAdapter config, ConfigurationBinding binding )
+  @Override
+  public void configureAll( Iterable<?> targets, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor )
       throws ConfigurationException {
-    Field[] fields = type.getDeclaredFields();
-    for( Field field : fields ) {
+    BatchInjection.configureAll( this, strategy, targets, adapter, binding, executor, null );
+  }
+
+  @Override
+  public void configureAll(
+      Iterable<?> targets, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor,
+      ConfigurationInjectionListener listener ) throws ConfigurationException {
+    BatchInjection.configureAll( this, strategy, targets, adapter, binding, executor, listener );
+  }
+
+  @Override
+  public CompletableFuture<Void> configureAsync(
+      Object target, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor ) {
+    return fetchAsync( target, adapter, binding, executor ).thenAccept( fetched -> configure( target, fetched, binding ) );
+  }
+
+  @Override
+  public CompletableFuture<Void> configureAsync(
+      Object target, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor,
+      ConfigurationInjectionListener listener ) {
+    return ListeningConfigurationAdapter.configureAsync( this, strategy, target, adapter, binding, executor, listener );
+  }
+
+  /**
+   * Fetches every value the target needs concurrently, completing with an adapter that serves the fetched values.
+   * Sources that support batch lookups are asked once instead.
+   */
+  CompletableFuture<ConfigurationAdapter> fetchAsync(
+      final Object target, final ConfigurationAdapter adapter, final ConfigurationBinding binding, Executor executor ) {
+    final Executor fetcher = executor != null ? executor : FetchExecutor.get();
+    if( isBatching( adapter ) ) {
+      return CompletableFuture.supplyAsync( () -> prefetch( target, adapter, binding ), fetcher );
+    }
+    Map<String,String> binds = new LinkedHashMap<String,String>();
+    try {
+      for( String name : InjectionPlan.get( target.getClass(), strategy ).getNames() ) {
+        binds.putIfAbsent( getBindName( target, name, binding ), name );
+      }
+    } catch( ConfigurationException e ) {
+      return CompletableFuture.failedFuture( e );
+    }
+    final Map<String,String> values = new ConcurrentHashMap<String,String>();
+    List<CompletableFuture<Void>> lookups = new ArrayList<CompletableFuture<Void>>( binds.size() );
+    for( final Map.Entry<String,String> bind : binds.entrySet() ) {
+      lookups.add( CompletableFuture.runAsync( () -> {
+        String value;
+        try {
+          value = adapter.getConfigurationValue( bind.getKey() );
+        } catch( Exception e ) {
+          throw retrieveFailure( target, bind.getKey(), bind.getValue(), adapter, e );
+        }
+        if( value != null ) {
+          values.put( bind.getKey(), value );
+        }
+      }, fetcher ) );
+    }
+    return CompletableFuture.allOf( lookups.toArray( new CompletableFuture[ lookups.size() ] ) )
+        .thenApply( done -> new PrefetchedConfigurationAdapter( adapter, values ) );
+  }
+
+  // The batch's shared cache, which may be under the adapter that observes an injection.
+  private static BatchConfigurationAdapter getBatch( ConfigurationAdapter adapter ) {
+    if( adapter instanceof ListeningConfigurationAdapter ) {
+      adapter = ((ListeningConfigurationAdapter)adapter).getSource();
+    }
+    return adapter instanceof BatchConfigurationAdapter ? (BatchConfigurationAdapter)adapter : null;
+  }
+
+  static boolean isBatching( ConfigurationAdapter adapter ) {
+    if( adapter instanceof PrefixedConfigurationAdapter ) {
+      adapter = ((PrefixedConfigurationAdapter)adapter).getSource();
+    }
+    if( adapter instanceof ListeningConfigurationAdapter ) {
+      adapter = ((ListeningConfigurationAdapter)adapter).getSource();
+    }
+    return BATCHING.get( adapter.getClass() );
+  }
+
+  // Batches share their own cache, which already fetched the values of all targets where the source supports it.
+  ConfigurationAdapter prefetch( Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
+      throws ConfigurationException {
+    if( getBatch( adapter ) != null || !isBatching( adapter ) ) {
+      return adapter;
+    }
+    String[] names = InjectionPlan.get( target.getClass(), strategy ).getNames();
+    List<String> binds = new ArrayList<String>( names.length );
+    for( String name : names ) {
+      binds.add( getBindName( target, name, binding ) );
+    }
+    Map<String,String> values;
+    try {
+      values = adapter.getConfigurationValues( binds );
+    } catch( Exception e ) {
+      throw new ConfigurationException( String.format(
+          "Failed to retrieve configuration for %s via %s",
+          target.getClass().getName(), getAdapterName( adapter ) ), e );
+    }
+    return new PrefetchedConfigurationAdapter( adapter, values != null ? values : Collections.<String,String>emptyMap() );
+  }
+
+  void injectClass( InjectionPlan plan, Object target, ConfigurationAdapter config, ConfigurationBinding binding )
+      throws ConfigurationException {
+    for( FieldPlan field : plan.getFields() ) {
       injectFieldValue( field, target, config, binding );
     }
-    Method[] methods = type.getDeclaredMethods();
-    for( Method method : methods ) {
+    for( MethodPlan method : plan.getMethods() ) {
       injectMethodValue( method, target, config, binding );
     }
   }
 
-  private void injectFieldValue( Field field, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
+  // Failures are reported to the listener under the bound name where they happen, so every injection path,
+  // including generated and compiled injectors that only call the resolve methods, reports them.
+  void injectFieldValue( FieldPlan field, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
       throws ConfigurationException {
-    Configure annotation = field.getAnnotation( Configure.class );
-    if( annotation != null ) {
-      Alias alias = field.getAnnotation( Alias.class );
-      String name = getConfigName( field, alias );
-      String bind = getBindName( target, name, binding );
-      Object value = retrieveValue( target, bind, name, field.getType(), adapter, binding );
+    if( field.isUnboxed() ) {
+      injectUnboxedFieldValue( field, target, adapter, binding );
+      return;
+    }
+    if( field.isNested() ) {
+      injectNestedFieldValue( field, target, adapter, binding );
+      return;
+    }
+    Object value = resolveFieldValue( field, target, adapter, binding );
+    if( value != null ) {
+      try {
+        field.getWriter().set( target, value );
+      } catch( Exception e ) {
+        throw reportFailure( getBindName( target, field.getName(), binding ), adapter, new ConfigurationException( String.format(
+            "Failed to inject field configuration property %s of %s",
+            field.getName(), target.getClass().getName() ), e ) );
+      }
+    }
+  }
+
+  private void injectUnboxedFieldValue( FieldPlan field, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
+      throws ConfigurationException {
+    String name = field.getName();
+    String bind = getBindName( target, name, binding );
+    Class<?> type = field.getType();
+    try {
+      Object value = retrieveUnboxedValue( target, bind, name, type, field.getConverter(), adapter );
       if( value == null ) {
-        Optional optional = field.getAnnotation( Optional.class );
-        if( optional == null ) {
+        if( !field.isOptional() ) {
           throw new ConfigurationException( String.format(
               "Failed to find configuration for %s bound to %s of %s via %s",
-              bind, name, target.getClass().getName(), adapter.getClass().getName() ) );
+              bind, name, target.getClass().getName(), getAdapterName( adapter ) ) );
         }
-      } else {
-        try {
-          if( !field.isAccessible() ) {
-            field.setAccessible( true );
-          }
-          field.set( target, value );
-        } catch( Exception e ) {
-          throw new ConfigurationException( String.format(
-              "Failed to inject field configuration property %s of %s",
-              name, target.getClass().getName() ), e );
+        reportMiss( bind, adapter );
+        return;
+      }
+      FieldWriter writer = field.getWriter();
+      try {
+        if( type == int.class ) {
+          writer.setInt( target, (Integer)value );
+        } else if( type == long.class ) {
+          writer.setLong( target, (Long)value );
+        } else if( type == boolean.class ) {
+          writer.setBoolean( target, (Boolean)value );
+        } else {
+          writer.setDouble( target, (Double)value );
         }
+      } catch( Exception e ) {
+        throw new ConfigurationException( String.format(
+            "Failed to inject field configuration property %s of %s",
+            field.getName(), target.getClass().getName() ), e );
+      }
+    } catch( ConfigurationException e ) {
+      throw reportFailure( bind, adapter, e );
+    }
+  }
+
+  private void injectNestedFieldValue( FieldPlan field, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
+      throws ConfigurationException {
+    try {
+      Object current = field.getField().get( target );
+      Object value = resolveNestedValue( target, current, field.getName(), field.getType(), adapter, binding );
+      if( value != current ) {
+        field.getWriter().set( target, value );
+      }
+    } catch( ConfigurationException e ) {
+      throw e;
+    } catch( Exception e ) {
+      throw reportFailure( getBindName( target, field.getName(), binding ), adapter, new ConfigurationException( String.format(
+          "Failed to inject field configuration property %s of %s",
+          field.getName(), target.getClass().getName() ), e ) );
+    }
+  }
+
+  /**
+   * Injects the nested object held by a member, creating one when there is none, from the keys under its bound name.
+   * The nested type is injected with its own cached plan through a view of the adapter scoped to those keys.
+   */
+  Object resolveNestedValue(
+      Object target, Object current, String name, Class<?> type, ConfigurationAdapter adapter, ConfigurationBinding binding )
+      throws ConfigurationException {
+    String bind = getBindName( target, name, binding );
+    Object value = current;
+    InjectionPlan plan = InjectionPlan.get( value != null ? value.getClass() : type, strategy );
+    try {
+      if( value == null ) {
+        value = plan.newInstance( name, target );
       }
+      inject( value, PrefixedConfigurationAdapter.scope( adapter, bind, plan, value, binding ), binding );
+    } catch( ConfigurationException e ) {
+      throw reportFailure( bind, adapter, e );
     }
+    return value;
   }
 
-  private void injectMethodValue( Method method, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
+  Object resolveFieldValue( FieldPlan field, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
       throws ConfigurationException {
-    Configure methodTag = method.getAnnotation( Configure.class );
-    if( methodTag != null ) {
-      Alias aliasTag = method.getAnnotation( Alias.class );
-      String methodName = getConfigName( method, aliasTag );
-      Class[] argTypes = method.getParameterTypes();
-      Object[] args = new Object[ argTypes.length ];
-      Annotation[][] argTags = method.getParameterAnnotations();
-      for( int i=0; i<argTypes.length; i++ ) {
-        String argName = getConfigName( methodName, argTags[i] );
-        String bndName = getBindName( target, argName, binding );
-        Object argValue = retrieveValue( target, bndName, argName, argTypes[i], adapter, binding );
-        if( argValue == null ) {
-          Default defTag = findAnnotation( argTags[i], Default.class );
-          if( defTag != null ) {
-            String strValue = defTag.value();
-            argValue = convertValue( target, argName, strValue, argTypes[i] );
-          } else {
-            throw new ConfigurationException( String.format(
-                "Failed to find configuration for %s of %s via %s",
-                bndName, argName, target.getClass().getName(), adapter.getClass().getName() ) );
-          }
+    return resolveFieldValue( target, field.getName(), field.getType(), field.getConverter(), field.isOptional(), adapter, binding );
+  }
+
+  Object resolveFieldValue(
+      Object target, String name, Class<?> type, ConfigurationConverter<?> converter, boolean optional,
+      ConfigurationAdapter adapter, ConfigurationBinding binding ) throws ConfigurationException {
+    String bind = getBindName( target, name, binding );
+    try {
+      Object value = retrieveValue( target, bind, name, type, converter, adapter, binding );
+      if( value == null ) {
+        if( !optional ) {
+          throw new ConfigurationException( String.format(
+              "Failed to find configuration for %s bound to %s of %s via %s",
+              bind, name, target.getClass().getName(), getAdapterName( adapter ) ) );
         }
-        args[ i ] = argValue;
+        reportMiss( bind, adapter );
+      }
+      return value;
+    } catch( ConfigurationException e ) {
+      throw reportFailure( bind, adapter, e );
+    }
+  }
+
+  private static void reportMiss( String bind, ConfigurationAdapter adapter ) {
+    ConfigurationInjectionListener listener = ListeningConfigurationAdapter.getListener( adapter );
+    if( listener != null ) {
+      listener.missed( bind );
+    }
+  }
+
+  void injectMethodValue( MethodPlan method, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
+      throws ConfigurationException {
+    if( method.isUnboxed() ) {
+      injectUnboxedMethodValue( method, target, adapter, binding );
+      return;
+    }
+    ParameterPlan[] params = method.getParameters();
+    Object[] args = new Object[ params.length ];
+    for( int i=0; i<params.length; i++ ) {
+      args[ i ] = resolveArgumentValue( params[ i ], target, adapter, binding );
+    }
+    try {
+      method.getWriter().invoke( target, args );
+    } catch( Exception e ) {
+      throw methodFailure( method, target, e, adapter, binding );
+    }
+  }
+
+  private static ConfigurationException reportFailure( String bind, ConfigurationAdapter adapter, ConfigurationException cause ) {
+    ConfigurationInjectionListener listener = ListeningConfigurationAdapter.getListener( adapter );
+    if( listener != null ) {
+      listener.failed( bind, cause );
+    }
+    return cause;
+  }
+
+  private void injectUnboxedMethodValue( MethodPlan method, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
+      throws ConfigurationException {
+    ParameterPlan param = method.getParameters()[ 0 ];
+    String name = param.getName();
+    String bind = getBindName( target, name, binding );
+    Class<?> type = param.getType();
+    Object value;
+    try {
+      value = retrieveUnboxedValue( target, bind, name, type, param.getConverter(), adapter );
+      if( value == null ) {
+        value = resolveDefaultArgument( param, target, bind, adapter );
       }
-      if( !method.isAccessible() ) {
-        method.setAccessible( true );
+    } catch( ConfigurationException e ) {
+      throw reportFailure( bind, adapter, e );
+    }
+    MethodWriter writer = method.getWriter();
+    try {
+      if( type == int.class ) {
+        writer.invokeInt( target, (Integer)value );
+      } else if( type == long.class ) {
+        writer.invokeLong( target, (Long)value );
+      } else if( type == boolean.class ) {
+        writer.invokeBoolean( target, (Boolean)value );
+      } else {
+        writer.invokeDouble( target, (Double)value );
       }
-      try {
-        method.invoke( target, args );
-      } catch( Exception e ) {
-        throw new ConfigurationException( String.format(
-            "Failed to inject method configuration via %s of %s",
-            methodName, target.getClass().getName() ), e );
+    } catch( Exception e ) {
+      throw methodFailure( method, target, e, adapter, binding );
+    }
+  }
+
+  private Object resolveDefaultArgument( ParameterPlan param, Object target, String bind, ConfigurationAdapter adapter ) {
+    if( !param.hasDefault() ) {
+      throw new ConfigurationException( String.format(
+          "Failed to find configuration for %s of %s via %s",
+          bind, param.getName(), target.getClass().getName(), getAdapterName( adapter ) ) );
+    }
+    reportDefault( bind, adapter );
+    return convertValue( target, param.getName(), param.getDefault(), param.getType(), param.getConverter() );
+  }
+
+  Object resolveArgumentValue( ParameterPlan param, Object target, ConfigurationAdapter adapter, ConfigurationBinding binding )
+      throws ConfigurationException {
+    return resolveArgumentValue( target, param.getName(), param.getType(), param.getConverter(), param.getDefault(), adapter, binding );
+  }
+
+  Object resolveArgumentValue(
+      Object target, String argName, Class<?> type, ConfigurationConverter<?> converter, String defaultValue,
+      ConfigurationAdapter adapter, ConfigurationBinding binding ) throws ConfigurationException {
+    String bndName = getBindName( target, argName, binding );
+    try {
+      Object argValue = retrieveValue( target, bndName, argName, type, converter, adapter, binding );
+      if( argValue == null ) {
+        if( defaultValue != null ) {
+          reportDefault( bndName, adapter );
+          argValue = convertValue( target, argName, defaultValue, type, converter );
+        } else {
+          throw new ConfigurationException( String.format(
+              "Failed to find configuration for %s of %s via %s",
+              bndName, argName, target.getClass().getName(), getAdapterName( adapter ) ) );
+        }
       }
+      return argValue;
+    } catch( ConfigurationException e ) {
+      throw reportFailure( bndName, adapter, e );
     }
   }
 
-  private Object convertValue( Object target, String name, String strValue, Class<?> type ) {
+  private static void reportDefault( String bind, ConfigurationAdapter adapter ) {
+    ConfigurationInjectionListener listener = ListeningConfigurationAdapter.getListener( adapter );
+    if( listener != null ) {
+      listener.defaulted( bind );
+    }
+  }
+
+  ConfigurationException methodFailure(
+      MethodPlan method, Object target, Throwable cause, ConfigurationAdapter adapter, ConfigurationBinding binding ) {
+    ParameterPlan[] params = method.getParameters();
+    String[] argNames = new String[ params.length ];
+    for( int i=0; i<params.length; i++ ) {
+      argNames[ i ] = params[ i ].getName();
+    }
+    return methodFailure( method.getName(), argNames, target, cause, adapter, binding );
+  }
+
+  // A call that fails is reported under the bound name of each of its arguments.
+  ConfigurationException methodFailure(
+      String methodName, String[] argNames, Object target, Throwable cause,
+      ConfigurationAdapter adapter, ConfigurationBinding binding ) {
+    ConfigurationException failure = new ConfigurationException( String.format(
+        "Failed to inject method configuration via %s of %s",
+        methodName, target.getClass().getName() ), cause );
+    for( String argName : argNames ) {
+      reportFailure( getBindName( target, argName, binding ), adapter, failure );
+    }
+    return failure;
+  }
+
+  private Object convertValue( Object target, String name, String strValue, Class<?> type, ConfigurationConverter<?> converter ) {
+    if( strValue == null ) {
+      return null;
+    }
     Object objValue = null;
     try {
-      objValue = DEFAULT_CONVERTER.convert( strValue, type );
+      objValue = converter.convert( strValue );
     } catch( Exception e ) {
+      ConfigurationStatistics.conversionFailed();
       throw new ConfigurationException( String.format(
           "Failed to convert configuration for %s of %s to %s",
           name, target.getClass().getName(), type.getName() ), e );
@@ -138,42 +499,94 @@ public class DefaultConfigurationInjector implements ConfigurationInjector {
     return objValue;
   }
 
-  private Object retrieveValue( Object target, String bind, String name, Class<?> type, ConfigurationAdapter adapter, ConfigurationBinding binding ) {
+  private Object retrieveValue(
+      Object target, String bind, String name, Class<?> type, ConfigurationConverter<?> converter,
+      ConfigurationAdapter adapter, ConfigurationBinding binding ) {
     String strValue = null;
     try {
       strValue = adapter.getConfigurationValue( bind );
     } catch( Exception e ) {
+      throw retrieveFailure( target, bind, name, adapter, e );
+    }
+    return strValue == null ? null : convertRetrievedValue( target, bind, name, type, converter, adapter, strValue );
+  }
+
+  // Typed sources are read in the type they hold values in, so one lookup both finds a value and, when it already has
+  // the member's type, skips the conversion.  Other values are converted and reported like boxed members.
+  private Object retrieveUnboxedValue(
+      Object target, String bind, String name, Class<?> type, ConfigurationConverter<?> converter, ConfigurationAdapter adapter ) {
+    Object value;
+    try {
+      value = adapter.getTypedValue( bind );
+    } catch( Exception e ) {
+      throw retrieveFailure( target, bind, name, adapter, e );
+    }
+    if( value == null ) {
+      return null;
+    }
+    Object exact = PrimitiveValues.toExact( value, type );
+    if( exact != null ) {
+      return exact;
+    }
+    Object converted = convertRetrievedValue( target, bind, name, type, converter, adapter, value.toString() );
+    if( converted == null ) {
+      ConfigurationStatistics.conversionFailed();
       throw new ConfigurationException( String.format(
-          "Failed to retrieve configuration for %s bound to %s of %s via %s",
-          bind, name, target.getClass().getName(), adapter.getClass().getName() ), e );
+          "Failed to convert configuration for %s of %s to %s",
+          name, target.getClass().getName(), type.getName() ) );
     }
-    Object objValue = convertValue( target, name, strValue, type );
-    return objValue;
+    return converted;
   }
 
-  private <T extends Annotation> T findAnnotation( Annotation[] annotations, Class<T> type ) {
-    T found = null;
-    for( Annotation current : annotations ) {
-      if( type.isAssignableFrom( current.getClass() ) ) {
-        found = (T)current;
-        break;
+  private Object convertRetrievedValue(
+      Object target, String bind, String name, Class<?> type, ConfigurationConverter<?> converter,
+      ConfigurationAdapter adapter, String strValue ) {
+    Object objValue = null;
+    BatchConfigurationAdapter batch = getBatch( adapter );
+    if( batch != null ) {
+      try {
+        objValue = batch.convert( bind, strValue, type, converter );
+      } catch( Exception e ) {
+        ConfigurationStatistics.conversionFailed();
+        throw new ConfigurationException( String.format(
+            "Failed to convert configuration for %s of %s to %s",
+            name, target.getClass().getName(), type.getName() ), e );
+      }
+    } else {
+      ListeningConfigurationAdapter listening = ListeningConfigurationAdapter.get( adapter );
+      if( listening != null ) {
+        objValue = listening.convert( bind, type, () -> convertValue( target, name, strValue, type, converter ) );
+      } else {
+        objValue = convertValue( target, name, strValue, type, converter );
       }
     }
-    return found;
+    return objValue;
   }
 
-  private static String pickName( String implied, Alias explicit ) {
-    String name = implied;
-    if( explicit != null ) {
-      String tagValue = explicit.value().trim();
-      if( tagValue.length() > 0 ) {
-        name = tagValue;
-      }
+  private static ConfigurationException retrieveFailure(
+      Object target, String bind, String name, ConfigurationAdapter adapter, Exception cause ) {
+    return new ConfigurationException( String.format(
+        "Failed to retrieve configuration for %s bound to %s of %s via %s",
+        bind, name, target.getClass().getName(), getAdapterName( adapter ) ), cause );
+  }
+
+  private static String getAdapterName( ConfigurationAdapter adapter ) {
+    if( adapter instanceof PrefetchedConfigurationAdapter ) {
+      adapter = ((PrefetchedConfigurationAdapter)adapter).getSource();
+    }
+    if( adapter instanceof PrefixedConfigurationAdapter ) {
+      adapter = ((PrefixedConfigurationAdapter)adapter).getSource();
+    }
+    if( adapter instanceof ListeningConfigurationAdapter ) {
+      adapter = ((ListeningConfigurationAdapter)adapter).getSource();
     }
-    return name;
+    if( adapter instanceof BatchConfigurationAdapter ) {
+      adapter = ((BatchConfigurationAdapter)adapter).getSource();
+    }
+    return adapter.getClass().getName();
   }
 
-  private static String getBindName( Object target, String name, ConfigurationBinding binding ) {
+  static String getBindName( Object target, String name, ConfigurationBinding binding ) {
     String bind = null;
     try {
       bind = binding.getConfigurationName( name );
@@ -188,43 +601,4 @@ public class DefaultConfigurationInjector implements ConfigurationInjector {
     return bind;
   }
 
-  private static String getConfigName( Field field, Alias tag ) {
-    return pickName( field.getName(), tag );
-  }
-
-  private static String getConfigName( String name, Annotation[] tags ) {
-    if( tags != null ) {
-      for( Annotation tag : tags ) {
-        if( tag != null && tag instanceof Alias ) {
-          Alias aliasTag = Alias.class.cast( tag );
-          String aliasValue = aliasTag.value().trim();
-          if( aliasValue.length() > 0 ) {
-            name = aliasValue;
-            break;
-          }
-        }
-      }
-    }
-    return name;
-  }
-
-  private static String getConfigName( Method method, Alias tag ) {
-    return pickName( getConfigName( method ), tag );
-  }
-
-  private static String getConfigName( Method method ) {
-    String methodName = method.getName();
-    StringBuilder name = new StringBuilder( methodName.length() );
-    if( methodName != null &&
-        methodName.length() > 3 &&
-        methodName.startsWith( "set" ) &&
-        Character.isUpperCase( methodName.charAt( 3 ) ) ) {
-      name.append( methodName.substring( 3 ) );
-      name.setCharAt( 0, Character.toLowerCase( name.charAt( 0 ) ) );
-    } else {
-      name.append( name );
-    }
-    return name.toString();
-  }
-
 }
@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationConverter;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converts enum constant names using lookup tables built once per enum type.
+ * Exact names are matched first and case insensitive names second.
+ */
+class EnumConfigurationConverter<E extends Enum<E>> implements ConfigurationConverter<E> {
+
+  private final Class<E> type;
+  private final Map<String, E> exact = new HashMap<String, E>();
+  private final Map<String, E> folded = new HashMap<String, E>();
+
+  EnumConfigurationConverter( Class<E> type ) {
+    this.type = type;
+    for( E constant : type.getEnumConstants() ) {
+      exact.put( constant.name(), constant );
+      folded.put( constant.name().toUpperCase( Locale.ROOT ), constant );
+    }
+  }
+
+  @Override
+  public E convert( String value ) {
+    String name = value.trim();
+    E constant = exact.get( name );
+    if( constant == null ) {
+      constant = folded.get( name.toUpperCase( Locale.ROOT ) );
+      if( constant == null ) {
+        throw new IllegalArgumentException( String.format( "No constant %s in %s", value, type.getName() ) );
+      }
+    }
+    return constant;
+  }
+
+}
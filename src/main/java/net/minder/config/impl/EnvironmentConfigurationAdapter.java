@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.impl.RuleConfigurationBinding.NamingStyle;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reads environment variables with relaxed names, so db.poolSize finds DB_POOLSIZE or DB_POOL_SIZE.
+ * A name is tried as is, in upper case with separators as underscores, and split into upper snake case words.
+ * Failing those it matches the variable with the same letters and digits ignoring case and separators,
+ * the first in sorted order if there are several.
+ * The environment is indexed once when the adapter is created, or once per SystemEnvironment for adapters created
+ * from one, and every name that is found is remembered, so lookups never scan the variables.
+ * Missing names aren't remembered so looking up arbitrary names doesn't grow the adapter.
+ */
+public class EnvironmentConfigurationAdapter implements ConfigurationAdapter {
+
+  private final Map<String,String> variables;
+  private final Map<String,String> relaxed;
+  private final ConcurrentMap<String,String> resolved;
+
+  public EnvironmentConfigurationAdapter() {
+    this( SystemEnvironment.get() );
+  }
+
+  public EnvironmentConfigurationAdapter( SystemEnvironment environment ) {
+    this( environment.getAdapter() );
+  }
+
+  public EnvironmentConfigurationAdapter( Map<String,String> variables ) {
+    this.variables = new HashMap<String,String>( variables );
+    this.relaxed = index( this.variables );
+    this.resolved = new ConcurrentHashMap<String,String>();
+  }
+
+  // Shares the index and remembered names of the adapter the environment holds.
+  private EnvironmentConfigurationAdapter( EnvironmentConfigurationAdapter shared ) {
+    this.variables = shared.variables;
+    this.relaxed = shared.relaxed;
+    this.resolved = shared.resolved;
+  }
+
+  @Override
+  public String getConfigurationValue( String name ) {
+    String value = resolved.get( name );
+    if( value == null ) {
+      value = resolve( name );
+      if( value != null ) {
+        resolved.putIfAbsent( name, value );
+      }
+    }
+    return value;
+  }
+
+  private String resolve( String name ) {
+    String value = variables.get( name );
+    if( value == null ) {
+      value = variables.get( toUpperUnderscore( name ) );
+    }
+    if( value == null ) {
+      value = variables.get( NamingStyle.UPPER_SNAKE.translate( name ) );
+    }
+    if( value == null ) {
+      String variable = relaxed.get( canonical( name ) );
+      if( variable != null ) {
+        value = variables.get( variable );
+      }
+    }
+    return value;
+  }
+
+  private static Map<String,String> index( Map<String,String> variables ) {
+    Map<String,String> index = new HashMap<String,String>();
+    for( String variable : new TreeSet<String>( variables.keySet() ) ) {
+      index.putIfAbsent( canonical( variable ), variable );
+    }
+    return index;
+  }
+
+  private static String toUpperUnderscore( String name ) {
+    StringBuilder result = new StringBuilder( name.length() );
+    for( int i=0; i<name.length(); i++ ) {
+      char c = name.charAt( i );
+      result.append( c == '.' || c == '-' ? '_' : Character.toUpperCase( c ) );
+    }
+    return result.toString();
+  }
+
+  // Only letters and digits, in upper case.
+  private static String canonical( String name ) {
+    StringBuilder result = new StringBuilder( name.length() );
+    for( int i=0; i<name.length(); i++ ) {
+      char c = name.charAt( i );
+      if( Character.isLetterOrDigit( c ) ) {
+        result.append( Character.toUpperCase( c ) );
+      }
+    }
+    return result.toString();
+  }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationConverter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Converts via a public static valueOf(String), of(String) or parse(String) method or a public String constructor.
+ */
+class FactoryMethodConfigurationConverter implements ConfigurationConverter<Object> {
+
+  private static final String[] FACTORY_METHODS = { "valueOf", "of", "parse" };
+
+  private final MethodHandle handle;
+
+  private FactoryMethodConfigurationConverter( MethodHandle handle ) {
+    this.handle = handle.asType( MethodType.methodType( Object.class, String.class ) );
+  }
+
+  static FactoryMethodConfigurationConverter find( Class<?> type ) {
+    if( type.isPrimitive() || type.isInterface() || Modifier.isAbstract( type.getModifiers() ) ||
+        !Modifier.isPublic( type.getModifiers() ) ) {
+      return null;
+    }
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    for( String name : FACTORY_METHODS ) {
+      try {
+        return new FactoryMethodConfigurationConverter(
+            lookup.findStatic( type, name, MethodType.methodType( type, String.class ) ) );
+      } catch( NoSuchMethodException e ) {
+        // Try the next candidate.
+      } catch( IllegalAccessException e ) {
+        // Try the next candidate.
+      }
+    }
+    try {
+      return new FactoryMethodConfigurationConverter(
+          lookup.findConstructor( type, MethodType.methodType( void.class, String.class ) ) );
+    } catch( NoSuchMethodException e ) {
+      return null;
+    } catch( IllegalAccessException e ) {
+      return null;
+    }
+  }
+
+  @Override
+  public Object convert( String value ) throws Exception {
+    try {
+      return (Object)handle.invokeExact( value );
+    } catch( Exception e ) {
+      throw e;
+    } catch( Error e ) {
+      throw e;
+    } catch( Throwable t ) {
+      throw new UndeclaredThrowableException( t );
+    }
+  }
+
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor used for asynchronous lookups when the caller doesn't supply one.
+ * Virtual threads are used when the runtime provides them, otherwise a bounded pool of daemon threads.
+ */
+final class FetchExecutor {
+
+  private static final int MAX_THREADS = Math.max( 16, Runtime.getRuntime().availableProcessors() * 4 );
+
+  private FetchExecutor() {
+  }
+
+  static Executor get() {
+    return Holder.EXECUTOR;
+  }
+
+  private static final class Holder {
+    static final Executor EXECUTOR = create();
+  }
+
+  private static Executor create() {
+    try {
+      Method factory = Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" );
+      return (Executor)factory.invoke( null );
+    } catch( ReflectiveOperationException e ) {
+      // Virtual threads are unavailable before Java 21, or are a disabled preview feature.
+    }
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(
+        MAX_THREADS, MAX_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory() );
+    pool.allowCoreThreadTimeOut( true );
+    return pool;
+  }
+
+  private static class DaemonThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread( Runnable runnable ) {
+      Thread thread = new Thread( runnable, "config-injector-fetch-" + count.incrementAndGet() );
+      thread.setDaemon( true );
+      return thread;
+    }
+
+  }
+
+}
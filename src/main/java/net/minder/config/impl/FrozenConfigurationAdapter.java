@@ -0,0 +1,283 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationException;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * An immutable snapshot of a source, indexed by a minimal perfect hash of its names.
+ * The names and values are kept in parallel arrays with one slot per name, and a lookup costs one hash of the name,
+ * one displacement read and one comparison, without locks or entry objects.
+ * The hash is built by the hash and displace method: names are grouped into buckets by one hash, and each bucket is
+ * given the first displacement that maps all of its names to free slots, largest buckets first.
+ */
+public final class FrozenConfigurationAdapter implements ConfigurationAdapter {
+
+  private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+  private static final int MAX_DISPLACEMENT = 1 << 20;
+
+  private final long seed;
+  private final int[] displacements;
+  private final String[] names;
+  private final Object[] values;
+
+  private FrozenConfigurationAdapter( long seed, int[] displacements, String[] names, Object[] values ) {
+    this.seed = seed;
+    this.displacements = displacements;
+    this.names = names;
+    this.values = values;
+  }
+
+  /**
+   * Freezes a Map, Properties (including its defaults) or a bean's public getters.
+   * Other adapters can't list their names, so they are frozen with freeze( adapter, names ) instead.
+   */
+  public static FrozenConfigurationAdapter freeze( Object source ) throws ConfigurationException {
+    if( source instanceof FrozenConfigurationAdapter ) {
+      return (FrozenConfigurationAdapter)source;
+    }
+    if( source instanceof ConfigurationAdapter ) {
+      throw new ConfigurationException( String.format(
+          "Failed to freeze %s without the names to freeze, use freeze( adapter, names )", source.getClass().getName() ) );
+    }
+    Map<String,Object> entries = new LinkedHashMap<String,Object>();
+    if( source instanceof Properties ) {
+      Properties properties = (Properties)source;
+      for( String name : properties.stringPropertyNames() ) {
+        entries.put( name, properties.getProperty( name ) );
+      }
+    } else if( source instanceof Map ) {
+      for( Map.Entry<?,?> entry : ((Map<?,?>)source).entrySet() ) {
+        if( entry.getKey() instanceof String && entry.getValue() != null ) {
+          entries.put( (String)entry.getKey(), entry.getValue() );
+        }
+      }
+    } else {
+      BeanConfigurationAdapter bean = new BeanConfigurationAdapter( source );
+      for( String name : getPropertyNames( source.getClass() ) ) {
+        String value = bean.getConfigurationValue( name );
+        if( value != null ) {
+          entries.put( name, value );
+        }
+      }
+    }
+    return create( entries );
+  }
+
+  /**
+   * Freezes the values an adapter has for the given names.
+   */
+  public static FrozenConfigurationAdapter freeze( ConfigurationAdapter adapter, Collection<String> names )
+      throws ConfigurationException {
+    Map<String,Object> entries = new LinkedHashMap<String,Object>();
+    for( Map.Entry<String,String> entry : adapter.getConfigurationValues( names ).entrySet() ) {
+      if( entry.getValue() != null ) {
+        entries.put( entry.getKey(), entry.getValue() );
+      }
+    }
+    return create( entries );
+  }
+
+  public int size() {
+    return names.length;
+  }
+
+  @Override
+  public String getConfigurationValue( String name ) {
+    Object value = get( name );
+    return value == null ? null : value.toString();
+  }
+
+  @Override
+  public Object getTypedValue( String name ) {
+    return get( name );
+  }
+
+  Collection<String> getNames() {
+    return Collections.unmodifiableList( Arrays.asList( names ) );
+  }
+
+  private Object get( String name ) {
+    int size = names.length;
+    if( size == 0 ) {
+      return null;
+    }
+    long hash = hash( name, seed );
+    int displacement = displacements[ reduce( (int)( hash >>> 32 ), size ) ];
+    int slot = displacement < 0 ? -displacement - 1 : reduce( mix( hash, displacement ), size );
+    return name.equals( names[ slot ] ) ? values[ slot ] : null;
+  }
+
+  static FrozenConfigurationAdapter create( Map<String,Object> entries ) {
+    String[] keys = entries.keySet().toArray( new String[ entries.size() ] );
+    for( long seed = GOLDEN; ; seed = seed * GOLDEN + 1 ) {
+      FrozenConfigurationAdapter frozen = build( keys, entries, seed );
+      if( frozen != null ) {
+        return frozen;
+      }
+    }
+  }
+
+  // Returns null when the seed gives two names the same hash or a bucket can't be placed, so another seed is tried.
+  private static FrozenConfigurationAdapter build( String[] keys, Map<String,Object> entries, long seed ) {
+    int size = keys.length;
+    long[] hashes = new long[ size ];
+    List<List<Integer>> buckets = new ArrayList<List<Integer>>( size );
+    for( int i=0; i<size; i++ ) {
+      buckets.add( new ArrayList<Integer>( 2 ) );
+    }
+    for( int i=0; i<size; i++ ) {
+      hashes[ i ] = hash( keys[ i ], seed );
+      buckets.get( reduce( (int)( hashes[ i ] >>> 32 ), size ) ).add( i );
+    }
+    if( hasDuplicates( hashes ) ) {
+      return null;
+    }
+    Integer[] order = new Integer[ size ];
+    for( int i=0; i<size; i++ ) {
+      order[ i ] = i;
+    }
+    Arrays.sort( order, ( a, b ) -> buckets.get( b ).size() - buckets.get( a ).size() );
+
+    int[] displacements = new int[ size ];
+    String[] names = new String[ size ];
+    Object[] values = new Object[ size ];
+    boolean[] used = new boolean[ size ];
+    int[] slots = new int[ size ];
+    int free = 0;
+    for( int bucket : order ) {
+      List<Integer> members = buckets.get( bucket );
+      if( members.isEmpty() ) {
+        break;
+      }
+      if( members.size() == 1 ) {
+        // Single names take the next free slot directly, recorded as a negative displacement.
+        while( used[ free ] ) {
+          free++;
+        }
+        place( members.get( 0 ), free, keys, entries, names, values, used );
+        displacements[ bucket ] = -free - 1;
+        continue;
+      }
+      int displacement = 0;
+      boolean placed = false;
+      while( !placed ) {
+        if( ++displacement > MAX_DISPLACEMENT ) {
+          return null;
+        }
+        placed = true;
+        for( int i=0; i<members.size() && placed; i++ ) {
+          int slot = reduce( mix( hashes[ members.get( i ) ], displacement ), size );
+          slots[ i ] = slot;
+          placed = !used[ slot ];
+          for( int j=0; j<i && placed; j++ ) {
+            placed = slots[ j ] != slot;
+          }
+        }
+      }
+      for( int i=0; i<members.size(); i++ ) {
+        place( members.get( i ), slots[ i ], keys, entries, names, values, used );
+      }
+      displacements[ bucket ] = displacement;
+    }
+    return new FrozenConfigurationAdapter( seed, displacements, names, values );
+  }
+
+  // Names with the same full hash can't be told apart by any displacement.
+  private static boolean hasDuplicates( long[] hashes ) {
+    long[] sorted = hashes.clone();
+    Arrays.sort( sorted );
+    for( int i=1; i<sorted.length; i++ ) {
+      if( sorted[ i ] == sorted[ i - 1 ] ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void place(
+      int key, int slot, String[] keys, Map<String,Object> entries, String[] names, Object[] values, boolean[] used ) {
+    names[ slot ] = keys[ key ];
+    values[ slot ] = entries.get( keys[ key ] );
+    used[ slot ] = true;
+  }
+
+  private static long hash( String name, long seed ) {
+    long hash = seed;
+    for( int i=0; i<name.length(); i++ ) {
+      hash = ( hash ^ name.charAt( i ) ) * 0x100000001B3L;
+    }
+    return fmix( hash );
+  }
+
+  private static int mix( long hash, int displacement ) {
+    return (int)fmix( hash + displacement * GOLDEN );
+  }
+
+  private static long fmix( long hash ) {
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    hash *= 0xC4CEB9FE1A85EC53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  // Maps a hash onto 0..size-1 without a division.
+  private static int reduce( int hash, int size ) {
+    return (int)( ( ( hash & 0xFFFFFFFFL ) * size ) >>> 32 );
+  }
+
+  private static List<String> getPropertyNames( Class<?> type ) {
+    List<String> names = new ArrayList<String>();
+    for( Method method : type.getMethods() ) {
+      String name = method.getName();
+      if( Modifier.isStatic( method.getModifiers() ) || method.getParameterCount() != 0 ||
+          method.getReturnType() == void.class || method.getDeclaringClass() == Object.class ) {
+        continue;
+      }
+      if( name.startsWith( "get" ) && name.length() > 3 ) {
+        names.add( decapitalize( name.substring( 3 ) ) );
+      } else if( name.startsWith( "is" ) && name.length() > 2 && method.getReturnType() == boolean.class ) {
+        names.add( decapitalize( name.substring( 2 ) ) );
+      }
+    }
+    return names;
+  }
+
+  // The bean naming rule: URL stays URL while Name becomes name.
+  private static String decapitalize( String name ) {
+    if( name.length() > 1 && Character.isUpperCase( name.charAt( 1 ) ) && Character.isUpperCase( name.charAt( 0 ) ) ) {
+      return name;
+    }
+    return Character.toLowerCase( name.charAt( 0 ) ) + name.substring( 1 );
+  }
+
+}
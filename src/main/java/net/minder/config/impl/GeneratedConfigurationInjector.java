@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.ConfigurationConverter;
+import net.minder.config.ConfigurationException;
+import net.minder.config.spi.ConfigurationInjector;
+
+/**
+ * Base class of the &lt;Type&gt;$ConfigInjector classes emitted by the configuration annotation processor.
+ * The DefaultConfigurationInjector uses a generated injector for a target class in place of reflection when one exists.
+ */
+public abstract class GeneratedConfigurationInjector implements ConfigurationInjector {
+
+  public static final String SUFFIX = "$ConfigInjector";
+
+  private DefaultConfigurationInjector injector;
+
+  protected GeneratedConfigurationInjector() {
+  }
+
+  static ConfigurationInjector find( Class<?> type, DefaultConfigurationInjector injector ) {
+    GeneratedConfigurationInjector generated = null;
+    try {
+      Class<?> generatedType = Class.forName( type.getName() + SUFFIX, true, type.getClassLoader() );
+      if( GeneratedConfigurationInjector.class.isAssignableFrom( generatedType ) ) {
+        generated = (GeneratedConfigurationInjector)generatedType.getConstructor().newInstance();
+        generated.injector = injector;
+      }
+    } catch( ClassNotFoundException e ) {
+      // No injector was generated for this type.
+    } catch( ReflectiveOperationException e ) {
+      throw new ConfigurationException( String.format(
+          "Failed to create generated injector for %s", type.getName() ), e );
+    } catch( LinkageError e ) {
+      // The generated injector is stale or unusable so fall back to reflection.
+    }
+    return generated;
+  }
+
+  protected static ConfigurationConverter<?> converter( Class<?> type ) {
+    return ConfigurationConverterFactory.get( type );
+  }
+
+  protected Object getFieldValue(
+      Object target, String name, Class<?> type, ConfigurationConverter<?> converter, boolean optional,
+      ConfigurationAdapter adapter, ConfigurationBinding binding ) throws ConfigurationException {
+    return injector.resolveFieldValue( target, name, type, converter, optional, adapter, binding );
+  }
+
+  protected Object getArgumentValue(
+      Object target, String name, Class<?> type, ConfigurationConverter<?> converter, String defaultValue,
+      ConfigurationAdapter adapter, ConfigurationBinding binding ) throws ConfigurationException {
+    return injector.resolveArgumentValue( target, name, type, converter, defaultValue, adapter, binding );
+  }
+
+  protected Object getNestedValue(
+      Object target, Object current, String name, Class<?> type,
+      ConfigurationAdapter adapter, ConfigurationBinding binding ) throws ConfigurationException {
+    return injector.resolveNestedValue( target, current, name, type, adapter, binding );
+  }
+
+  protected ConfigurationException methodFailure(
+      Object target, String name, Throwable cause, ConfigurationAdapter adapter, ConfigurationBinding binding,
+      String... args ) {
+    return injector.methodFailure( name, args, target, cause, adapter, binding );
+  }
+
+}
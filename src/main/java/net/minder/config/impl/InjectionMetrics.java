@@ -0,0 +1,219 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.spi.ConfigurationInjectionListener;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An injection listener that aggregates timings per target class and per configuration name.
+ * Counts are kept in striped LongAdders so concurrent injections don't contend on a shared counter.
+ * <pre>
+ * InjectionMetrics metrics = new InjectionMetrics();
+ * configuration().target( server ).source( props ).listener( metrics ).inject();
+ * metrics.getKeyMetrics( "port" ).getLookupTime().getMean();
+ * </pre>
+ */
+public class InjectionMetrics implements ConfigurationInjectionListener {
+
+  private final ConcurrentMap<Class<?>,TypeMetrics> types = new ConcurrentHashMap<Class<?>,TypeMetrics>();
+  private final ConcurrentMap<String,KeyMetrics> keys = new ConcurrentHashMap<String,KeyMetrics>();
+
+  @Override
+  public void injected( Class<?> type, int members, long nanos ) {
+    TypeMetrics metrics = types.get( type );
+    if( metrics == null ) {
+      metrics = types.computeIfAbsent( type, t -> new TypeMetrics() );
+    }
+    metrics.members.add( members );
+    metrics.time.record( nanos );
+  }
+
+  @Override
+  public void lookedUp( String name, boolean found, long nanos ) {
+    KeyMetrics metrics = getOrCreate( name );
+    metrics.lookupTime.record( nanos );
+    if( !found ) {
+      metrics.notFound.increment();
+    }
+  }
+
+  @Override
+  public void converted( String name, Class<?> type, long nanos ) {
+    getOrCreate( name ).conversionTime.record( nanos );
+  }
+
+  @Override
+  public void defaulted( String name ) {
+    getOrCreate( name ).defaults.increment();
+  }
+
+  @Override
+  public void missed( String name ) {
+    getOrCreate( name ).optionalMisses.increment();
+  }
+
+  @Override
+  public void failed( String name, Throwable cause ) {
+    getOrCreate( name ).failures.increment();
+  }
+
+  public Map<Class<?>,TypeMetrics> getTypeMetrics() {
+    return Collections.unmodifiableMap( types );
+  }
+
+  public TypeMetrics getTypeMetrics( Class<?> type ) {
+    return types.get( type );
+  }
+
+  public Map<String,KeyMetrics> getKeyMetrics() {
+    return Collections.unmodifiableMap( keys );
+  }
+
+  public KeyMetrics getKeyMetrics( String name ) {
+    return keys.get( name );
+  }
+
+  // A plain get first avoids the locking computeIfAbsent can do on hits.
+  private KeyMetrics getOrCreate( String name ) {
+    KeyMetrics metrics = keys.get( name );
+    if( metrics == null ) {
+      metrics = keys.computeIfAbsent( name, n -> new KeyMetrics() );
+    }
+    return metrics;
+  }
+
+  public static final class TypeMetrics {
+
+    private final LongAdder members = new LongAdder();
+    private final Histogram time = new Histogram();
+
+    /**
+     * The number of injections and their durations.
+     */
+    public Histogram getTime() {
+      return time;
+    }
+
+    public long getMemberCount() {
+      return members.sum();
+    }
+
+  }
+
+  public static final class KeyMetrics {
+
+    private final Histogram lookupTime = new Histogram();
+    private final Histogram conversionTime = new Histogram();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder defaults = new LongAdder();
+    private final LongAdder optionalMisses = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public Histogram getLookupTime() {
+      return lookupTime;
+    }
+
+    public Histogram getConversionTime() {
+      return conversionTime;
+    }
+
+    public long getNotFoundCount() {
+      return notFound.sum();
+    }
+
+    public long getDefaultCount() {
+      return defaults.sum();
+    }
+
+    public long getOptionalMissCount() {
+      return optionalMisses.sum();
+    }
+
+    public long getFailureCount() {
+      return failures.sum();
+    }
+
+  }
+
+  /**
+   * Durations in nanoseconds counted in power of two buckets, so percentiles are accurate to within a factor of two.
+   */
+  public static final class Histogram {
+
+    private final LongAdder[] buckets = new LongAdder[ 64 ];
+    private final LongAdder total = new LongAdder();
+
+    Histogram() {
+      for( int i=0; i<buckets.length; i++ ) {
+        buckets[ i ] = new LongAdder();
+      }
+    }
+
+    void record( long nanos ) {
+      nanos = Math.max( 0, nanos );
+      buckets[ 63 - Long.numberOfLeadingZeros( nanos | 1 ) ].increment();
+      total.add( nanos );
+    }
+
+    public long getCount() {
+      long count = 0;
+      for( LongAdder bucket : buckets ) {
+        count += bucket.sum();
+      }
+      return count;
+    }
+
+    public long getTotal() {
+      return total.sum();
+    }
+
+    public double getMean() {
+      long count = getCount();
+      return count == 0 ? 0 : (double)getTotal() / count;
+    }
+
+    /**
+     * The upper bound of the bucket holding the given fraction, between 0 and 1, of the durations.
+     */
+    public long getPercentile( double fraction ) {
+      long[] counts = new long[ buckets.length ];
+      long count = 0;
+      for( int i=0; i<buckets.length; i++ ) {
+        counts[ i ] = buckets[ i ].sum();
+        count += counts[ i ];
+      }
+      long rank = (long)Math.ceil( fraction * count );
+      long seen = 0;
+      for( int i=0; i<counts.length; i++ ) {
+        seen += counts[ i ];
+        if( seen >= rank && counts[ i ] > 0 ) {
+          return i == 62 ? Long.MAX_VALUE : ( 2L << i ) - 1;
+        }
+      }
+      return 0;
+    }
+
+  }
+
+}
@@ -0,0 +1,524 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.Alias;
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.ConfigurationConverter;
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import net.minder.config.Default;
+import net.minder.config.Optional;
+import net.minder.config.impl.AccessStrategy.FieldWriter;
+import net.minder.config.impl.AccessStrategy.MethodWriter;
+import net.minder.config.impl.PrefixedConfigurationAdapter.KeyTable;
+
+import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The immutable result of scanning a class for its declared configurable members.
+ * Plans are computed once per class and cached, so injection only has to walk the plan chain.
+ */
+final class InjectionPlan {
+
+  private static final Map<AccessStrategy, ClassValue<InjectionPlan>> PLANS = createPlanCaches();
+  private static final ClassSet<Boolean> TYPES = new ClassSet<Boolean>();
+
+  private static Map<AccessStrategy, ClassValue<InjectionPlan>> createPlanCaches() {
+    Map<AccessStrategy, ClassValue<InjectionPlan>> caches =
+        new EnumMap<AccessStrategy, ClassValue<InjectionPlan>>( AccessStrategy.class );
+    for( final AccessStrategy strategy : AccessStrategy.values() ) {
+      caches.put( strategy, new ClassValue<InjectionPlan>() {
+        @Override
+        protected InjectionPlan computeValue( Class<?> type ) {
+          ConfigurationStatistics.planCreated();
+          TYPES.put( type, Boolean.TRUE );
+          return new InjectionPlan( type, strategy );
+        }
+      } );
+    }
+    return caches;
+  }
+
+  static InjectionPlan get( Class<?> type ) {
+    return get( type, AccessStrategy.getDefault() );
+  }
+
+  static InjectionPlan get( Class<?> type, AccessStrategy strategy ) {
+    ConfigurationStatistics.planRequested();
+    return PLANS.get( strategy ).get( type );
+  }
+
+  /**
+   * The number of classes with cached plans.
+   */
+  static int getCachedCount() {
+    return TYPES.size();
+  }
+
+  /**
+   * Drops every cached plan so they are computed again on next use, for example after classes are redefined.
+   */
+  static void evictAll() {
+    for( Class<?> type : TYPES.clear() ) {
+      for( ClassValue<InjectionPlan> plans : PLANS.values() ) {
+        plans.remove( type );
+      }
+    }
+  }
+
+  private final Class<?> type;
+  private final FieldPlan[] fields;
+  private final MethodPlan[] methods;
+  private final InjectionPlan parent;
+  private final String[] names;
+  private final int memberCount;
+  private final Map<BindingKey,Map<String,KeyTable>> scopes = new ConcurrentHashMap<BindingKey,Map<String,KeyTable>>();
+  private final ReferenceQueue<ConfigurationBinding> collected = new ReferenceQueue<ConfigurationBinding>();
+  private volatile Constructor<?> constructor;
+
+  private InjectionPlan( Class<?> type, AccessStrategy strategy ) {
+    List<FieldPlan> fieldList = new ArrayList<FieldPlan>();
+    for( Field field : type.getDeclaredFields() ) {
+      if( field.getAnnotation( Configure.class ) != null ) {
+        fieldList.add( new FieldPlan( field, strategy ) );
+      }
+    }
+    List<MethodPlan> methodList = new ArrayList<MethodPlan>();
+    for( Method method : type.getDeclaredMethods() ) {
+      if( method.getAnnotation( Configure.class ) != null ) {
+        methodList.add( new MethodPlan( method, strategy ) );
+      }
+    }
+    this.type = type;
+    this.fields = fieldList.toArray( new FieldPlan[ fieldList.size() ] );
+    this.methods = methodList.toArray( new MethodPlan[ methodList.size() ] );
+    this.parent = findParent( type.getSuperclass(), strategy );
+    this.names = collectNames( fields, methods, parent );
+    this.memberCount = fields.length + methods.length + ( parent != null ? parent.getMemberCount() : 0 );
+  }
+
+  private static String[] collectNames( FieldPlan[] fields, MethodPlan[] methods, InjectionPlan parent ) {
+    Set<String> names = new LinkedHashSet<String>();
+    for( FieldPlan field : fields ) {
+      names.add( field.getName() );
+    }
+    for( MethodPlan method : methods ) {
+      for( ParameterPlan param : method.getParameters() ) {
+        names.add( param.getName() );
+      }
+    }
+    if( parent != null ) {
+      Collections.addAll( names, parent.getNames() );
+    }
+    return names.toArray( new String[ names.size() ] );
+  }
+
+  // Superclass plans are shared, and superclasses without configurable members are skipped entirely.
+  private static InjectionPlan findParent( Class<?> superType, AccessStrategy strategy ) {
+    InjectionPlan plan = null;
+    if( superType != null && superType != Object.class ) {
+      plan = get( superType, strategy );
+      if( plan.isEmpty() ) {
+        plan = plan.getParent();
+      }
+    }
+    return plan;
+  }
+
+  Class<?> getType() {
+    return type;
+  }
+
+  FieldPlan[] getFields() {
+    return fields;
+  }
+
+  MethodPlan[] getMethods() {
+    return methods;
+  }
+
+  InjectionPlan getParent() {
+    return parent;
+  }
+
+  /**
+   * The unbound configuration names of every member in this plan and its parents.
+   */
+  String[] getNames() {
+    return names;
+  }
+
+  /**
+   * The number of configurable fields and methods in this plan and its parents.
+   */
+  int getMemberCount() {
+    return memberCount;
+  }
+
+  boolean isEmpty() {
+    return fields.length == 0 && methods.length == 0;
+  }
+
+  /**
+   * The full keys of this plan's bound names when it configures a nested object under the scope.
+   * Tables are kept per binding and scope, with bindings held weakly by identity so those used at the same time
+   * each keep their tables and those no longer used are dropped with their tables.
+   */
+  KeyTable getKeyTable( String scope, int depth, Object target, ConfigurationBinding binding ) {
+    Map<String,KeyTable> tables = scopes.get( new BindingLookup( binding ) );
+    if( tables == null ) {
+      purge();
+      tables = scopes.computeIfAbsent(
+          new WeakBindingKey( binding, collected ), key -> new ConcurrentHashMap<String,KeyTable>() );
+    }
+    KeyTable table = tables.get( scope );
+    if( table == null ) {
+      table = tables.computeIfAbsent( scope, s -> new KeyTable( s, depth, names, target, binding ) );
+    }
+    return table;
+  }
+
+  private void purge() {
+    Reference<?> reference;
+    while( ( reference = collected.poll() ) != null ) {
+      scopes.remove( (WeakBindingKey)reference );
+    }
+  }
+
+  /**
+   * Creates an instance of this plan's type for a nested configuration member that has no value yet.
+   */
+  Object newInstance( String member, Object owner ) throws ConfigurationException {
+    try {
+      Constructor<?> ctor = constructor;
+      if( ctor == null ) {
+        ctor = type.getDeclaredConstructor();
+        ctor.setAccessible( true );
+        constructor = ctor;
+      }
+      return ctor.newInstance();
+    } catch( Exception e ) {
+      throw new ConfigurationException( String.format(
+          "Failed to create nested configuration %s for %s of %s",
+          type.getName(), member, owner.getClass().getName() ), e );
+    }
+  }
+
+  // Types with configurable members of their own are injected as nested objects rather than converted from one value.
+  static boolean isConfigurable( Class<?> type ) {
+    if( type.isPrimitive() || type.isArray() || type.isInterface() || type.isEnum() || type.getName().startsWith( "java." ) ) {
+      return false;
+    }
+    for( Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass() ) {
+      for( Field field : current.getDeclaredFields() ) {
+        if( field.getAnnotation( Configure.class ) != null ) {
+          return true;
+        }
+      }
+      for( Method method : current.getDeclaredMethods() ) {
+        if( method.getAnnotation( Configure.class ) != null ) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  // Keys compare bindings by identity, so a lookup can use a plain key without creating a weak reference.
+  private interface BindingKey {
+    ConfigurationBinding getBinding();
+  }
+
+  private static boolean sameBinding( BindingKey key, Object other ) {
+    ConfigurationBinding binding = key.getBinding();
+    return other == key
+        || ( binding != null && other instanceof BindingKey && ((BindingKey)other).getBinding() == binding );
+  }
+
+  private static final class BindingLookup implements BindingKey {
+
+    private final ConfigurationBinding binding;
+
+    BindingLookup( ConfigurationBinding binding ) {
+      this.binding = binding;
+    }
+
+    @Override
+    public ConfigurationBinding getBinding() {
+      return binding;
+    }
+
+    @Override
+    public boolean equals( Object other ) {
+      return sameBinding( this, other );
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode( binding );
+    }
+
+  }
+
+  private static final class WeakBindingKey extends WeakReference<ConfigurationBinding> implements BindingKey {
+
+    private final int hash;
+
+    WeakBindingKey( ConfigurationBinding binding, ReferenceQueue<ConfigurationBinding> queue ) {
+      super( binding, queue );
+      this.hash = System.identityHashCode( binding );
+    }
+
+    @Override
+    public ConfigurationBinding getBinding() {
+      return get();
+    }
+
+    @Override
+    public boolean equals( Object other ) {
+      return sameBinding( this, other );
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+  }
+
+  static final class FieldPlan {
+
+    private final Field field;
+    private final String name;
+    private final Class<?> type;
+    private final boolean optional;
+    private final boolean unboxed;
+    private final boolean nested;
+    private final ConfigurationConverter<?> converter;
+    private final FieldWriter writer;
+
+    private FieldPlan( Field field, AccessStrategy strategy ) {
+      this.field = field;
+      this.name = pickName( field.getName(), field.getAnnotation( Alias.class ) );
+      this.type = field.getType();
+      this.optional = field.getAnnotation( Optional.class ) != null;
+      this.unboxed = AccessStrategy.isUnboxed( type );
+      this.nested = isConfigurable( type );
+      this.converter = ConfigurationConverterFactory.get( type );
+      makeAccessible( field );
+      this.writer = strategy.createFieldWriter( field );
+    }
+
+    Field getField() {
+      return field;
+    }
+
+    FieldWriter getWriter() {
+      return writer;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    Class<?> getType() {
+      return type;
+    }
+
+    boolean isOptional() {
+      return optional;
+    }
+
+    boolean isUnboxed() {
+      return unboxed;
+    }
+
+    /**
+     * Whether the field holds a nested configuration object injected from the keys under its bound name.
+     */
+    boolean isNested() {
+      return nested;
+    }
+
+    ConfigurationConverter<?> getConverter() {
+      return converter;
+    }
+
+    private void makeAccessible( Field field ) {
+      if( !field.trySetAccessible() ) {
+        throw new ConfigurationException( String.format(
+            "Failed to inject field configuration property %s of %s",
+            name, field.getDeclaringClass().getName() ) );
+      }
+    }
+
+  }
+
+  static final class MethodPlan {
+
+    private final Method method;
+    private final String name;
+    private final ParameterPlan[] parameters;
+    private final boolean unboxed;
+    private final MethodWriter writer;
+
+    private MethodPlan( Method method, AccessStrategy strategy ) {
+      this.method = method;
+      this.name = pickName( getConfigName( method ), method.getAnnotation( Alias.class ) );
+      Class<?>[] argTypes = method.getParameterTypes();
+      Annotation[][] argTags = method.getParameterAnnotations();
+      this.parameters = new ParameterPlan[ argTypes.length ];
+      for( int i=0; i<argTypes.length; i++ ) {
+        parameters[ i ] = new ParameterPlan( getConfigName( name, argTags[i] ), argTypes[i], argTags[i] );
+      }
+      this.unboxed = argTypes.length == 1 && AccessStrategy.isUnboxed( argTypes[ 0 ] );
+      if( !method.trySetAccessible() ) {
+        throw new ConfigurationException( String.format(
+            "Failed to access method %s of %s", method.getName(), method.getDeclaringClass().getName() ) );
+      }
+      this.writer = strategy.createMethodWriter( method );
+    }
+
+    Method getMethod() {
+      return method;
+    }
+
+    MethodWriter getWriter() {
+      return writer;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    ParameterPlan[] getParameters() {
+      return parameters;
+    }
+
+    boolean isUnboxed() {
+      return unboxed;
+    }
+
+  }
+
+  static final class ParameterPlan {
+
+    private final String name;
+    private final Class<?> type;
+    private final String defaultValue;
+    private final ConfigurationConverter<?> converter;
+
+    private ParameterPlan( String name, Class<?> type, Annotation[] tags ) {
+      Default defTag = findAnnotation( tags, Default.class );
+      this.name = name;
+      this.type = type;
+      this.defaultValue = defTag != null ? defTag.value() : null;
+      this.converter = ConfigurationConverterFactory.get( type );
+    }
+
+    ConfigurationConverter<?> getConverter() {
+      return converter;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    Class<?> getType() {
+      return type;
+    }
+
+    boolean hasDefault() {
+      return defaultValue != null;
+    }
+
+    String getDefault() {
+      return defaultValue;
+    }
+
+  }
+
+  private static <T extends Annotation> T findAnnotation( Annotation[] annotations, Class<T> type ) {
+    T found = null;
+    for( Annotation current : annotations ) {
+      if( type.isInstance( current ) ) {
+        found = type.cast( current );
+        break;
+      }
+    }
+    return found;
+  }
+
+  private static String pickName( String implied, Alias explicit ) {
+    String name = implied;
+    if( explicit != null ) {
+      String tagValue = explicit.value().trim();
+      if( tagValue.length() > 0 ) {
+        name = tagValue;
+      }
+    }
+    return name;
+  }
+
+  private static String getConfigName( String name, Annotation[] tags ) {
+    if( tags != null ) {
+      for( Annotation tag : tags ) {
+        if( tag != null && tag instanceof Alias ) {
+          Alias aliasTag = Alias.class.cast( tag );
+          String aliasValue = aliasTag.value().trim();
+          if( aliasValue.length() > 0 ) {
+            name = aliasValue;
+            break;
+          }
+        }
+      }
+    }
+    return name;
+  }
+
+  private static String getConfigName( Method method ) {
+    String methodName = method.getName();
+    StringBuilder name = new StringBuilder( methodName.length() );
+    if( methodName != null &&
+        methodName.length() > 3 &&
+        methodName.startsWith( "set" ) &&
+        Character.isUpperCase( methodName.charAt( 3 ) ) ) {
+      name.append( methodName.substring( 3 ) );
+      name.setCharAt( 0, Character.toLowerCase( name.charAt( 0 ) ) );
+    } else {
+      name.append( name );
+    }
+    return name.toString();
+  }
+
+}
@@ -0,0 +1,309 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.impl.CompiledConfigurationInjector.ClassInjector;
+import net.minder.config.impl.CompiledConfigurationInjector.Support;
+import net.minder.config.impl.InjectionPlan.FieldPlan;
+import net.minder.config.impl.InjectionPlan.MethodPlan;
+import net.minder.config.impl.InjectionPlan.ParameterPlan;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Emits a hidden nestmate class for one planned class.  The generated inject method is equivalent to:
+ * <pre>
+ * Type t = (Type)target;
+ * Object v = support.fieldValue( 0, target, adapter, binding );
+ * if( v != null ) t.field = (FieldType)v;
+ * Object a0 = support.argumentValue( 0, 0, target, adapter, binding );
+ * try { t.setter( (ArgType)a0 ); } catch( Throwable e ) { throw support.methodFailure( 0, target, e, adapter, binding ); }
+ * </pre>
+ */
+final class InjectorClassGenerator implements Opcodes {
+
+  private static final String SUPPORT = Type.getInternalName( Support.class );
+  private static final String SUPPORT_DESC = Type.getDescriptor( Support.class );
+  private static final String OBJECT = Type.getInternalName( Object.class );
+  private static final String INJECT_DESC = Type.getMethodDescriptor(
+      Type.VOID_TYPE, Type.getType( Object.class ),
+      Type.getType( net.minder.config.ConfigurationAdapter.class ),
+      Type.getType( net.minder.config.ConfigurationBinding.class ) );
+  private static final String FIELD_VALUE_DESC = "(I" + INJECT_DESC.substring( 1, INJECT_DESC.length() - 1 ) + "Ljava/lang/Object;";
+  private static final String ARGUMENT_VALUE_DESC = "(II" + INJECT_DESC.substring( 1, INJECT_DESC.length() - 1 ) + "Ljava/lang/Object;";
+  private static final String FALLBACK_DESC = "(I" + INJECT_DESC.substring( 1 );
+  private static final String FAILURE_DESC = "(ILjava/lang/Object;Ljava/lang/Throwable;"
+      + "Lnet/minder/config/ConfigurationAdapter;Lnet/minder/config/ConfigurationBinding;)"
+      + "Lnet/minder/config/ConfigurationException;";
+
+  private static final int THIS = 0;
+  private static final int TARGET = 1;
+  private static final int ADAPTER = 2;
+  private static final int BINDING = 3;
+  private static final int TYPED_TARGET = 4;
+  private static final int VALUE = 5;
+  private static final int ARGS = 6;
+
+  private InjectorClassGenerator() {
+  }
+
+  static ClassInjector generate( InjectionPlan plan, Support support ) throws Exception {
+    Class<?> type = plan.getType();
+    MethodHandles.Lookup lookup = MethodHandles.privateLookupIn( type, MethodHandles.lookup() );
+    byte[] bytes = generateClass( plan );
+    MethodHandles.Lookup hidden = lookup.defineHiddenClass( bytes, true, MethodHandles.Lookup.ClassOption.NESTMATE );
+    try {
+      return (ClassInjector)hidden.findConstructor(
+          hidden.lookupClass(), MethodType.methodType( void.class, Support.class ) ).invoke( support );
+    } catch( Exception e ) {
+      throw e;
+    } catch( Error e ) {
+      throw e;
+    } catch( Throwable t ) {
+      throw new IllegalStateException( t );
+    }
+  }
+
+  static byte[] generateClass( InjectionPlan plan ) {
+    String owner = Type.getInternalName( plan.getType() );
+    String name = owner + "$$ConfigInjector";
+    ClassWriter cw = new ClassWriter( ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS ) {
+      @Override
+      protected String getCommonSuperClass( String type1, String type2 ) {
+        return OBJECT;
+      }
+    };
+    cw.visit( V11, ACC_FINAL | ACC_SUPER, name, null, OBJECT,
+        new String[]{ Type.getInternalName( ClassInjector.class ) } );
+    cw.visitField( ACC_PRIVATE | ACC_FINAL, "support", SUPPORT_DESC, null, null ).visitEnd();
+
+    MethodVisitor init = cw.visitMethod( 0, "<init>", "(" + SUPPORT_DESC + ")V", null, null );
+    init.visitCode();
+    init.visitVarInsn( ALOAD, THIS );
+    init.visitMethodInsn( INVOKESPECIAL, OBJECT, "<init>", "()V", false );
+    init.visitVarInsn( ALOAD, THIS );
+    init.visitVarInsn( ALOAD, 1 );
+    init.visitFieldInsn( PUTFIELD, name, "support", SUPPORT_DESC );
+    init.visitInsn( RETURN );
+    init.visitMaxs( 0, 0 );
+    init.visitEnd();
+
+    MethodVisitor mv = cw.visitMethod( ACC_PUBLIC, "inject", INJECT_DESC, null, null );
+    mv.visitCode();
+    mv.visitVarInsn( ALOAD, TARGET );
+    mv.visitTypeInsn( CHECKCAST, owner );
+    mv.visitVarInsn( ASTORE, TYPED_TARGET );
+    // Unboxed members go through the primitive accessors of the default path rather than boxed support values,
+    // and nested objects through its scoped injection.
+    FieldPlan[] fields = plan.getFields();
+    for( int i=0; i<fields.length; i++ ) {
+      if( !fields[ i ].isUnboxed() && !fields[ i ].isNested() && canWrite( fields[ i ].getField() ) ) {
+        generateFieldWrite( mv, name, owner, i, fields[ i ].getField() );
+      } else {
+        generateFallback( mv, name, "injectField", i );
+      }
+    }
+    MethodPlan[] methods = plan.getMethods();
+    for( int i=0; i<methods.length; i++ ) {
+      if( !methods[ i ].isUnboxed() && canInvoke( methods[ i ].getMethod() ) ) {
+        generateMethodCall( mv, name, owner, i, methods[ i ] );
+      } else {
+        generateFallback( mv, name, "injectMethod", i );
+      }
+    }
+    mv.visitInsn( RETURN );
+    mv.visitMaxs( 0, 0 );
+    mv.visitEnd();
+    cw.visitEnd();
+    return cw.toByteArray();
+  }
+
+  private static void generateFieldWrite( MethodVisitor mv, String name, String owner, int index, Field field ) {
+    boolean isStatic = Modifier.isStatic( field.getModifiers() );
+    Label skip = new Label();
+    loadSupport( mv, name );
+    pushInt( mv, index );
+    loadContext( mv );
+    mv.visitMethodInsn( INVOKEVIRTUAL, SUPPORT, "fieldValue", FIELD_VALUE_DESC, false );
+    mv.visitVarInsn( ASTORE, VALUE );
+    mv.visitVarInsn( ALOAD, VALUE );
+    mv.visitJumpInsn( IFNULL, skip );
+    if( !isStatic ) {
+      mv.visitVarInsn( ALOAD, TYPED_TARGET );
+    }
+    mv.visitVarInsn( ALOAD, VALUE );
+    unwrap( mv, field.getType() );
+    mv.visitFieldInsn( isStatic ? PUTSTATIC : PUTFIELD, owner, field.getName(), Type.getDescriptor( field.getType() ) );
+    mv.visitLabel( skip );
+  }
+
+  private static void generateMethodCall( MethodVisitor mv, String name, String owner, int index, MethodPlan plan ) {
+    Method method = plan.getMethod();
+    boolean isStatic = Modifier.isStatic( method.getModifiers() );
+    ParameterPlan[] params = plan.getParameters();
+    for( int i=0; i<params.length; i++ ) {
+      loadSupport( mv, name );
+      pushInt( mv, index );
+      pushInt( mv, i );
+      loadContext( mv );
+      mv.visitMethodInsn( INVOKEVIRTUAL, SUPPORT, "argumentValue", ARGUMENT_VALUE_DESC, false );
+      mv.visitVarInsn( ASTORE, ARGS + i );
+    }
+    Label start = new Label();
+    Label end = new Label();
+    Label handler = new Label();
+    Label done = new Label();
+    mv.visitTryCatchBlock( start, end, handler, "java/lang/Throwable" );
+    mv.visitLabel( start );
+    if( !isStatic ) {
+      mv.visitVarInsn( ALOAD, TYPED_TARGET );
+    }
+    Class<?>[] types = method.getParameterTypes();
+    for( int i=0; i<types.length; i++ ) {
+      mv.visitVarInsn( ALOAD, ARGS + i );
+      unwrap( mv, types[ i ] );
+    }
+    mv.visitMethodInsn( isStatic ? INVOKESTATIC : INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor( method ), false );
+    Type returnType = Type.getReturnType( method );
+    if( returnType.getSize() == 2 ) {
+      mv.visitInsn( POP2 );
+    } else if( returnType.getSize() == 1 ) {
+      mv.visitInsn( POP );
+    }
+    mv.visitLabel( end );
+    mv.visitJumpInsn( GOTO, done );
+    mv.visitLabel( handler );
+    mv.visitVarInsn( ASTORE, VALUE );
+    loadSupport( mv, name );
+    pushInt( mv, index );
+    mv.visitVarInsn( ALOAD, TARGET );
+    mv.visitVarInsn( ALOAD, VALUE );
+    mv.visitVarInsn( ALOAD, ADAPTER );
+    mv.visitVarInsn( ALOAD, BINDING );
+    mv.visitMethodInsn( INVOKEVIRTUAL, SUPPORT, "methodFailure", FAILURE_DESC, false );
+    mv.visitInsn( ATHROW );
+    mv.visitLabel( done );
+  }
+
+  private static void generateFallback( MethodVisitor mv, String name, String method, int index ) {
+    loadSupport( mv, name );
+    pushInt( mv, index );
+    loadContext( mv );
+    mv.visitMethodInsn( INVOKEVIRTUAL, SUPPORT, method, FALLBACK_DESC, false );
+  }
+
+  private static void loadSupport( MethodVisitor mv, String name ) {
+    mv.visitVarInsn( ALOAD, THIS );
+    mv.visitFieldInsn( GETFIELD, name, "support", SUPPORT_DESC );
+  }
+
+  private static void loadContext( MethodVisitor mv ) {
+    mv.visitVarInsn( ALOAD, TARGET );
+    mv.visitVarInsn( ALOAD, ADAPTER );
+    mv.visitVarInsn( ALOAD, BINDING );
+  }
+
+  private static void pushInt( MethodVisitor mv, int value ) {
+    if( value <= 5 ) {
+      mv.visitInsn( ICONST_0 + value );
+    } else if( value <= Byte.MAX_VALUE ) {
+      mv.visitIntInsn( BIPUSH, value );
+    } else if( value <= Short.MAX_VALUE ) {
+      mv.visitIntInsn( SIPUSH, value );
+    } else {
+      mv.visitLdcInsn( value );
+    }
+  }
+
+  private static void unwrap( MethodVisitor mv, Class<?> type ) {
+    if( type.isPrimitive() ) {
+      Class<?> wrapper = wrapperOf( type );
+      mv.visitTypeInsn( CHECKCAST, Type.getInternalName( wrapper ) );
+      mv.visitMethodInsn( INVOKEVIRTUAL, Type.getInternalName( wrapper ),
+          type.getName() + "Value", "()" + Type.getDescriptor( type ), false );
+    } else if( type != Object.class ) {
+      mv.visitTypeInsn( CHECKCAST, Type.getInternalName( type ) );
+    }
+  }
+
+  private static Class<?> wrapperOf( Class<?> type ) {
+    if( type == int.class ) {
+      return Integer.class;
+    } else if( type == long.class ) {
+      return Long.class;
+    } else if( type == boolean.class ) {
+      return Boolean.class;
+    } else if( type == double.class ) {
+      return Double.class;
+    } else if( type == float.class ) {
+      return Float.class;
+    } else if( type == short.class ) {
+      return Short.class;
+    } else if( type == byte.class ) {
+      return Byte.class;
+    } else {
+      return Character.class;
+    }
+  }
+
+  // Final fields cannot be assigned outside a constructor and checkcast needs the value type to be visible.
+  private static boolean canWrite( Field field ) {
+    return !Modifier.isFinal( field.getModifiers() ) &&
+        isVisible( field.getType(), field.getDeclaringClass() );
+  }
+
+  private static boolean canInvoke( Method method ) {
+    if( method.isBridge() || method.isSynthetic() ) {
+      return false;
+    }
+    for( Class<?> type : method.getParameterTypes() ) {
+      if( !isVisible( type, method.getDeclaringClass() ) ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isVisible( Class<?> type, Class<?> from ) {
+    while( type.isArray() ) {
+      type = type.getComponentType();
+    }
+    if( type.isPrimitive() ) {
+      return true;
+    }
+    if( type.getClassLoader() == from.getClassLoader() && type.getPackageName().equals( from.getPackageName() ) ) {
+      return true;
+    }
+    for( Class<?> c = type; c != null; c = c.getEnclosingClass() ) {
+      if( !Modifier.isPublic( c.getModifiers() ) ) {
+        return false;
+      }
+    }
+    return type.getModule().isExported( type.getPackageName(), from.getModule() );
+  }
+
+}
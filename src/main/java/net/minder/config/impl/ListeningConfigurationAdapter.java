@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.ConfigurationException;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import net.minder.config.spi.ConfigurationInjector;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Times each lookup of the source adapter for an injection listener and for flight recorder events,
+ * and carries the listener to the injector.
+ * Injections are only observed through this adapter when there is a listener, a recording has the events enabled or
+ * the statistics MBean is registered.
+ */
+final class ListeningConfigurationAdapter implements ConfigurationAdapter {
+
+  private final ConfigurationAdapter source;
+  private final ConfigurationInjectionListener listener;
+
+  private ListeningConfigurationAdapter( ConfigurationAdapter source, ConfigurationInjectionListener listener ) {
+    this.source = source;
+    this.listener = listener;
+  }
+
+  // Values fetched ahead of an observed injection are served under the listening adapter that fetched them.
+  static boolean needsRecording( ConfigurationAdapter adapter ) {
+    return get( adapter ) == null && ( ConfigurationEvents.isEnabled() || ConfigurationStatistics.isEnabled() );
+  }
+
+  static void configure(
+      ConfigurationInjector injector, AccessStrategy strategy, Object target, ConfigurationAdapter adapter,
+      ConfigurationBinding binding, ConfigurationInjectionListener listener ) throws ConfigurationException {
+    if( listener == null ) {
+      listener = ConfigurationInjectionListener.NONE;
+    }
+    if( listener == ConfigurationInjectionListener.NONE && !ConfigurationEvents.isEnabled() && !ConfigurationStatistics.isEnabled() ) {
+      injector.configure( target, adapter, binding );
+      return;
+    }
+    Object event = ConfigurationEvents.beginInjection();
+    long start = System.nanoTime();
+    boolean completed = false;
+    try {
+      injector.configure( target, new ListeningConfigurationAdapter( adapter, listener ), binding );
+      completed = true;
+    } finally {
+      Class<?> type = target.getClass();
+      int members = InjectionPlan.get( type, strategy ).getMemberCount();
+      long nanos = System.nanoTime() - start;
+      listener.injected( type, members, nanos );
+      recordStatistics( type, nanos, completed );
+      ConfigurationEvents.injected( event, type, members );
+    }
+  }
+
+  /**
+   * Observes an asynchronous injection, including the lookups made while its values are fetched.
+   */
+  static CompletableFuture<Void> configureAsync(
+      ConfigurationInjector injector, AccessStrategy strategy, Object target, ConfigurationAdapter adapter,
+      ConfigurationBinding binding, Executor executor, ConfigurationInjectionListener listener ) {
+    if( listener == null ) {
+      listener = ConfigurationInjectionListener.NONE;
+    }
+    if( listener == ConfigurationInjectionListener.NONE && !ConfigurationEvents.isEnabled() && !ConfigurationStatistics.isEnabled() ) {
+      return injector.configureAsync( target, adapter, binding, executor );
+    }
+    final ConfigurationInjectionListener observer = listener;
+    final Object event = ConfigurationEvents.beginInjection();
+    final long start = System.nanoTime();
+    return injector.configureAsync( target, new ListeningConfigurationAdapter( adapter, observer ), binding, executor )
+        .whenComplete( ( done, failure ) -> {
+          Class<?> type = target.getClass();
+          int members = InjectionPlan.get( type, strategy ).getMemberCount();
+          long nanos = System.nanoTime() - start;
+          observer.injected( type, members, nanos );
+          recordStatistics( type, nanos, failure == null );
+          ConfigurationEvents.injected( event, type, members );
+        } );
+  }
+
+  // Failed injections are counted apart so they don't inflate the rate or the per class times.
+  private static void recordStatistics( Class<?> type, long nanos, boolean completed ) {
+    if( completed ) {
+      ConfigurationStatistics.injected( type, nanos );
+    } else {
+      ConfigurationStatistics.injectionFailed();
+    }
+  }
+
+  static ListeningConfigurationAdapter get( ConfigurationAdapter adapter ) {
+    if( adapter instanceof PrefetchedConfigurationAdapter ) {
+      adapter = ((PrefetchedConfigurationAdapter)adapter).getSource();
+    }
+    if( adapter instanceof PrefixedConfigurationAdapter ) {
+      adapter = ((PrefixedConfigurationAdapter)adapter).getSource();
+    }
+    return adapter instanceof ListeningConfigurationAdapter ? (ListeningConfigurationAdapter)adapter : null;
+  }
+
+  static ConfigurationInjectionListener getListener( ConfigurationAdapter adapter ) {
+    ListeningConfigurationAdapter listening = get( adapter );
+    return listening != null ? listening.listener : null;
+  }
+
+  ConfigurationAdapter getSource() {
+    return source;
+  }
+
+  Object convert( String name, Class<?> type, Supplier<Object> conversion ) {
+    Object event = ConfigurationEvents.beginConversion();
+    long start = System.nanoTime();
+    Throwable failure = null;
+    try {
+      Object value = conversion.get();
+      listener.converted( name, type, System.nanoTime() - start );
+      return value;
+    } catch( RuntimeException | Error e ) {
+      failure = e;
+      throw e;
+    } finally {
+      ConfigurationEvents.converted( event, name, type, failure );
+    }
+  }
+
+  @Override
+  public String getConfigurationValue( String name ) throws ConfigurationException {
+    Object event = ConfigurationEvents.beginLookup();
+    long start = System.nanoTime();
+    String value = source.getConfigurationValue( name );
+    lookedUp( event, name, value != null, start );
+    return value;
+  }
+
+  @Override
+  public Map<String,String> getConfigurationValues( Collection<String> names ) throws ConfigurationException {
+    Object event = ConfigurationEvents.beginLookup();
+    long start = System.nanoTime();
+    Map<String,String> values = source.getConfigurationValues( names );
+    long share = names.isEmpty() ? 0 : ( System.nanoTime() - start ) / names.size();
+    int found = 0;
+    for( String name : names ) {
+      boolean present = values != null && values.get( name ) != null;
+      listener.lookedUp( name, present, share );
+      found += present ? 1 : 0;
+    }
+    ConfigurationEvents.lookedUp( event, source, names, found == names.size() );
+    return values;
+  }
+
+  @Override
+  public Object getTypedValue( String name ) throws ConfigurationException {
+    Object event = ConfigurationEvents.beginLookup();
+    long start = System.nanoTime();
+    Object value = source.getTypedValue( name );
+    lookedUp( event, name, value != null, start );
+    return value;
+  }
+
+  private void lookedUp( Object event, String name, boolean found, long start ) {
+    listener.lookedUp( name, found, System.nanoTime() - start );
+    ConfigurationEvents.lookedUp( event, source, name, found );
+  }
+
+}
@@ -35,4 +35,9 @@ public class MapConfigurationAdapter implements ConfigurationAdapter {
     return value == null ? null : value.toString();
   }
 
+  @Override
+  public Object getTypedValue( String name ) {
+    return config.get( name );
+  }
+
 }
@@ -0,0 +1,416 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reads a properties file in place through a read only memory mapping.
+ * The first lookup scans the file once into an open addressing index of key hashes and byte offsets, and values are
+ * only decoded when they are asked for.  The file syntax, including escapes and line continuations, is the one
+ * java.util.Properties.load reads from an ISO 8859-1 stream, and the last of duplicate keys wins.
+ * The file must be smaller than 2GB and must not be modified while in use.
+ */
+public class MappedPropertiesConfigurationAdapter implements ConfigurationAdapter {
+
+  private final Path path;
+  private final ByteBuffer buffer;
+  private final Lock lock = new ReentrantLock();
+  private volatile Index index;
+
+  public MappedPropertiesConfigurationAdapter( Path path ) throws ConfigurationException {
+    this.path = path;
+    this.buffer = map( path );
+  }
+
+  public MappedPropertiesConfigurationAdapter( File file ) throws ConfigurationException {
+    this( file.toPath() );
+  }
+
+  @Override
+  public String getConfigurationValue( String name ) throws ConfigurationException {
+    return getIndex().get( name );
+  }
+
+  // Every name in the file, decoding only the keys.
+  Collection<String> getNames() {
+    return getIndex().names();
+  }
+
+  private static ByteBuffer map( Path path ) {
+    try( FileChannel channel = FileChannel.open( path, StandardOpenOption.READ ) ) {
+      long size = channel.size();
+      if( size > Integer.MAX_VALUE ) {
+        throw new ConfigurationException( String.format(
+            "Configuration file %s is too large to map at %d bytes", path, size ) );
+      }
+      return channel.map( FileChannel.MapMode.READ_ONLY, 0, size );
+    } catch( IOException e ) {
+      throw new ConfigurationException( "Failed to map configuration file " + path, e );
+    }
+  }
+
+  private Index getIndex() {
+    Index current = index;
+    if( current == null ) {
+      lock.lock();
+      try {
+        if( index == null ) {
+          index = new Index( buffer, path );
+        }
+        current = index;
+      } finally {
+        lock.unlock();
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Parallel arrays describing each entry, and a table of entry numbers plus one probed linearly by key hash.
+   * Only absolute reads are made from the buffer so lookups are safe from any thread.
+   */
+  private static final class Index {
+
+    private final ByteBuffer buffer;
+    private final Path path;
+    private int size;
+    private int[] hashes = new int[ 64 ];
+    private int[] keyStarts = new int[ 64 ];
+    private int[] keyEnds = new int[ 64 ];
+    private int[] valueStarts = new int[ 64 ];
+    private int[] valueEnds = new int[ 64 ];
+    // Set for keys that contain escapes or continuations, which are decoded before hashing and comparing.
+    private boolean[] escapedKeys = new boolean[ 64 ];
+    private int[] table;
+    private int mask;
+
+    Index( ByteBuffer buffer, Path path ) {
+      this.buffer = buffer;
+      this.path = path;
+      scan();
+      build();
+    }
+
+    String get( String name ) {
+      int hash = name.hashCode();
+      for( int slot = spread( hash ) & mask; table[ slot ] != 0; slot = ( slot + 1 ) & mask ) {
+        int entry = table[ slot ] - 1;
+        if( hashes[ entry ] == hash && keyEquals( entry, name ) ) {
+          return decode( valueStarts[ entry ], valueEnds[ entry ] );
+        }
+      }
+      return null;
+    }
+
+    private void scan() {
+      int limit = buffer.limit();
+      int pos = 0;
+      while( pos < limit ) {
+        pos = skipWhitespace( pos, limit );
+        if( pos >= limit ) {
+          break;
+        }
+        byte c = buffer.get( pos );
+        if( c == '\n' || c == '\r' ) {
+          pos++;
+          continue;
+        }
+        // A continuation before anything else joins nothing, so the next line is read as a new one and may be
+        // blank or a comment.  Properties.load reads one that is the last thing in the file as an empty key.
+        if( c == '\\' && pos + 1 < limit && ( buffer.get( pos + 1 ) == '\n' || buffer.get( pos + 1 ) == '\r' ) ) {
+          if( pos + 2 == limit ) {
+            add( limit, limit, limit, limit, false );
+          }
+          pos = skipNewline( pos + 1, limit );
+          continue;
+        }
+        if( c == '#' || c == '!' ) {
+          pos = skipLine( pos, limit );
+          continue;
+        }
+        int keyStart = pos;
+        int keyEnd = -1;
+        boolean escaped = false;
+        while( pos < limit ) {
+          c = buffer.get( pos );
+          if( c == '\\' ) {
+            escaped = true;
+            pos = skipEscape( pos + 1, limit );
+          } else if( c == '\n' || c == '\r' ) {
+            keyEnd = pos;
+            break;
+          } else if( c == '=' || c == ':' ) {
+            keyEnd = pos;
+            pos = skipBlank( pos + 1, limit );
+            break;
+          } else if( isWhitespace( c ) ) {
+            keyEnd = pos;
+            pos = skipBlank( pos, limit );
+            if( pos < limit && ( buffer.get( pos ) == '=' || buffer.get( pos ) == ':' ) ) {
+              pos = skipBlank( pos + 1, limit );
+            }
+            break;
+          } else {
+            pos++;
+          }
+        }
+        if( keyEnd < 0 ) {
+          keyEnd = pos;
+        }
+        int valueStart = pos;
+        while( pos < limit ) {
+          c = buffer.get( pos );
+          if( c == '\\' ) {
+            pos = skipEscape( pos + 1, limit );
+          } else if( c == '\n' || c == '\r' ) {
+            break;
+          } else {
+            pos++;
+          }
+        }
+        add( keyStart, keyEnd, valueStart, pos, escaped );
+        pos = skipNewline( pos, limit );
+      }
+    }
+
+    private void add( int keyStart, int keyEnd, int valueStart, int valueEnd, boolean escaped ) {
+      if( size == hashes.length ) {
+        int capacity = size * 2;
+        hashes = Arrays.copyOf( hashes, capacity );
+        keyStarts = Arrays.copyOf( keyStarts, capacity );
+        keyEnds = Arrays.copyOf( keyEnds, capacity );
+        valueStarts = Arrays.copyOf( valueStarts, capacity );
+        valueEnds = Arrays.copyOf( valueEnds, capacity );
+        escapedKeys = Arrays.copyOf( escapedKeys, capacity );
+      }
+      keyStarts[ size ] = keyStart;
+      keyEnds[ size ] = keyEnd;
+      valueStarts[ size ] = valueStart;
+      valueEnds[ size ] = valueEnd;
+      escapedKeys[ size ] = escaped;
+      hashes[ size ] = escaped ? decode( keyStart, keyEnd ).hashCode() : rawHash( keyStart, keyEnd );
+      size++;
+    }
+
+    // Later duplicates replace earlier entries in the table, matching Properties.load.
+    private void build() {
+      int capacity = Integer.highestOneBit( Math.max( 2, size * 2 ) - 1 ) << 1;
+      table = new int[ capacity ];
+      mask = capacity - 1;
+      for( int entry = 0; entry < size; entry++ ) {
+        int slot = spread( hashes[ entry ] ) & mask;
+        while( table[ slot ] != 0 ) {
+          int other = table[ slot ] - 1;
+          if( hashes[ other ] == hashes[ entry ] && sameKey( other, entry ) ) {
+            break;
+          }
+          slot = ( slot + 1 ) & mask;
+        }
+        table[ slot ] = entry + 1;
+      }
+    }
+
+    Collection<String> names() {
+      List<String> names = new ArrayList<String>( size );
+      for( int slot : table ) {
+        if( slot != 0 ) {
+          names.add( decodeKey( slot - 1 ) );
+        }
+      }
+      return names;
+    }
+
+    private String decodeKey( int entry ) {
+      return decode( keyStarts[ entry ], keyEnds[ entry ] );
+    }
+
+    private boolean sameKey( int entry, int other ) {
+      if( escapedKeys[ entry ] || escapedKeys[ other ] ) {
+        return decodeKey( entry ).equals( decodeKey( other ) );
+      }
+      int length = keyEnds[ entry ] - keyStarts[ entry ];
+      if( length != keyEnds[ other ] - keyStarts[ other ] ) {
+        return false;
+      }
+      for( int i=0; i<length; i++ ) {
+        if( buffer.get( keyStarts[ entry ] + i ) != buffer.get( keyStarts[ other ] + i ) ) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean keyEquals( int entry, String name ) {
+      if( escapedKeys[ entry ] ) {
+        return decodeKey( entry ).equals( name );
+      }
+      int start = keyStarts[ entry ];
+      int length = keyEnds[ entry ] - start;
+      if( length != name.length() ) {
+        return false;
+      }
+      for( int i=0; i<length; i++ ) {
+        if( ( buffer.get( start + i ) & 0xFF ) != name.charAt( i ) ) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private int rawHash( int start, int end ) {
+      int hash = 0;
+      for( int i=start; i<end; i++ ) {
+        hash = 31 * hash + ( buffer.get( i ) & 0xFF );
+      }
+      return hash;
+    }
+
+    private String decode( int start, int end ) {
+      int escape = start;
+      while( escape < end && buffer.get( escape ) != '\\' ) {
+        escape++;
+      }
+      byte[] raw = new byte[ escape - start ];
+      buffer.get( start, raw );
+      String plain = new String( raw, StandardCharsets.ISO_8859_1 );
+      if( escape == end ) {
+        return plain;
+      }
+      StringBuilder decoded = new StringBuilder( end - start ).append( plain );
+      int pos = escape;
+      while( pos < end ) {
+        char c = (char)( buffer.get( pos++ ) & 0xFF );
+        if( c != '\\' ) {
+          decoded.append( c );
+          continue;
+        }
+        if( pos >= end ) {
+          break;
+        }
+        c = (char)( buffer.get( pos++ ) & 0xFF );
+        if( c == '\r' || c == '\n' ) {
+          if( c == '\r' && pos < end && buffer.get( pos ) == '\n' ) {
+            pos++;
+          }
+          pos = skipWhitespace( pos, end );
+        } else if( c == 'u' ) {
+          if( pos + 4 > end ) {
+            throw malformed( pos );
+          }
+          int value = 0;
+          for( int i=0; i<4; i++ ) {
+            int digit = Character.digit( (char)( buffer.get( pos++ ) & 0xFF ), 16 );
+            if( digit < 0 ) {
+              throw malformed( pos );
+            }
+            value = ( value << 4 ) + digit;
+          }
+          decoded.append( (char)value );
+        } else if( c == 't' ) {
+          decoded.append( '\t' );
+        } else if( c == 'r' ) {
+          decoded.append( '\r' );
+        } else if( c == 'n' ) {
+          decoded.append( '\n' );
+        } else if( c == 'f' ) {
+          decoded.append( '\f' );
+        } else {
+          decoded.append( c );
+        }
+      }
+      return decoded.toString();
+    }
+
+    private ConfigurationException malformed( int pos ) {
+      return new ConfigurationException( String.format(
+          "Malformed \\uxxxx encoding at offset %d of %s", pos, path ) );
+    }
+
+    // Skips the character after a backslash, including a line terminator and the next line's leading whitespace.
+    private int skipEscape( int pos, int limit ) {
+      if( pos >= limit ) {
+        return pos;
+      }
+      byte c = buffer.get( pos );
+      if( c == '\r' || c == '\n' ) {
+        return skipWhitespace( skipNewline( pos, limit ), limit );
+      }
+      return pos + 1;
+    }
+
+    private int skipNewline( int pos, int limit ) {
+      if( pos < limit && buffer.get( pos ) == '\r' ) {
+        pos++;
+      }
+      if( pos < limit && buffer.get( pos ) == '\n' ) {
+        pos++;
+      }
+      return pos;
+    }
+
+    private int skipLine( int pos, int limit ) {
+      while( pos < limit && buffer.get( pos ) != '\n' && buffer.get( pos ) != '\r' ) {
+        pos++;
+      }
+      return skipNewline( pos, limit );
+    }
+
+    private int skipWhitespace( int pos, int limit ) {
+      while( pos < limit && isWhitespace( buffer.get( pos ) ) ) {
+        pos++;
+      }
+      return pos;
+    }
+
+    // Whitespace and continuations after a key, which Properties.load sees as one run once the lines are joined.
+    private int skipBlank( int pos, int limit ) {
+      pos = skipWhitespace( pos, limit );
+      while( pos + 1 < limit && buffer.get( pos ) == '\\'
+          && ( buffer.get( pos + 1 ) == '\n' || buffer.get( pos + 1 ) == '\r' ) ) {
+        pos = skipWhitespace( skipNewline( pos + 1, limit ), limit );
+      }
+      return pos;
+    }
+
+    private static boolean isWhitespace( byte c ) {
+      return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static int spread( int hash ) {
+      return hash ^ ( hash >>> 16 );
+    }
+
+  }
+
+}
@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+
+import java.util.Map;
+
+/**
+ * Serves the values fetched for one target by a single batch call to the source adapter.
+ */
+final class PrefetchedConfigurationAdapter implements ConfigurationAdapter {
+
+  private final ConfigurationAdapter source;
+  private final Map<String,String> values;
+
+  PrefetchedConfigurationAdapter( ConfigurationAdapter source, Map<String,String> values ) {
+    this.source = source;
+    this.values = values;
+  }
+
+  ConfigurationAdapter getSource() {
+    return source;
+  }
+
+  @Override
+  public String getConfigurationValue( String name ) {
+    return values.get( name );
+  }
+
+}
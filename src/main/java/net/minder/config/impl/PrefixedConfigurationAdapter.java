@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.ConfigurationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A view of a source adapter scoped to the keys of one nested configuration object, for example db.url for url.
+ * Full keys come from a table computed once per nested type and scope, so lookups do not build strings.
+ * Views of views are flattened so every lookup is a single table probe in front of the real source.
+ */
+final class PrefixedConfigurationAdapter implements ConfigurationAdapter {
+
+  // Guards against self referencing types, which would otherwise create nested objects without end.
+  static final int MAX_DEPTH = 32;
+
+  private final ConfigurationAdapter source;
+  private final KeyTable keys;
+
+  private PrefixedConfigurationAdapter( ConfigurationAdapter source, KeyTable keys ) {
+    this.source = source;
+    this.keys = keys;
+  }
+
+  /**
+   * Scopes the adapter to the keys under the bound name of a nested object configured by the plan.
+   * Values prefetched for the enclosing object do not cover the nested keys so the view reads the adapter under them.
+   */
+  static ConfigurationAdapter scope(
+      ConfigurationAdapter adapter, String bind, InjectionPlan plan, Object target, ConfigurationBinding binding ) {
+    if( adapter instanceof PrefetchedConfigurationAdapter ) {
+      adapter = ((PrefetchedConfigurationAdapter)adapter).getSource();
+    }
+    String scope = bind;
+    int depth = 1;
+    if( adapter instanceof PrefixedConfigurationAdapter ) {
+      PrefixedConfigurationAdapter outer = (PrefixedConfigurationAdapter)adapter;
+      scope = outer.keys.resolve( bind );
+      depth = outer.keys.depth + 1;
+      adapter = outer.source;
+    }
+    return new PrefixedConfigurationAdapter( adapter, plan.getKeyTable( scope, depth, target, binding ) );
+  }
+
+  ConfigurationAdapter getSource() {
+    return source;
+  }
+
+  @Override
+  public String getConfigurationValue( String name ) throws ConfigurationException {
+    return source.getConfigurationValue( keys.resolve( name ) );
+  }
+
+  @Override
+  public Map<String,String> getConfigurationValues( Collection<String> names ) throws ConfigurationException {
+    List<String> full = new ArrayList<String>( names.size() );
+    for( String name : names ) {
+      full.add( keys.resolve( name ) );
+    }
+    Map<String,String> values = source.getConfigurationValues( full );
+    Map<String,String> scoped = new HashMap<String,String>();
+    if( values != null ) {
+      int i = 0;
+      for( String name : names ) {
+        String value = values.get( full.get( i++ ) );
+        if( value != null ) {
+          scoped.put( name, value );
+        }
+      }
+    }
+    return scoped;
+  }
+
+  @Override
+  public Object getTypedValue( String name ) throws ConfigurationException {
+    return source.getTypedValue( keys.resolve( name ) );
+  }
+
+  /**
+   * The full keys of every bound name of a nested type under one scope.
+   */
+  static final class KeyTable {
+
+    private final String prefix;
+    private final int depth;
+    private final Map<String,String> keys;
+
+    KeyTable( String scope, int depth, String[] names, Object target, ConfigurationBinding binding ) {
+      if( depth > MAX_DEPTH ) {
+        throw new ConfigurationException( String.format(
+            "Failed to inject nested configuration %s of %s deeper than %d levels",
+            scope, target.getClass().getName(), MAX_DEPTH ) );
+      }
+      this.prefix = scope + ".";
+      this.depth = depth;
+      this.keys = new HashMap<String,String>( names.length * 2 );
+      for( String name : names ) {
+        String bind = DefaultConfigurationInjector.getBindName( target, name, binding );
+        keys.put( bind, prefix + bind );
+      }
+    }
+
+    // Names outside the table, which only a binding that is not a pure function produces, are composed on demand.
+    String resolve( String name ) {
+      String key = keys.get( name );
+      return key != null ? key : prefix.concat( name );
+    }
+
+  }
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+/**
+ * Reads raw values held by typed adapters as primitives when they already have a compatible type.
+ */
+final class PrimitiveValues {
+
+  private PrimitiveValues() {
+  }
+
+  /**
+   * The value boxed as the primitive type when it can be used without a conversion, otherwise null.
+   */
+  static Object toExact( Object value, Class<?> type ) {
+    if( type == int.class ) {
+      if( value instanceof Integer ) {
+        return value;
+      }
+      return value instanceof Short || value instanceof Byte ? Integer.valueOf( ((Number)value).intValue() ) : null;
+    }
+    if( type == long.class ) {
+      if( value instanceof Long ) {
+        return value;
+      }
+      return value instanceof Integer || value instanceof Short || value instanceof Byte
+          ? Long.valueOf( ((Number)value).longValue() ) : null;
+    }
+    if( type == boolean.class ) {
+      return value instanceof Boolean ? value : null;
+    }
+    if( value instanceof Double ) {
+      return value;
+    }
+    return value instanceof Number ? Double.valueOf( ((Number)value).doubleValue() ) : null;
+  }
+
+}
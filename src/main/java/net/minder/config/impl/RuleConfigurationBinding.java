@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationBinding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Translates member names to configuration names with rules applied in the order they were added.
+ * The rules are compiled when the binding is built and each member name is only translated once.
+ * <pre>
+ * ConfigurationBinding binding = RuleConfigurationBinding.rules()
+ *     .style( NamingStyle.DOTTED ).prefix( "db." ).bind( "url", "jdbc.url" ).build();
+ * </pre>
+ * With this binding maxPoolSize is looked up as db.max.pool.size and url as jdbc.url.
+ */
+public final class RuleConfigurationBinding implements ConfigurationBinding {
+
+  /**
+   * Naming conventions for configuration names, which split camelCase member names into lower case words.
+   * Acronyms are kept together, so maxHTTPConnections has the words max, http and connections.
+   */
+  public enum NamingStyle {
+
+    DOTTED( '.', false ),
+    KEBAB( '-', false ),
+    SNAKE( '_', false ),
+    UPPER_SNAKE( '_', true );
+
+    private final char separator;
+    private final boolean upper;
+
+    NamingStyle( char separator, boolean upper ) {
+      this.separator = separator;
+      this.upper = upper;
+    }
+
+    public String translate( String name ) {
+      StringBuilder result = new StringBuilder( name.length() + 8 );
+      int length = name.length();
+      for( int i=0; i<length; i++ ) {
+        char c = name.charAt( i );
+        if( c == '.' || c == '-' || c == '_' ) {
+          separate( result );
+          continue;
+        }
+        if( Character.isUpperCase( c ) && i > 0 ) {
+          char previous = name.charAt( i - 1 );
+          boolean next = i + 1 < length && Character.isLowerCase( name.charAt( i + 1 ) );
+          if( Character.isLowerCase( previous ) || Character.isDigit( previous ) ||
+              ( Character.isUpperCase( previous ) && next ) ) {
+            separate( result );
+          }
+        }
+        result.append( upper ? Character.toUpperCase( c ) : Character.toLowerCase( c ) );
+      }
+      return result.toString();
+    }
+
+    private void separate( StringBuilder result ) {
+      if( result.length() > 0 && result.charAt( result.length() - 1 ) != separator ) {
+        result.append( separator );
+      }
+    }
+
+  }
+
+  private final Map<String,String> binds;
+  private final List<UnaryOperator<String>> rules;
+  private final ConcurrentMap<String,String> names = new ConcurrentHashMap<String,String>();
+
+  private RuleConfigurationBinding( Builder builder ) {
+    this.binds = new HashMap<String,String>( builder.binds );
+    this.rules = new ArrayList<UnaryOperator<String>>( builder.rules );
+  }
+
+  public static Builder rules() {
+    return new Builder();
+  }
+
+  @Override
+  public String getConfigurationName( String name ) {
+    String translated = names.get( name );
+    if( translated == null ) {
+      translated = translate( name );
+      names.putIfAbsent( name, translated );
+    }
+    return translated;
+  }
+
+  private String translate( String name ) {
+    String bind = binds.get( name );
+    if( bind != null ) {
+      return bind;
+    }
+    for( UnaryOperator<String> rule : rules ) {
+      name = rule.apply( name );
+    }
+    return name;
+  }
+
+  public static final class Builder {
+
+    private final Map<String,String> binds = new HashMap<String,String>();
+    private final List<UnaryOperator<String>> rules = new ArrayList<UnaryOperator<String>>();
+
+    private Builder() {
+    }
+
+    /**
+     * Binds a member name to a configuration name, bypassing the rules.
+     */
+    public Builder bind( String targetName, String sourceName ) {
+      binds.put( targetName, sourceName );
+      return this;
+    }
+
+    public Builder prefix( final String prefix ) {
+      rules.add( name -> prefix + name );
+      return this;
+    }
+
+    public Builder style( final NamingStyle style ) {
+      rules.add( style::translate );
+      return this;
+    }
+
+    /**
+     * Replaces every match of the regular expression, where the replacement may refer to groups as $1.
+     */
+    public Builder rewrite( String regex, final String replacement ) {
+      final Pattern pattern = Pattern.compile( regex );
+      rules.add( name -> pattern.matcher( name ).replaceAll( replacement ) );
+      return this;
+    }
+
+    public RuleConfigurationBinding build() {
+      return new RuleConfigurationBinding( this );
+    }
+
+  }
+
+}
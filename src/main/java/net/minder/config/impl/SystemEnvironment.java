@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A snapshot of environment variables to use as a source, read with relaxed names by EnvironmentConfigurationAdapter.
+ * System.getenv() is a Map so passing it directly as a source would read it with exact names instead.
+ * <pre>
+ * configuration().target( server ).source( SystemEnvironment.get() ).inject();
+ * </pre>
+ */
+public final class SystemEnvironment {
+
+  private static final class Holder {
+    static final SystemEnvironment INSTANCE = new SystemEnvironment( System.getenv() );
+  }
+
+  private final Map<String,String> variables;
+  private final Lock lock = new ReentrantLock();
+  private volatile EnvironmentConfigurationAdapter adapter;
+
+  public SystemEnvironment( Map<String,String> variables ) {
+    this.variables = Collections.unmodifiableMap( new HashMap<String,String>( variables ) );
+  }
+
+  /**
+   * The environment of this process, which doesn't change while it runs.
+   */
+  public static SystemEnvironment get() {
+    return Holder.INSTANCE;
+  }
+
+  public Map<String,String> getVariables() {
+    return variables;
+  }
+
+  // Built on first use so every adapter created from this snapshot shares one index.
+  EnvironmentConfigurationAdapter getAdapter() {
+    EnvironmentConfigurationAdapter current = adapter;
+    if( current == null ) {
+      lock.lock();
+      try {
+        if( adapter == null ) {
+          adapter = new EnvironmentConfigurationAdapter( variables );
+        }
+        current = adapter;
+      } finally {
+        lock.unlock();
+      }
+    }
+    return current;
+  }
+
+}
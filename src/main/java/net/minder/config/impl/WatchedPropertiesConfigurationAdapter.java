@@ -0,0 +1,366 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.ConfigurationException;
+import net.minder.config.spi.ConfigurationChangeListener;
+import net.minder.config.spi.ObservableConfigurationAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+
+/**
+ * Serves the merged contents of one or more properties files, later files overriding earlier ones, and reloads them
+ * when they change on disk.  Changes are detected with a WatchService once start is called.  Bursts of events are
+ * debounced, and a file is only parsed again when its size or modification time changed and its checksum differs.
+ * Registered targets are injected again after every reload that changed the content, and listeners are told which
+ * names changed.
+ */
+public class WatchedPropertiesConfigurationAdapter implements ObservableConfigurationAdapter, Closeable {
+
+  public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis( 100 );
+
+  private final List<Path> files;
+  private final Duration debounce;
+  private final FileState[] states;
+  private final List<Registration> registrations = new CopyOnWriteArrayList<Registration>();
+  private final List<ConfigurationChangeListener> listeners = new CopyOnWriteArrayList<ConfigurationChangeListener>();
+  private final AtomicLong reloads = new AtomicLong();
+  private final AtomicLong parses = new AtomicLong();
+  private final Lock lock = new ReentrantLock();
+  private volatile Map<String,String> values;
+  private volatile Exception lastFailure;
+  private WatchService watcher;
+  private Thread thread;
+
+  public WatchedPropertiesConfigurationAdapter( Path... files ) throws ConfigurationException {
+    this( Arrays.asList( files ), DEFAULT_DEBOUNCE );
+  }
+
+  public WatchedPropertiesConfigurationAdapter( Collection<Path> files, Duration debounce ) throws ConfigurationException {
+    this.files = new ArrayList<Path>();
+    for( Path file : files ) {
+      this.files.add( file.toAbsolutePath().normalize() );
+    }
+    this.debounce = debounce;
+    this.states = new FileState[ this.files.size() ];
+    this.values = Collections.emptyMap();
+    reload();
+  }
+
+  @Override
+  public String getConfigurationValue( String name ) throws ConfigurationException {
+    return values.get( name );
+  }
+
+  /**
+   * Injects the target now and again after every reload until it is unregistered.
+   */
+  public void register( Object target, ConfigurationBinding binding ) throws ConfigurationException {
+    Registration registration = new Registration( target, binding );
+    // Added first so a reload that swaps the values while the target is injected also injects it again.
+    registrations.add( registration );
+    try {
+      registration.inject( this );
+    } catch( RuntimeException e ) {
+      registrations.remove( registration );
+      throw e;
+    }
+  }
+
+  @Override
+  public void addConfigurationChangeListener( ConfigurationChangeListener listener ) {
+    listeners.add( listener );
+  }
+
+  @Override
+  public void removeConfigurationChangeListener( ConfigurationChangeListener listener ) {
+    listeners.remove( listener );
+  }
+
+  public void unregister( Object target ) {
+    for( Registration registration : registrations ) {
+      if( registration.target == target ) {
+        registrations.remove( registration );
+      }
+    }
+  }
+
+  /**
+   * Starts watching the directories of the files on a daemon thread.
+   */
+  public synchronized WatchedPropertiesConfigurationAdapter start() throws ConfigurationException {
+    if( thread == null ) {
+      try {
+        watcher = FileSystems.getDefault().newWatchService();
+        Set<Path> dirs = new HashSet<Path>();
+        for( Path file : files ) {
+          if( dirs.add( file.getParent() ) ) {
+            file.getParent().register( watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE );
+          }
+        }
+      } catch( IOException e ) {
+        throw new ConfigurationException( "Failed to watch configuration files " + files, e );
+      }
+      thread = new Thread( this::watch, "config-injector-watch" );
+      thread.setDaemon( true );
+      thread.start();
+    }
+    return this;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if( watcher != null ) {
+      watcher.close();
+      thread.interrupt();
+      watcher = null;
+      thread = null;
+    }
+  }
+
+  /**
+   * Checks every file for changes and, when any content changed, swaps in the new values and injects the registered
+   * targets again.  Returns whether the content changed.
+   * Only the check and swap hold the lock, so targets and listeners are called without it and always read the
+   * latest values.
+   */
+  public boolean reload() throws ConfigurationException {
+    Set<String> names;
+    lock.lock();
+    try {
+      boolean changed = false;
+      for( int i=0; i<states.length; i++ ) {
+        FileState state = check( files.get( i ), states[ i ] );
+        if( state != states[ i ] ) {
+          changed |= states[ i ] == null || state.checksum != states[ i ].checksum;
+          states[ i ] = state;
+        }
+      }
+      if( !changed ) {
+        return false;
+      }
+      Map<String,String> merged = new HashMap<String,String>();
+      for( FileState state : states ) {
+        merged.putAll( state.values );
+      }
+      names = diff( values, merged );
+      values = merged;
+      reloads.incrementAndGet();
+    } finally {
+      lock.unlock();
+    }
+    for( Registration registration : registrations ) {
+      try {
+        registration.inject( this );
+      } catch( RuntimeException e ) {
+        lastFailure = e;
+      }
+    }
+    if( !names.isEmpty() ) {
+      for( ConfigurationChangeListener listener : listeners ) {
+        try {
+          listener.configurationChanged( names );
+        } catch( RuntimeException e ) {
+          lastFailure = e;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static Set<String> diff( Map<String,String> before, Map<String,String> after ) {
+    Set<String> names = new HashSet<String>();
+    for( Map.Entry<String,String> entry : after.entrySet() ) {
+      if( !entry.getValue().equals( before.get( entry.getKey() ) ) ) {
+        names.add( entry.getKey() );
+      }
+    }
+    for( String name : before.keySet() ) {
+      if( !after.containsKey( name ) ) {
+        names.add( name );
+      }
+    }
+    return Collections.unmodifiableSet( names );
+  }
+
+  public long getReloadCount() {
+    return reloads.get();
+  }
+
+  public long getParseCount() {
+    return parses.get();
+  }
+
+  /**
+   * The most recent failure to reload a file or inject a registered target in the background, if any.
+   */
+  public Exception getLastFailure() {
+    return lastFailure;
+  }
+
+  // Returns the previous state when nothing changed, so the content is only read when size or time differ.
+  private FileState check( Path file, FileState previous ) throws ConfigurationException {
+    long size;
+    long modified;
+    try {
+      BasicFileAttributes attributes = Files.readAttributes( file, BasicFileAttributes.class );
+      size = attributes.size();
+      modified = attributes.lastModifiedTime().toMillis();
+    } catch( NoSuchFileException e ) {
+      return previous != null && previous.size < 0 ? previous : FileState.MISSING;
+    } catch( IOException e ) {
+      throw new ConfigurationException( "Failed to read configuration file " + file, e );
+    }
+    if( previous != null && previous.size == size && previous.modified == modified ) {
+      return previous;
+    }
+    byte[] content;
+    try {
+      content = Files.readAllBytes( file );
+    } catch( IOException e ) {
+      throw new ConfigurationException( "Failed to read configuration file " + file, e );
+    }
+    CRC32 crc = new CRC32();
+    crc.update( content );
+    long checksum = crc.getValue();
+    if( previous != null && previous.size >= 0 && previous.checksum == checksum ) {
+      return new FileState( size, modified, checksum, previous.values );
+    }
+    parses.incrementAndGet();
+    Properties properties = new Properties();
+    try {
+      properties.load( new ByteArrayInputStream( content ) );
+    } catch( IOException | IllegalArgumentException e ) {
+      throw new ConfigurationException( "Failed to parse configuration file " + file, e );
+    }
+    Map<String,String> parsed = new HashMap<String,String>();
+    for( String name : properties.stringPropertyNames() ) {
+      parsed.put( name, properties.getProperty( name ) );
+    }
+    return new FileState( size, modified, checksum, parsed );
+  }
+
+  private void watch() {
+    WatchService service;
+    synchronized( this ) {
+      service = watcher;
+    }
+    try {
+      while( true ) {
+        boolean relevant = drain( service.take() );
+        // Keep collecting until no event arrives for the debounce period, then reload once.
+        WatchKey key;
+        while( ( key = service.poll( debounce.toMillis(), TimeUnit.MILLISECONDS ) ) != null ) {
+          relevant |= drain( key );
+        }
+        if( relevant ) {
+          try {
+            reload();
+          } catch( RuntimeException e ) {
+            lastFailure = e;
+          }
+        }
+      }
+    } catch( InterruptedException | ClosedWatchServiceException e ) {
+      // Closed.
+    }
+  }
+
+  private boolean drain( WatchKey key ) {
+    boolean relevant = false;
+    Path dir = (Path)key.watchable();
+    for( WatchEvent<?> event : key.pollEvents() ) {
+      Object context = event.context();
+      if( event.kind() == StandardWatchEventKinds.OVERFLOW ||
+          ( context instanceof Path && files.contains( dir.resolve( (Path)context ) ) ) ) {
+        relevant = true;
+      }
+    }
+    key.reset();
+    return relevant;
+  }
+
+  private static final class FileState {
+
+    static final FileState MISSING = new FileState( -1, -1, -1, Collections.<String,String>emptyMap() );
+
+    final long size;
+    final long modified;
+    final long checksum;
+    final Map<String,String> values;
+
+    FileState( long size, long modified, long checksum, Map<String,String> values ) {
+      this.size = size;
+      this.modified = modified;
+      this.checksum = checksum;
+      this.values = values;
+    }
+
+  }
+
+  private static final class Registration {
+
+    final Object target;
+    final ConfigurationBinding binding;
+
+    Registration( Object target, ConfigurationBinding binding ) {
+      this.target = target;
+      this.binding = binding;
+    }
+
+    void inject( ConfigurationAdapter adapter ) {
+      configuration().target( target ).source( adapter ).binding( binding ).inject();
+    }
+
+  }
+
+}
@@ -0,0 +1,366 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.processor;
+
+import net.minder.config.Alias;
+import net.minder.config.Configure;
+import net.minder.config.Default;
+import net.minder.config.Optional;
+import net.minder.config.impl.GeneratedConfigurationInjector;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a reflection free &lt;Type&gt;$ConfigInjector for each class with @Configure members.
+ * Classes whose configurable members can't be reached from generated code in the same package,
+ * for example private fields, are skipped with a note and continue to be injected via reflection.
+ */
+@SupportedAnnotationTypes( {
+    "net.minder.config.Configure",
+    "net.minder.config.Alias",
+    "net.minder.config.Optional",
+    "net.minder.config.Default" } )
+public class ConfigurationProcessor extends AbstractProcessor {
+
+  private static final String GENERATED = "javax.annotation.processing.Generated";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process( Set<? extends TypeElement> annotations, RoundEnvironment round ) {
+    Set<TypeElement> types = new LinkedHashSet<TypeElement>();
+    for( Element element : round.getElementsAnnotatedWith( Configure.class ) ) {
+      Element enclosing = element.getKind() == ElementKind.PARAMETER ? element.getEnclosingElement() : element;
+      if( enclosing.getEnclosingElement() instanceof TypeElement ) {
+        types.add( (TypeElement)enclosing.getEnclosingElement() );
+      }
+    }
+    for( TypeElement type : types ) {
+      String reason = findIneligibility( type );
+      if( reason != null ) {
+        processingEnv.getMessager().printMessage( Diagnostic.Kind.NOTE, String.format(
+            "No configuration injector generated for %s because %s", type.getQualifiedName(), reason ), type );
+      } else {
+        generate( type );
+      }
+    }
+    return false;
+  }
+
+  private String findIneligibility( TypeElement type ) {
+    if( type.getKind() != ElementKind.CLASS ) {
+      return "it is not a class";
+    }
+    String pkg = getPackage( type );
+    if( !isAccessible( type, pkg ) ) {
+      return "it is not accessible from its package";
+    }
+    for( TypeElement current : getHierarchy( type ) ) {
+      for( VariableElement field : getConfigurableFields( current ) ) {
+        if( field.getModifiers().contains( Modifier.FINAL ) ) {
+          return "field " + field.getSimpleName() + " is final";
+        }
+        if( !isAccessible( field, current, pkg ) ) {
+          return "field " + field.getSimpleName() + " is not accessible";
+        }
+        if( !isAccessible( field.asType(), pkg ) ) {
+          return "the type of field " + field.getSimpleName() + " is not accessible";
+        }
+      }
+      for( ExecutableElement method : getConfigurableMethods( current ) ) {
+        if( !isAccessible( method, current, pkg ) ) {
+          return "method " + method.getSimpleName() + " is not accessible";
+        }
+        for( VariableElement param : method.getParameters() ) {
+          if( !isAccessible( param.asType(), pkg ) ) {
+            return "a parameter type of method " + method.getSimpleName() + " is not accessible";
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  private void generate( TypeElement type ) {
+    String pkg = getPackage( type );
+    String binaryName = processingEnv.getElementUtils().getBinaryName( type ).toString();
+    String simpleName = ( pkg.length() > 0 ? binaryName.substring( pkg.length() + 1 ) : binaryName ) +
+        GeneratedConfigurationInjector.SUFFIX;
+    // The converter fields are only known once the members are walked so the class header is assembled separately.
+    StringBuilder head = new StringBuilder();
+    if( pkg.length() > 0 ) {
+      head.append( "package " ).append( pkg ).append( ";\n\n" );
+    }
+    if( processingEnv.getElementUtils().getTypeElement( GENERATED ) != null ) {
+      head.append( "@" ).append( GENERATED ).append( "( \"" ).append( getClass().getName() ).append( "\" )\n" );
+    }
+    head.append( "public final class " ).append( simpleName )
+        .append( " extends " ).append( GeneratedConfigurationInjector.class.getName() ).append( " {\n\n" );
+    StringBuilder converters = new StringBuilder();
+    int converter = 0;
+    StringBuilder src = new StringBuilder();
+    src.append( "  @Override\n" );
+    src.append( "  public void configure( Object target, net.minder.config.ConfigurationAdapter adapter, " )
+        .append( "net.minder.config.ConfigurationBinding binding ) {\n" );
+    src.append( "    Object v;\n" );
+    int method = 0;
+    for( TypeElement current : getHierarchy( type ) ) {
+      String owner = erasure( current.asType() );
+      for( VariableElement field : getConfigurableFields( current ) ) {
+        String name = pickName( field.getSimpleName().toString(), field.getAnnotation( Alias.class ) );
+        if( isConfigurable( field.asType() ) ) {
+          src.append( "    v = getNestedValue( target, ((" ).append( owner ).append( ")target)." ).append( field.getSimpleName() )
+              .append( ", " ).append( quote( name ) ).append( ", " ).append( erasure( field.asType() ) )
+              .append( ".class, adapter, binding );\n" );
+        } else {
+          appendConverter( converters, converter, field.asType() );
+          src.append( "    v = getFieldValue( target, " ).append( quote( name ) ).append( ", " )
+              .append( erasure( field.asType() ) ).append( ".class, c" ).append( converter++ ).append( ", " )
+              .append( field.getAnnotation( Optional.class ) != null ).append( ", adapter, binding );\n" );
+        }
+        src.append( "    if( v != null ) {\n" );
+        src.append( "      ((" ).append( owner ).append( ")target)." ).append( field.getSimpleName() )
+            .append( " = (" ).append( erasure( field.asType() ) ).append( ")v;\n" );
+        src.append( "    }\n" );
+      }
+      for( ExecutableElement element : getConfigurableMethods( current ) ) {
+        String methodName = pickName( getConfigName( element.getSimpleName().toString() ), element.getAnnotation( Alias.class ) );
+        List<? extends VariableElement> params = element.getParameters();
+        for( int i=0; i<params.size(); i++ ) {
+          VariableElement param = params.get( i );
+          Default def = param.getAnnotation( Default.class );
+          appendConverter( converters, converter, param.asType() );
+          src.append( "    Object m" ).append( method ).append( "a" ).append( i ).append( " = getArgumentValue( target, " )
+              .append( quote( pickName( methodName, param.getAnnotation( Alias.class ) ) ) ).append( ", " )
+              .append( erasure( param.asType() ) ).append( ".class, c" ).append( converter++ ).append( ", " )
+              .append( def != null ? quote( def.value() ) : "null" ).append( ", adapter, binding );\n" );
+        }
+        src.append( "    try {\n" );
+        src.append( "      ((" ).append( owner ).append( ")target)." ).append( element.getSimpleName() ).append( "(" );
+        for( int i=0; i<params.size(); i++ ) {
+          src.append( i > 0 ? ", " : " " ).append( "(" ).append( erasure( params.get( i ).asType() ) ).append( ")m" )
+              .append( method ).append( "a" ).append( i );
+        }
+        src.append( params.isEmpty() ? ");\n" : " );\n" );
+        src.append( "    } catch( Throwable e ) {\n" );
+        src.append( "      throw methodFailure( target, " ).append( quote( methodName ) ).append( ", e, adapter, binding" );
+        for( VariableElement param : params ) {
+          src.append( ", " ).append( quote( pickName( methodName, param.getAnnotation( Alias.class ) ) ) );
+        }
+        src.append( " );\n" );
+        src.append( "    }\n" );
+        method++;
+      }
+    }
+    src.append( "  }\n\n}\n" );
+    src = head.append( converters ).append( converters.length() > 0 ? "\n" : "" ).append( src );
+    String fileName = pkg.length() > 0 ? pkg + "." + simpleName : simpleName;
+    try {
+      Writer writer = processingEnv.getFiler().createSourceFile( fileName, type ).openWriter();
+      try {
+        writer.write( src.toString() );
+      } finally {
+        writer.close();
+      }
+    } catch( IOException e ) {
+      processingEnv.getMessager().printMessage( Diagnostic.Kind.ERROR, String.format(
+          "Failed to generate configuration injector %s: %s", fileName, e.getMessage() ), type );
+    }
+  }
+
+  // The target class first followed by its superclasses, matching the runtime injection order.
+  private List<TypeElement> getHierarchy( TypeElement type ) {
+    List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+    TypeElement current = type;
+    while( current != null && !current.getQualifiedName().contentEquals( "java.lang.Object" ) ) {
+      hierarchy.add( current );
+      TypeMirror superType = current.getSuperclass();
+      current = superType.getKind() == TypeKind.DECLARED ? (TypeElement)( (DeclaredType)superType ).asElement() : null;
+    }
+    return hierarchy;
+  }
+
+  private List<VariableElement> getConfigurableFields( TypeElement type ) {
+    List<VariableElement> fields = new ArrayList<VariableElement>();
+    for( VariableElement field : ElementFilter.fieldsIn( type.getEnclosedElements() ) ) {
+      if( field.getAnnotation( Configure.class ) != null ) {
+        fields.add( field );
+      }
+    }
+    return fields;
+  }
+
+  private List<ExecutableElement> getConfigurableMethods( TypeElement type ) {
+    List<ExecutableElement> methods = new ArrayList<ExecutableElement>();
+    for( ExecutableElement method : ElementFilter.methodsIn( type.getEnclosedElements() ) ) {
+      if( method.getAnnotation( Configure.class ) != null ) {
+        methods.add( method );
+      }
+    }
+    return methods;
+  }
+
+  // Converters are resolved once when the generated class is initialized rather than per injected member.
+  private void appendConverter( StringBuilder converters, int index, TypeMirror type ) {
+    converters.append( "  private static final net.minder.config.ConfigurationConverter<?> c" ).append( index )
+        .append( " = converter( " ).append( erasure( type ) ).append( ".class );\n" );
+  }
+
+  // Matches the runtime rule: a class type with configurable members of its own is injected as a nested object.
+  private boolean isConfigurable( TypeMirror type ) {
+    if( type.getKind() != TypeKind.DECLARED ) {
+      return false;
+    }
+    TypeElement element = (TypeElement)( (DeclaredType)type ).asElement();
+    if( element.getKind() != ElementKind.CLASS || element.getQualifiedName().toString().startsWith( "java." ) ) {
+      return false;
+    }
+    for( TypeElement current : getHierarchy( element ) ) {
+      if( !getConfigurableFields( current ).isEmpty() || !getConfigurableMethods( current ).isEmpty() ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isAccessible( Element member, TypeElement owner, String pkg ) {
+    Set<Modifier> modifiers = member.getModifiers();
+    if( modifiers.contains( Modifier.PRIVATE ) ) {
+      return false;
+    }
+    if( getPackage( owner ).equals( pkg ) ) {
+      return isAccessible( owner, pkg );
+    }
+    return modifiers.contains( Modifier.PUBLIC ) && isAccessible( owner, pkg );
+  }
+
+  private boolean isAccessible( TypeMirror type, String pkg ) {
+    while( type.getKind() == TypeKind.ARRAY ) {
+      type = ( (ArrayType)type ).getComponentType();
+    }
+    if( type.getKind().isPrimitive() ) {
+      return true;
+    }
+    if( type.getKind() == TypeKind.TYPEVAR ) {
+      type = processingEnv.getTypeUtils().erasure( type );
+    }
+    if( type.getKind() != TypeKind.DECLARED ) {
+      return false;
+    }
+    return isAccessible( (TypeElement)( (DeclaredType)type ).asElement(), pkg );
+  }
+
+  private boolean isAccessible( TypeElement type, String pkg ) {
+    boolean samePackage = getPackage( type ).equals( pkg );
+    Element current = type;
+    while( current instanceof TypeElement ) {
+      TypeElement currentType = (TypeElement)current;
+      NestingKind nesting = currentType.getNestingKind();
+      if( nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS ) {
+        return false;
+      }
+      Set<Modifier> modifiers = currentType.getModifiers();
+      if( modifiers.contains( Modifier.PRIVATE ) || ( !samePackage && !modifiers.contains( Modifier.PUBLIC ) ) ) {
+        return false;
+      }
+      current = current.getEnclosingElement();
+    }
+    return true;
+  }
+
+  private String getPackage( Element element ) {
+    PackageElement pkg = processingEnv.getElementUtils().getPackageOf( element );
+    return pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+  }
+
+  private String erasure( TypeMirror type ) {
+    return processingEnv.getTypeUtils().erasure( type ).toString();
+  }
+
+  private static String quote( String value ) {
+    StringBuilder quoted = new StringBuilder( value.length() + 2 );
+    quoted.append( '"' );
+    for( int i=0; i<value.length(); i++ ) {
+      char c = value.charAt( i );
+      switch( c ) {
+        case '"': quoted.append( "\\\"" ); break;
+        case '\\': quoted.append( "\\\\" ); break;
+        case '\n': quoted.append( "\\n" ); break;
+        case '\r': quoted.append( "\\r" ); break;
+        case '\t': quoted.append( "\\t" ); break;
+        default:
+          if( c < 0x20 || c > 0x7e ) {
+            quoted.append( String.format( "\\u%04x", (int)c ) );
+          } else {
+            quoted.append( c );
+          }
+      }
+    }
+    quoted.append( '"' );
+    return quoted.toString();
+  }
+
+  // Mirrors the naming rules of the runtime injection plans.
+  private static String pickName( String implied, Alias explicit ) {
+    String name = implied;
+    if( explicit != null ) {
+      String tagValue = explicit.value().trim();
+      if( tagValue.length() > 0 ) {
+        name = tagValue;
+      }
+    }
+    return name;
+  }
+
+  private static String getConfigName( String methodName ) {
+    String name = "";
+    if( methodName.length() > 3 &&
+        methodName.startsWith( "set" ) &&
+        Character.isUpperCase( methodName.charAt( 3 ) ) ) {
+      name = Character.toLowerCase( methodName.charAt( 3 ) ) + methodName.substring( 4 );
+    }
+    return name;
+  }
+
+}
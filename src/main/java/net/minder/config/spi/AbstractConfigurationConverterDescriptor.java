@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.spi;
+
+import net.minder.config.ConfigurationConverter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public abstract class AbstractConfigurationConverterDescriptor implements ConfigurationConverterDescriptor {
+
+  private Map<Class<?>, ConfigurationConverter<?>> converters = new HashMap<Class<?>, ConfigurationConverter<?>>();
+
+  protected AbstractConfigurationConverterDescriptor() {
+  }
+
+  protected <T> void add( Class<T> type, ConfigurationConverter<? extends T> converter ) {
+    converters.put( type, converter );
+  }
+
+  @Override
+  public Map<Class<?>, ConfigurationConverter<?>> providedConfigurationConverters() {
+    return converters;
+  }
+
+}
@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.spi;
+
+/**
+ * Observes the work done while configuring a target, for example to collect timing metrics.
+ * Names are the configuration names after binding.
+ * Calls are made on the injecting thread so implementations must be thread safe and cheap.
+ */
+public interface ConfigurationInjectionListener {
+
+  ConfigurationInjectionListener NONE = new ConfigurationInjectionListener() {
+  };
+
+  /**
+   * Called once a target has been configured, or has failed to be, with its number of configurable members.
+   */
+  default void injected( Class<?> type, int members, long nanos ) {
+  }
+
+  /**
+   * Called for each lookup of the source.
+   * Values fetched together in a single batch call report an equal share of the batch time.
+   */
+  default void lookedUp( String name, boolean found, long nanos ) {
+  }
+
+  default void converted( String name, Class<?> type, long nanos ) {
+  }
+
+  /**
+   * Called when a method parameter's @Default value is used because the source has no value.
+   */
+  default void defaulted( String name ) {
+  }
+
+  /**
+   * Called when an optional field is left unchanged because the source has no value.
+   */
+  default void missed( String name ) {
+  }
+
+  /**
+   * Called with the bound name of a value whose member could not be injected.  A method that fails when called is
+   * reported once for each of its arguments.
+   */
+  default void failed( String name, Throwable cause ) {
+  }
+
+}
@@ -20,8 +20,72 @@ package net.minder.config.spi;
 import net.minder.config.ConfigurationAdapter;
 import net.minder.config.ConfigurationBinding;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 public interface ConfigurationInjector {
 
   void configure( Object target, ConfigurationAdapter adapter, ConfigurationBinding binding );
 
+  /**
+   * Computes whatever the injector caches for a type ahead of its first injection.
+   */
+  default void prepare( Class<?> type ) {
+  }
+
+  /**
+   * Configures a target while reporting to the listener.
+   * Implementations that can't report individual lookups only report the time taken for the whole target.
+   */
+  default void configure( Object target, ConfigurationAdapter adapter, ConfigurationBinding binding, ConfigurationInjectionListener listener ) {
+    long start = System.nanoTime();
+    try {
+      configure( target, adapter, binding );
+    } finally {
+      listener.injected( target.getClass(), 0, System.nanoTime() - start );
+    }
+  }
+
+  /**
+   * Configures a target asynchronously.  Implementations may fetch the values concurrently on the executor,
+   * or on an executor of their choosing when it is null, before injecting them.
+   */
+  default CompletableFuture<Void> configureAsync( Object target, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor ) {
+    return executor == null
+        ? CompletableFuture.runAsync( () -> configure( target, adapter, binding ) )
+        : CompletableFuture.runAsync( () -> configure( target, adapter, binding ), executor );
+  }
+
+  /**
+   * Configures a target asynchronously while reporting to the listener.
+   */
+  default CompletableFuture<Void> configureAsync(
+      Object target, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor,
+      ConfigurationInjectionListener listener ) {
+    return executor == null
+        ? CompletableFuture.runAsync( () -> configure( target, adapter, binding, listener ) )
+        : CompletableFuture.runAsync( () -> configure( target, adapter, binding, listener ), executor );
+  }
+
+  /**
+   * Configures many targets from the same source.
+   * Implementations may spread the work over the executor and share fetched values between the targets.
+   */
+  default void configureAll( Iterable<?> targets, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor ) {
+    for( Object target : targets ) {
+      configure( target, adapter, binding );
+    }
+  }
+
+  /**
+   * Configures many targets from the same source while reporting each target's injection to the listener.
+   */
+  default void configureAll(
+      Iterable<?> targets, ConfigurationAdapter adapter, ConfigurationBinding binding, Executor executor,
+      ConfigurationInjectionListener listener ) {
+    for( Object target : targets ) {
+      configure( target, adapter, binding, listener );
+    }
+  }
+
 }
@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config;
+
+import net.minder.config.impl.InjectionMetrics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class PreparedInjectionTest {
+
+  public static class Request {
+    @Configure
+    String host;
+    @Configure
+    int port;
+    @Configure
+    @Optional
+    String user = "anonymous";
+  }
+
+  private static Map<String,Object> config() {
+    Map<String,Object> config = new HashMap<String,Object>();
+    config.put( "host", "localhost" );
+    config.put( "server.port", "8080" );
+    config.put( "port", "80" );
+    return config;
+  }
+
+  @Test
+  public void testPreparedInjection() {
+    PreparedInjection<Request> injection = configuration().forType( Request.class ).source( config() ).prepare();
+    assertThat( injection.getType().equals( Request.class ), is( true ) );
+    for( int i=0; i<3; i++ ) {
+      Request request = new Request();
+      injection.inject( request );
+      assertThat( request.host, is( "localhost" ) );
+      assertThat( request.port, is( 80 ) );
+      assertThat( request.user, is( "anonymous" ) );
+    }
+  }
+
+  @Test
+  public void testBindOverridesBinding() {
+    PreparedInjection<Request> injection = configuration().forType( Request.class )
+        .source( config() ).binding( name -> name.equals( "host" ) ? "missing" : null ).bind( "port", "server.port" ).prepare();
+    Request request = new Request();
+    try {
+      injection.inject( request );
+      fail( "Expected ConfigurationException" );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( "missing" ) );
+    }
+    injection = configuration().forType( Request.class ).source( config() ).bind( "port", "server.port" ).prepare();
+    injection.inject( request );
+    assertThat( request.port, is( 8080 ) );
+  }
+
+  @Test
+  public void testBuilderSettingsCarryOver() {
+    InjectionMetrics metrics = new InjectionMetrics();
+    PreparedInjection<Request> injection = configuration().source( config() ).listener( metrics )
+        .forType( Request.class ).prepare();
+    injection.inject( new Request() );
+    assertThat( metrics.getTypeMetrics( Request.class ).getTime().getCount(), is( 1L ) );
+  }
+
+  @Test
+  public void testInjectAllReportsToListener() {
+    InjectionMetrics metrics = new InjectionMetrics();
+    PreparedInjection<Request> injection = configuration().forType( Request.class )
+        .source( config() ).listener( metrics ).prepare();
+    List<Request> requests = new ArrayList<Request>();
+    for( int i=0; i<10; i++ ) {
+      requests.add( new Request() );
+    }
+    injection.injectAll( requests );
+    assertThat( requests.get( 9 ).port, is( 80 ) );
+    assertThat( metrics.getTypeMetrics( Request.class ).getTime().getCount(), is( 10L ) );
+  }
+
+  @Test
+  public void testPrepareWithoutSource() {
+    try {
+      configuration().forType( Request.class ).prepare();
+      fail( "Expected ConfigurationException" );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( Request.class.getName() ) );
+    }
+  }
+
+  @Test
+  public void testSharedBetweenThreads() throws Exception {
+    final PreparedInjection<Request> injection = configuration().forType( Request.class ).source( config() ).prepare();
+    ExecutorService pool = Executors.newFixedThreadPool( 4 );
+    try {
+      List<Future<Request>> results = new ArrayList<Future<Request>>();
+      for( int i=0; i<100; i++ ) {
+        results.add( pool.submit( () -> {
+          Request request = new Request();
+          injection.inject( request );
+          return request;
+        } ) );
+      }
+      for( Future<Request> result : results ) {
+        assertThat( result.get().port, is( 80 ) );
+      }
+    } finally {
+      pool.shutdown();
+    }
+    List<Request> requests = new ArrayList<Request>();
+    for( int i=0; i<10; i++ ) {
+      requests.add( new Request() );
+    }
+    injection.injectAll( requests );
+    assertThat( requests.get( 9 ).host, is( "localhost" ) );
+  }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.Alias;
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class AccessStrategyTest {
+
+  public static class Target {
+    @Configure
+    private String stringField;
+
+    @Configure
+    private int intField;
+
+    private long sum;
+
+    @Configure
+    private void setSum( @Alias("first") int first, @Alias("second") Long second ) {
+      sum = first + second;
+    }
+  }
+
+  public static class FailingTarget {
+    @Configure
+    public void setValue( String value ) {
+      throw new IllegalStateException( value );
+    }
+  }
+
+  private static Map<String,String> config() {
+    Map<String,String> config = new HashMap<String,String>();
+    config.put( "stringField", "stringValue" );
+    config.put( "intField", "42" );
+    config.put( "first", "1" );
+    config.put( "second", "2" );
+    config.put( "value", "failure" );
+    return config;
+  }
+
+  @After
+  public void clearProperty() {
+    System.clearProperty( AccessStrategy.PROPERTY );
+  }
+
+  @Test
+  public void testStrategies() {
+    for( AccessStrategy strategy : AccessStrategy.values() ) {
+      Target target = new Target();
+      DefaultConfigurationInjector injector = new DefaultConfigurationInjector( strategy );
+      injector.configure( target, new MapConfigurationAdapter( config() ), new DefaultConfigurationBinding() );
+      assertThat( target.stringField, is( "stringValue" ) );
+      assertThat( target.intField, is( 42 ) );
+      assertThat( target.sum, is( 3L ) );
+    }
+  }
+
+  @Test
+  public void testSetterFailureIsWrapped() {
+    for( AccessStrategy strategy : AccessStrategy.values() ) {
+      DefaultConfigurationInjector injector = new DefaultConfigurationInjector( strategy );
+      try {
+        injector.configure( new FailingTarget(), new MapConfigurationAdapter( config() ), new DefaultConfigurationBinding() );
+        fail( "Expected setter failure to be reported." );
+      } catch( ConfigurationException e ) {
+        assertThat( e.getCause(), instanceOf( Exception.class ) );
+      }
+    }
+  }
+
+  @Test
+  public void testDefaultFromProperty() {
+    assertThat( AccessStrategy.getDefault(), is( AccessStrategy.METHOD_HANDLES ) );
+    System.setProperty( AccessStrategy.PROPERTY, "reflection" );
+    assertThat( new DefaultConfigurationInjector().getAccessStrategy(), is( AccessStrategy.REFLECTION ) );
+  }
+
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import net.minder.config.spi.ConfigurationInjector;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.fail;
+
+public class AsyncInjectionTest {
+
+  public static class Target {
+    @Configure
+    private String host;
+    @Configure
+    private int port;
+    @Configure
+    private String user;
+
+    private String password;
+
+    @Configure
+    public void setPassword( String password ) {
+      this.password = password;
+    }
+  }
+
+  // Only answers once every lookup is in flight, so the injection completes only if they run concurrently.
+  private static class ConcurrentAdapter implements ConfigurationAdapter {
+    private final Map<String,String> config = new HashMap<String,String>();
+    private final CountDownLatch started;
+
+    ConcurrentAdapter( int lookups ) {
+      config.put( "host", "localhost" );
+      config.put( "port", "8080" );
+      config.put( "user", "admin" );
+      config.put( "password", "secret" );
+      started = new CountDownLatch( lookups );
+    }
+
+    @Override
+    public String getConfigurationValue( String name ) {
+      started.countDown();
+      try {
+        if( !started.await( 10, TimeUnit.SECONDS ) ) {
+          throw new IllegalStateException( "Lookups were not concurrent" );
+        }
+      } catch( InterruptedException e ) {
+        throw new IllegalStateException( e );
+      }
+      return config.get( name );
+    }
+  }
+
+  @Test
+  public void testLookupsRunConcurrently() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool( 4 );
+    try {
+      ConfigurationInjector[] injectors = { new DefaultConfigurationInjector(), new CompiledConfigurationInjector() };
+      for( ConfigurationInjector injector : injectors ) {
+        Target target = new Target();
+        injector.configureAsync( target, new ConcurrentAdapter( 4 ), new DefaultConfigurationBinding(), executor )
+            .get( 30, TimeUnit.SECONDS );
+        assertThat( target.host, is( "localhost" ) );
+        assertThat( target.port, is( 8080 ) );
+        assertThat( target.user, is( "admin" ) );
+        assertThat( target.password, is( "secret" ) );
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDefaultExecutor() throws Exception {
+    Target target = new Target();
+    configuration().target( target ).source( new ConcurrentAdapter( 4 ) ).injectAsync().get( 30, TimeUnit.SECONDS );
+    assertThat( target.password, is( "secret" ) );
+  }
+
+  @Test
+  public void testListenerSeesFetchedLookups() throws Exception {
+    final List<String> found = new CopyOnWriteArrayList<String>();
+    final AtomicInteger injected = new AtomicInteger();
+    Target target = new Target();
+    configuration().target( target ).source( new ConcurrentAdapter( 4 ) ).listener( new ConfigurationInjectionListener() {
+      @Override
+      public void injected( Class<?> type, int members, long nanos ) {
+        injected.incrementAndGet();
+      }
+      @Override
+      public void lookedUp( String name, boolean present, long nanos ) {
+        if( present ) {
+          found.add( name );
+        }
+      }
+    } ).injectAsync().get( 30, TimeUnit.SECONDS );
+    assertThat( target.password, is( "secret" ) );
+    assertThat( injected.get(), is( 1 ) );
+    assertThat( found.size(), is( 4 ) );
+  }
+
+  @Test
+  public void testMissingValueFailsFuture() throws Exception {
+    Map<String,String> config = new HashMap<String,String>();
+    config.put( "host", "localhost" );
+    try {
+      configuration().target( new Target() ).source( config ).injectAsync().get( 30, TimeUnit.SECONDS );
+      fail( "Expected ExecutionException" );
+    } catch( ExecutionException e ) {
+      assertThat( e.getCause(), instanceOf( ConfigurationException.class ) );
+      assertThat( e.getCause().getMessage(), containsString( MapConfigurationAdapter.class.getName() ) );
+    }
+  }
+
+}
@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import net.minder.config.spi.ConfigurationInjector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.fail;
+
+public class BatchInjectionTest {
+
+  public static class Target {
+    @Configure
+    private String name;
+    @Configure
+    private int size;
+    @Configure
+    private BigDecimal rate;
+    @Configure
+    private String[] tags;
+  }
+
+  public static class Other {
+    @Configure
+    private String name;
+    @Configure
+    private String missing;
+  }
+
+  private static class CountingAdapter implements ConfigurationAdapter {
+    final Map<String,String> config = new HashMap<String,String>();
+    final Map<String,AtomicInteger> lookups = new ConcurrentHashMap<String,AtomicInteger>();
+
+    CountingAdapter() {
+      config.put( "name", "worker" );
+      config.put( "size", "16" );
+      config.put( "rate", "0.25" );
+      config.put( "tags", "a,b" );
+    }
+
+    @Override
+    public String getConfigurationValue( String name ) {
+      lookups.computeIfAbsent( name, key -> new AtomicInteger() ).incrementAndGet();
+      return config.get( name );
+    }
+  }
+
+  private static class CountingBatchAdapter extends CountingAdapter {
+    final AtomicInteger batches = new AtomicInteger();
+
+    @Override
+    public Map<String,String> getConfigurationValues( Collection<String> names ) {
+      batches.incrementAndGet();
+      return super.getConfigurationValues( names );
+    }
+  }
+
+  private ExecutorService executor;
+
+  @Before
+  public void createExecutor() {
+    executor = Executors.newFixedThreadPool( 4 );
+  }
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  private static List<Target> targets( int count ) {
+    List<Target> targets = new ArrayList<Target>();
+    for( int i=0; i<count; i++ ) {
+      targets.add( new Target() );
+    }
+    return targets;
+  }
+
+  @Test
+  public void testValuesAreFetchedAndConvertedOncePerBatch() {
+    ConfigurationInjector[] injectors = { new DefaultConfigurationInjector(), new CompiledConfigurationInjector() };
+    for( ConfigurationInjector injector : injectors ) {
+      CountingAdapter adapter = new CountingAdapter();
+      List<Target> targets = targets( 500 );
+      injector.configureAll( targets, adapter, new DefaultConfigurationBinding(), executor );
+      for( Target target : targets ) {
+        assertThat( target.name, is( "worker" ) );
+        assertThat( target.size, is( 16 ) );
+        assertThat( target.rate, sameInstance( targets.get( 0 ).rate ) );
+        assertThat( Arrays.asList( target.tags ), is( Arrays.asList( "a", "b" ) ) );
+      }
+      assertThat( targets.get( 1 ).tags, not( sameInstance( targets.get( 0 ).tags ) ) );
+      for( AtomicInteger count : adapter.lookups.values() ) {
+        assertThat( count.get(), is( 1 ) );
+      }
+    }
+  }
+
+  @Test
+  public void testBatchingSourceIsFetchedOnce() {
+    CountingBatchAdapter adapter = new CountingBatchAdapter();
+    List<Object> targets = new ArrayList<Object>( targets( 100 ) );
+    adapter.config.put( "missing", "present" );
+    targets.add( new Other() );
+    configuration().source( adapter ).injectAll( targets, executor );
+    assertThat( adapter.batches.get(), is( 1 ) );
+    assertThat( ((Other)targets.get( 100 )).missing, is( "present" ) );
+    for( AtomicInteger count : adapter.lookups.values() ) {
+      assertThat( count.get(), is( 1 ) );
+    }
+  }
+
+  @Test
+  public void testListenerSeesEveryTarget() {
+    final AtomicInteger injected = new AtomicInteger();
+    final AtomicInteger found = new AtomicInteger();
+    configuration().source( new CountingAdapter() ).listener( new ConfigurationInjectionListener() {
+      @Override
+      public void injected( Class<?> type, int members, long nanos ) {
+        injected.incrementAndGet();
+      }
+      @Override
+      public void lookedUp( String name, boolean present, long nanos ) {
+        if( present ) {
+          found.incrementAndGet();
+        }
+      }
+    } ).injectAll( targets( 100 ), executor );
+    assertThat( injected.get(), is( 100 ) );
+    assertThat( found.get(), is( 400 ) );
+  }
+
+  @Test
+  public void testFailureIsReported() {
+    List<Object> targets = new ArrayList<Object>( targets( 100 ) );
+    targets.add( 50, new Other() );
+    try {
+      configuration().source( new CountingAdapter() ).injectAll( targets );
+      fail( "Expected ConfigurationException" );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( "Failed to find configuration for missing" ) );
+      assertThat( e.getMessage(), containsString( CountingAdapter.class.getName() ) );
+    }
+  }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.Alias;
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import net.minder.config.Optional;
+import net.minder.config.spi.ConfigurationInjector;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.fail;
+
+public class BatchRetrievalTest {
+
+  public static class Base {
+    @Configure
+    private String baseField;
+  }
+
+  public static class Target extends Base {
+    @Configure
+    private int intField;
+
+    @Configure
+    @Optional
+    private String optionalField = "unchanged";
+
+    private String host;
+    private int port;
+
+    @Configure
+    private void setAddress( @Alias("host") String host, @Alias("port") int port ) {
+      this.host = host;
+      this.port = port;
+    }
+  }
+
+  // Counts batch calls and fails on single lookups.
+  private static class BatchAdapter implements ConfigurationAdapter {
+    private final Map<String,String> config;
+    private final List<Collection<String>> batches = new ArrayList<Collection<String>>();
+
+    BatchAdapter( Map<String,String> config ) {
+      this.config = config;
+    }
+
+    @Override
+    public String getConfigurationValue( String name ) {
+      throw new AssertionError( "Single lookup of " + name );
+    }
+
+    @Override
+    public Map<String,String> getConfigurationValues( Collection<String> names ) {
+      batches.add( new ArrayList<String>( names ) );
+      Map<String,String> values = new HashMap<String,String>();
+      for( String name : names ) {
+        if( config.containsKey( name ) ) {
+          values.put( name, config.get( name ) );
+        }
+      }
+      return values;
+    }
+  }
+
+  private static Map<String,String> config() {
+    Map<String,String> config = new HashMap<String,String>();
+    config.put( "base.field", "baseValue" );
+    config.put( "intField", "42" );
+    config.put( "host", "localhost" );
+    config.put( "port", "8080" );
+    return config;
+  }
+
+  private static MappedConfigurationBinding binding() {
+    MappedConfigurationBinding binding = new MappedConfigurationBinding();
+    binding.bind( "baseField", "base.field" );
+    return binding;
+  }
+
+  @Test
+  public void testSingleBatchPerTarget() {
+    ConfigurationInjector[] injectors = { new DefaultConfigurationInjector(), new CompiledConfigurationInjector() };
+    for( ConfigurationInjector injector : injectors ) {
+      BatchAdapter adapter = new BatchAdapter( config() );
+      Target target = new Target();
+      injector.configure( target, adapter, binding() );
+      assertThat( adapter.batches.size(), is( 1 ) );
+      assertThat( adapter.batches.get( 0 ),
+          containsInAnyOrder( "base.field", "intField", "optionalField", "host", "port" ) );
+      assertThat( ((Base)target).baseField, is( "baseValue" ) );
+      assertThat( target.intField, is( 42 ) );
+      assertThat( target.optionalField, is( "unchanged" ) );
+      assertThat( target.host, is( "localhost" ) );
+      assertThat( target.port, is( 8080 ) );
+    }
+  }
+
+  @Test
+  public void testMissingValueNamesSourceAdapter() {
+    Map<String,String> config = config();
+    config.remove( "intField" );
+    try {
+      new DefaultConfigurationInjector().configure( new Target(), new BatchAdapter( config ), binding() );
+      fail( "Expected ConfigurationException" );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( "intField" ) );
+      assertThat( e.getMessage(), containsString( BatchAdapter.class.getName() ) );
+    }
+  }
+
+  @Test
+  public void testDefaultBatchLoops() {
+    ConfigurationAdapter adapter = new MapConfigurationAdapter( config() );
+    List<String> names = new ArrayList<String>();
+    names.add( "host" );
+    names.add( "missing" );
+    Map<String,String> values = adapter.getConfigurationValues( names );
+    assertThat( values.size(), is( 1 ) );
+    assertThat( values.get( "host" ), is( "localhost" ) );
+  }
+
+}
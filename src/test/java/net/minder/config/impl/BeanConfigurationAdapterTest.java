@@ -17,10 +17,14 @@
  */
 package net.minder.config.impl;
 
+import net.minder.config.ConfigurationException;
 import org.junit.Test;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
 
 public class BeanConfigurationAdapterTest {
 
@@ -30,6 +34,33 @@ public class BeanConfigurationAdapterTest {
     };
   }
 
+  public static class Pool {
+    public int getMax() {
+      return 10;
+    }
+    public boolean isEnabled() {
+      return true;
+    }
+  }
+
+  private static class Database {
+    public Pool getPool() {
+      return new Pool();
+    }
+    public Pool getMissing() {
+      return null;
+    }
+    public Object getUntyped() {
+      return new Pool();
+    }
+  }
+
+  public static class Settings {
+    public Database getDb() {
+      return new Database();
+    }
+  }
+
   @Test
   public void test() {
     Bean bean = new Bean();
@@ -37,4 +68,30 @@ public class BeanConfigurationAdapterTest {
     assertThat( adapter.getConfigurationValue( "value" ), is( "beanValue" ) );
   }
 
+  @Test
+  public void testNestedPaths() {
+    BeanConfigurationAdapter adapter = new BeanConfigurationAdapter( new Settings() );
+    for( int i=0; i<2; i++ ) {
+      assertThat( adapter.getConfigurationValue( "db.pool.max" ), is( "10" ) );
+      assertThat( adapter.getTypedValue( "db.pool.max" ), is( (Object)10 ) );
+      assertThat( adapter.getTypedValue( "db.pool.enabled" ), is( (Object)true ) );
+      assertThat( adapter.getConfigurationValue( "db.untyped.max" ), is( "10" ) );
+      assertThat( adapter.getConfigurationValue( "db.missing.max" ), nullValue() );
+      assertThat( adapter.getTypedValue( "db.missing.max" ), nullValue() );
+    }
+  }
+
+  @Test
+  public void testUnknownProperty() {
+    BeanConfigurationAdapter adapter = new BeanConfigurationAdapter( new Settings() );
+    for( int i=0; i<2; i++ ) {
+      try {
+        adapter.getConfigurationValue( "db.pool.min" );
+        fail( "Expected ConfigurationException" );
+      } catch( ConfigurationException e ) {
+        assertThat( e.getMessage(), containsString( "Failed to find property min" ) );
+      }
+    }
+  }
+
 }
@@ -0,0 +1,221 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationException;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CachingConfigurationAdapterTest {
+
+  private static class CountingAdapter implements ConfigurationAdapter {
+    final Map<String,String> values = new ConcurrentHashMap<String,String>();
+    final AtomicInteger lookups = new AtomicInteger();
+    volatile CountDownLatch gate;
+    @Override
+    public String getConfigurationValue( String name ) {
+      lookups.incrementAndGet();
+      if( gate != null ) {
+        try {
+          gate.await( 10, TimeUnit.SECONDS );
+        } catch( InterruptedException e ) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if( "broken".equals( name ) ) {
+        throw new ConfigurationException( "Failed to look up broken" );
+      }
+      if( "fatal".equals( name ) ) {
+        throw new LinkageError( "Failed to look up fatal" );
+      }
+      return values.get( name );
+    }
+  }
+
+  @Test
+  public void testHitsAndNegativeCaching() {
+    CountingAdapter source = new CountingAdapter();
+    source.values.put( "present", "value" );
+    CachingConfigurationAdapter cache = CachingConfigurationAdapter.cache( source ).build();
+    for( int i=0; i<10; i++ ) {
+      assertThat( cache.getConfigurationValue( "present" ), is( "value" ) );
+      assertThat( cache.getConfigurationValue( "absent" ), nullValue() );
+      assertThat( cache.getTypedValue( "absent" ), nullValue() );
+    }
+    assertThat( source.lookups.get(), is( 2 ) );
+    assertThat( cache.getMissCount(), is( 2L ) );
+    assertThat( cache.getHitCount(), is( 28L ) );
+    cache.invalidate( "present" );
+    source.values.put( "present", "changed" );
+    assertThat( cache.getConfigurationValue( "present" ), is( "changed" ) );
+  }
+
+  @Test
+  public void testTimeToLive() {
+    AtomicLong now = new AtomicLong();
+    CountingAdapter source = new CountingAdapter();
+    source.values.put( "name", "first" );
+    CachingConfigurationAdapter cache = CachingConfigurationAdapter.cache( source )
+        .timeToLive( Duration.ofSeconds( 10 ) ).missingTimeToLive( Duration.ofSeconds( 1 ) ).clock( now::get ).build();
+    assertThat( cache.getConfigurationValue( "name" ), is( "first" ) );
+    assertThat( cache.getConfigurationValue( "absent" ), nullValue() );
+    source.values.put( "name", "second" );
+    source.values.put( "absent", "found" );
+    now.set( TimeUnit.SECONDS.toNanos( 2 ) );
+    assertThat( cache.getConfigurationValue( "name" ), is( "first" ) );
+    assertThat( cache.getConfigurationValue( "absent" ), is( "found" ) );
+    now.set( TimeUnit.SECONDS.toNanos( 11 ) );
+    assertThat( cache.getConfigurationValue( "name" ), is( "second" ) );
+  }
+
+  @Test
+  public void testRefreshAhead() {
+    AtomicLong now = new AtomicLong();
+    List<Runnable> tasks = new ArrayList<Runnable>();
+    CountingAdapter source = new CountingAdapter();
+    source.values.put( "name", "first" );
+    CachingConfigurationAdapter cache = CachingConfigurationAdapter.cache( source )
+        .timeToLive( Duration.ofSeconds( 10 ) ).refreshAfter( Duration.ofSeconds( 5 ) )
+        .executor( tasks::add ).clock( now::get ).build();
+    assertThat( cache.getConfigurationValue( "name" ), is( "first" ) );
+    source.values.put( "name", "second" );
+    now.set( TimeUnit.SECONDS.toNanos( 6 ) );
+    assertThat( cache.getConfigurationValue( "name" ), is( "first" ) );
+    assertThat( cache.getConfigurationValue( "name" ), is( "first" ) );
+    assertThat( tasks.size(), is( 1 ) );
+    tasks.get( 0 ).run();
+    assertThat( cache.getConfigurationValue( "name" ), is( "second" ) );
+    assertThat( cache.getRefreshCount(), is( 1L ) );
+    assertThat( source.lookups.get(), is( 2 ) );
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() {
+    CountingAdapter source = new CountingAdapter();
+    CachingConfigurationAdapter cache = CachingConfigurationAdapter.cache( source ).maximumSize( 100 ).build();
+    for( int i=0; i<100; i++ ) {
+      cache.getConfigurationValue( "name" + i );
+    }
+    for( int i=0; i<50; i++ ) {
+      cache.getConfigurationValue( "name" + i );
+    }
+    for( int i=100; i<150; i++ ) {
+      cache.getConfigurationValue( "name" + i );
+    }
+    assertThat( cache.size(), is( 100 ) );
+    assertThat( cache.getEvictionCount(), is( 50L ) );
+    int lookups = source.lookups.get();
+    for( int i=0; i<50; i++ ) {
+      cache.getConfigurationValue( "name" + i );
+    }
+    assertThat( source.lookups.get(), is( lookups ) );
+  }
+
+  @Test
+  public void testConcurrentMissesShareOneLookup() throws Exception {
+    final CountingAdapter source = new CountingAdapter();
+    source.values.put( "slow", "value" );
+    source.gate = new CountDownLatch( 1 );
+    final CachingConfigurationAdapter cache = CachingConfigurationAdapter.cache( source ).build();
+    ExecutorService pool = Executors.newFixedThreadPool( 8 );
+    try {
+      List<Future<String>> results = new ArrayList<Future<String>>();
+      for( int i=0; i<8; i++ ) {
+        results.add( pool.submit( () -> cache.getConfigurationValue( "slow" ) ) );
+      }
+      while( source.lookups.get() == 0 ) {
+        Thread.sleep( 1 );
+      }
+      Thread.sleep( 50 );
+      source.gate.countDown();
+      for( Future<String> result : results ) {
+        assertThat( result.get( 10, TimeUnit.SECONDS ), is( "value" ) );
+      }
+      assertThat( source.lookups.get(), is( 1 ) );
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testErrorsReachWaiters() throws Exception {
+    final CountingAdapter source = new CountingAdapter();
+    source.gate = new CountDownLatch( 1 );
+    final CachingConfigurationAdapter cache = CachingConfigurationAdapter.cache( source ).build();
+    ExecutorService pool = Executors.newFixedThreadPool( 2 );
+    try {
+      List<Future<String>> results = new ArrayList<Future<String>>();
+      for( int i=0; i<2; i++ ) {
+        results.add( pool.submit( () -> cache.getConfigurationValue( "fatal" ) ) );
+      }
+      while( source.lookups.get() == 0 ) {
+        Thread.sleep( 1 );
+      }
+      Thread.sleep( 50 );
+      source.gate.countDown();
+      for( Future<String> result : results ) {
+        try {
+          result.get( 10, TimeUnit.SECONDS );
+          fail( "Expected LinkageError" );
+        } catch( ExecutionException e ) {
+          assertThat( e.getCause() instanceof LinkageError, is( true ) );
+        }
+      }
+      assertThat( source.lookups.get(), is( 1 ) );
+      assertThat( cache.getLoadFailureCount(), is( 1L ) );
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testFailuresAreNotCached() {
+    CountingAdapter source = new CountingAdapter();
+    CachingConfigurationAdapter cache = CachingConfigurationAdapter.cache( source ).build();
+    for( int i=0; i<2; i++ ) {
+      try {
+        cache.getConfigurationValue( "broken" );
+        fail( "Expected ConfigurationException" );
+      } catch( ConfigurationException e ) {
+        assertThat( e.getMessage(), is( "Failed to look up broken" ) );
+      }
+    }
+    assertThat( source.lookups.get(), is( 2 ) );
+    assertThat( cache.getLoadFailureCount(), is( 2L ) );
+  }
+
+}
@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.Alias;
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import net.minder.config.Default;
+import net.minder.config.Optional;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.fail;
+
+public class CompiledConfigurationInjectorTest {
+
+  public static class Base {
+    @Configure
+    private String baseField;
+
+    @Configure
+    @Optional
+    private String optionalField = "unchanged";
+  }
+
+  public static class Target extends Base {
+    @Configure
+    private int intField;
+
+    @Configure
+    @Alias("longValue")
+    protected long longField;
+
+    @Configure
+    private final String finalField = null;
+
+    private String sum;
+
+    @Configure
+    private int setSum( @Alias("first") int first, @Alias("second") Integer second, @Default("!") String suffix ) {
+      sum = ( first + second ) + suffix;
+      return first + second;
+    }
+  }
+
+  public static class FailingTarget {
+    @Configure
+    public void setValue( String value ) {
+      throw new IllegalStateException( value );
+    }
+  }
+
+  private static Map<String,String> config() {
+    Map<String,String> config = new HashMap<String,String>();
+    config.put( "baseField", "baseValue" );
+    config.put( "intField", "42" );
+    config.put( "longValue", "43" );
+    config.put( "finalField", "finalValue" );
+    config.put( "first", "1" );
+    config.put( "second", "2" );
+    config.put( "value", "failure" );
+    return config;
+  }
+
+  private static void configure( CompiledConfigurationInjector injector, Object target ) {
+    injector.configure( target, new MapConfigurationAdapter( config() ), new DefaultConfigurationBinding() );
+  }
+
+  @Test
+  public void testGeneratedInjection() throws Exception {
+    CompiledConfigurationInjector injector = new CompiledConfigurationInjector();
+    Target target = new Target();
+    configure( injector, target );
+    assertThat( injector.isCompiled( Target.class ), is( true ) );
+    assertThat( injector.isCompiled( Base.class ), is( true ) );
+    assertThat( ((Base)target).baseField, is( "baseValue" ) );
+    assertThat( ((Base)target).optionalField, is( "unchanged" ) );
+    assertThat( target.intField, is( 42 ) );
+    assertThat( target.longField, is( 43L ) );
+    assertThat( target.sum, is( "3!" ) );
+    // Final fields can't be assigned by generated code so they go through the default path.
+    assertThat( (String)Target.class.getDeclaredField( "finalField" ).get( target ), is( "finalValue" ) );
+  }
+
+  @Test
+  public void testSetterFailureIsWrapped() {
+    CompiledConfigurationInjector injector = new CompiledConfigurationInjector();
+    try {
+      configure( injector, new FailingTarget() );
+      fail( "Expected setter failure to be reported." );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( "Failed to inject method configuration via value" ) );
+      assertThat( e.getCause(), instanceOf( IllegalStateException.class ) );
+    }
+  }
+
+  @Test
+  public void testMissingRequiredField() {
+    CompiledConfigurationInjector injector = new CompiledConfigurationInjector();
+    Map<String,String> config = config();
+    config.remove( "baseField" );
+    try {
+      injector.configure( new Target(), new MapConfigurationAdapter( config ), new DefaultConfigurationBinding() );
+      fail( "Expected missing configuration to be reported." );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( "Failed to find configuration for baseField" ) );
+    }
+  }
+
+  @Test
+  public void testFailuresAreReported() {
+    CompiledConfigurationInjector injector = new CompiledConfigurationInjector();
+    final List<String> failures = new ArrayList<String>();
+    ConfigurationInjectionListener listener = new ConfigurationInjectionListener() {
+      @Override
+      public void failed( String name, Throwable cause ) {
+        failures.add( name );
+      }
+    };
+    Map<String,String> config = config();
+    config.remove( "baseField" );
+    for( Object target : Arrays.asList( new Target(), new FailingTarget() ) ) {
+      try {
+        injector.configure( target, new MapConfigurationAdapter( config ), new DefaultConfigurationBinding(), listener );
+        fail( "Expected failure to be reported." );
+      } catch( ConfigurationException e ) {
+        // Expected.
+      }
+    }
+    assertThat( failures, is( Arrays.asList( "baseField", "value" ) ) );
+  }
+
+}
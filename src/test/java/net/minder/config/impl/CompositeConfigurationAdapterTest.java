@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.Configure;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+public class CompositeConfigurationAdapterTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static Map<String,Object> map( String... pairs ) {
+    Map<String,Object> map = new HashMap<String,Object>();
+    for( int i=0; i<pairs.length; i+=2 ) {
+      map.put( pairs[ i ], pairs[ i + 1 ] );
+    }
+    return map;
+  }
+
+  @Test
+  public void testLaterLayersOverride() throws Exception {
+    Path file = folder.newFile().toPath();
+    Files.write( file, "host=file\nport=8080\n".getBytes( StandardCharsets.ISO_8859_1 ) );
+    Properties overrides = new Properties();
+    overrides.setProperty( "host", "override" );
+    CompositeConfigurationAdapter composite = new CompositeConfigurationAdapter(
+        map( "host", "default", "port", "80", "user", "guest" ), file, overrides );
+    assertThat( composite.getConfigurationValue( "host" ), is( "override" ) );
+    assertThat( composite.getConfigurationValue( "port" ), is( "8080" ) );
+    assertThat( composite.getConfigurationValue( "user" ), is( "guest" ) );
+    assertThat( composite.getConfigurationValue( "missing" ), nullValue() );
+    assertThat( composite.getTypedValue( "port" ), is( (Object)"8080" ) );
+    assertThat( composite.getTypedValue( "missing" ), nullValue() );
+  }
+
+  @Test
+  public void testMutableLayersAreSeen() {
+    Map<String,Object> overrides = map();
+    CompositeConfigurationAdapter composite = new CompositeConfigurationAdapter(
+        FrozenConfigurationAdapter.freeze( map( "name", "frozen" ) ), overrides );
+    assertThat( composite.getConfigurationValue( "name" ), is( "frozen" ) );
+    overrides.put( "name", "changed" );
+    assertThat( composite.getConfigurationValue( "name" ), is( "changed" ) );
+    assertThat( composite.flatten(), sameInstance( (ConfigurationAdapter)composite ) );
+  }
+
+  @Test
+  public void testFilteredLayersAreSkipped() {
+    final List<String> lookups = new ArrayList<String>();
+    ConfigurationAdapter bottom = new ConfigurationAdapter() {
+      @Override
+      public String getConfigurationValue( String name ) {
+        lookups.add( name );
+        return "bottom";
+      }
+    };
+    Map<String,Object> top = new HashMap<String,Object>();
+    for( int i=0; i<1000; i++ ) {
+      top.put( "top" + i, "value" );
+    }
+    CompositeConfigurationAdapter composite = new CompositeConfigurationAdapter(
+        bottom, FrozenConfigurationAdapter.freeze( top ) );
+    for( int i=0; i<1000; i++ ) {
+      assertThat( composite.getConfigurationValue( "top" + i ), is( "value" ) );
+    }
+    assertThat( lookups.size(), is( 0 ) );
+    for( int i=0; i<1000; i++ ) {
+      assertThat( composite.getConfigurationValue( "other" + i ), is( "bottom" ) );
+    }
+    assertThat( lookups.size(), is( 1000 ) );
+  }
+
+  @Test
+  public void testBloomFilterFalsePositiveRate() {
+    List<String> names = new ArrayList<String>();
+    for( int i=0; i<10000; i++ ) {
+      names.add( "name" + i );
+    }
+    BloomFilter filter = new BloomFilter( names );
+    for( String name : names ) {
+      assertThat( filter.mightContain( BloomFilter.hash( name ) ), is( true ) );
+    }
+    int positives = 0;
+    for( int i=0; i<10000; i++ ) {
+      if( filter.mightContain( BloomFilter.hash( "absent" + i ) ) ) {
+        positives++;
+      }
+    }
+    assertThat( positives, lessThan( 300 ) );
+  }
+
+  @Test
+  public void testFlatten() throws Exception {
+    Path file = folder.newFile().toPath();
+    Files.write( file, "host=file\nport=8080\n".getBytes( StandardCharsets.ISO_8859_1 ) );
+    Map<String,Object> defaults = new HashMap<String,Object>();
+    defaults.put( "retries", 3 );
+    defaults.put( "host", "default" );
+    CompositeConfigurationAdapter composite = new CompositeConfigurationAdapter(
+        FrozenConfigurationAdapter.freeze( defaults ), file,
+        new CompositeConfigurationAdapter( FrozenConfigurationAdapter.freeze( map( "port", "9090" ) ) ) );
+    ConfigurationAdapter flat = composite.flatten();
+    assertThat( flat, instanceOf( FrozenConfigurationAdapter.class ) );
+    assertThat( flat.getConfigurationValue( "host" ), is( "file" ) );
+    assertThat( flat.getConfigurationValue( "port" ), is( "9090" ) );
+    assertThat( flat.getTypedValue( "retries" ), is( (Object)3 ) );
+    assertThat( ((FrozenConfigurationAdapter)flat).size(), is( 3 ) );
+  }
+
+  public static class Target {
+    @Configure
+    private String host;
+    @Configure
+    private int port;
+  }
+
+  @Test
+  public void testInjectFromComposite() {
+    Target target = new Target();
+    configuration().target( target ).source( new CompositeConfigurationAdapter(
+        map( "host", "default", "port", "80" ), map( "port", "8080" ) ) ).inject();
+    assertThat( target.host, is( "default" ) );
+    assertThat( target.port, is( 8080 ) );
+  }
+
+}
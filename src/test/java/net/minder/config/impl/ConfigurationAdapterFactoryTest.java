@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import org.junit.Test;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ConfigurationAdapterFactoryTest {
+
+  // Redeclares Map so a first-match walk of its own interfaces would find Map before Properties.
+  @SuppressWarnings( "serial" )
+  public static class CustomProperties extends Properties implements Map<Object,Object> {
+  }
+
+  public static class CustomMap extends AbstractMap<String,String> {
+    @Override
+    public Set<Entry<String,String>> entrySet() {
+      return Collections.singletonMap( "key", "value" ).entrySet();
+    }
+  }
+
+  @Test
+  public void testMostSpecificAdapter() {
+    assertThat( ConfigurationAdapterFactory.get( new CustomProperties() ), instanceOf( PropertiesConfigurationAdapter.class ) );
+    assertThat( ConfigurationAdapterFactory.get( new HashMap<String,String>() ), instanceOf( MapConfigurationAdapter.class ) );
+    assertThat( ConfigurationAdapterFactory.get( new Object() ), instanceOf( BeanConfigurationAdapter.class ) );
+  }
+
+  @Test
+  public void testInterfaceMatchBeatsObject() {
+    for( int i=0; i<2; i++ ) {
+      ConfigurationAdapter adapter = ConfigurationAdapterFactory.get( new CustomMap() );
+      assertThat( adapter, instanceOf( MapConfigurationAdapter.class ) );
+      assertThat( adapter.getConfigurationValue( "key" ), is( "value" ) );
+    }
+  }
+
+  @Test
+  public void testFindAdapterType() {
+    Map<Class<?>, Class<? extends ConfigurationAdapter>> adapters =
+        new HashMap<Class<?>, Class<? extends ConfigurationAdapter>>();
+    adapters.put( Object.class, BeanConfigurationAdapter.class );
+    adapters.put( Map.class, MapConfigurationAdapter.class );
+    adapters.put( Properties.class, PropertiesConfigurationAdapter.class );
+    assertThat( ConfigurationAdapterFactory.findAdapterTypeForConfigTypeOrParent( adapters, CustomProperties.class ),
+        is( (Object)PropertiesConfigurationAdapter.class ) );
+    assertThat( ConfigurationAdapterFactory.findAdapterTypeForConfigTypeOrParent( adapters, CustomMap.class ),
+        is( (Object)MapConfigurationAdapter.class ) );
+    assertThat( ConfigurationAdapterFactory.findAdapterTypeForConfigTypeOrParent( adapters, String.class ),
+        is( (Object)BeanConfigurationAdapter.class ) );
+    adapters.remove( Object.class );
+    assertThat( ConfigurationAdapterFactory.findAdapterTypeForConfigTypeOrParent( adapters, String.class ),
+        is( (Object)null ) );
+  }
+
+}
@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationConverter;
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import net.minder.config.Default;
+import net.minder.config.spi.AbstractConfigurationConverterDescriptor;
+import org.junit.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ConfigurationConverterFactoryTest {
+
+  public static class Version {
+    final String value;
+    private Version( String value ) {
+      this.value = value;
+    }
+    public static Version valueOf( String value ) {
+      return new Version( value );
+    }
+  }
+
+  public static class Custom {
+    final String value;
+    Custom( String value ) {
+      this.value = value;
+    }
+  }
+
+  // Registered via META-INF/services in the test resources.
+  public static class CustomDescriptor extends AbstractConfigurationConverterDescriptor {
+    public CustomDescriptor() {
+      add( Custom.class, value -> new Custom( "custom:" + value ) );
+    }
+  }
+
+  private static Object convert( Class<?> type, String value ) throws Exception {
+    return ConfigurationConverterFactory.get( type ).convert( value );
+  }
+
+  @Test
+  public void testConvertersAreResolvedOnce() {
+    assertThat( ConfigurationConverterFactory.get( int.class ), sameInstance( ConfigurationConverterFactory.get( int.class ) ) );
+    assertThat( ConfigurationConverterFactory.get( TimeUnit.class ), sameInstance( ConfigurationConverterFactory.get( TimeUnit.class ) ) );
+  }
+
+  @Test
+  public void testBuiltInConverters() throws Exception {
+    assertThat( (Integer)convert( int.class, " 42 " ), is( 42 ) );
+    assertThat( (Long)convert( Long.class, "43" ), is( 43L ) );
+    assertThat( (Double)convert( double.class, "1.5" ), is( 1.5 ) );
+    assertThat( (Boolean)convert( boolean.class, "Yes" ), is( true ) );
+    assertThat( (Boolean)convert( Boolean.class, "off" ), is( false ) );
+    assertThat( (Character)convert( char.class, "xyz" ), is( 'x' ) );
+    assertThat( (URI)convert( URI.class, "http://localhost/" ), is( URI.create( "http://localhost/" ) ) );
+  }
+
+  @Test
+  public void testDurations() throws Exception {
+    assertThat( (Duration)convert( Duration.class, "PT10S" ), is( Duration.ofSeconds( 10 ) ) );
+    assertThat( (Duration)convert( Duration.class, "500ms" ), is( Duration.ofMillis( 500 ) ) );
+    assertThat( (Duration)convert( Duration.class, "2h" ), is( Duration.ofHours( 2 ) ) );
+    assertThat( (Duration)convert( Duration.class, "250" ), is( Duration.ofMillis( 250 ) ) );
+  }
+
+  @Test
+  public void testEnums() throws Exception {
+    assertThat( (TimeUnit)convert( TimeUnit.class, "SECONDS" ), is( TimeUnit.SECONDS ) );
+    assertThat( (TimeUnit)convert( TimeUnit.class, "minutes" ), is( TimeUnit.MINUTES ) );
+    try {
+      convert( TimeUnit.class, "fortnights" );
+      fail( "Expected an invalid enum constant to be rejected." );
+    } catch( IllegalArgumentException e ) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testArrays() throws Exception {
+    int[] ints = (int[])convert( int[].class, "{1, 2,3}" );
+    assertThat( ints.length, is( 3 ) );
+    assertThat( ints[2], is( 3 ) );
+    String[] strings = (String[])convert( String[].class, "a,b" );
+    assertThat( strings[1], is( "b" ) );
+  }
+
+  @Test
+  public void testFactoryMethodAndDescriptorConverters() throws Exception {
+    assertThat( ((Version)convert( Version.class, "1.2" )).value, is( "1.2" ) );
+    assertThat( ((Custom)convert( Custom.class, "x" )).value, is( "custom:x" ) );
+  }
+
+  @Test
+  public void testUnsupportedType() throws Exception {
+    ConfigurationConverter<?> converter = ConfigurationConverterFactory.get( Runnable.class );
+    try {
+      converter.convert( "value" );
+      fail( "Expected an unsupported type to be rejected." );
+    } catch( ConfigurationException e ) {
+      // Expected.
+    }
+  }
+
+  public static class Target {
+    private long value;
+
+    @Configure
+    public void setValue( @Default("7") long value ) {
+      this.value = value;
+    }
+  }
+
+  @Test
+  public void testMissingPrimitiveUsesDefault() {
+    Target target = new Target();
+    configuration().target( target ).source( new HashMap<String,String>() ).inject();
+    assertThat( target.value, is( 7L ) );
+  }
+
+}
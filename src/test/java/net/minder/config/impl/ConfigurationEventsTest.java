@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ConfigurationEventsTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  public static class Target {
+    @Configure
+    private String host;
+    @Configure
+    private Integer port;
+  }
+
+  private List<RecordedEvent> record( Map<String,Object> config ) throws Exception {
+    Path file = folder.newFile( "events.jfr" ).toPath();
+    try( Recording recording = new Recording() ) {
+      recording.enable( "net.minder.config.ConfigInjection" ).withoutThreshold();
+      recording.enable( "net.minder.config.ConfigLookup" ).withoutThreshold();
+      recording.enable( "net.minder.config.ConfigConversion" ).withoutThreshold();
+      recording.start();
+      try {
+        configuration().target( new Target() ).source( config ).inject();
+      } catch( ConfigurationException e ) {
+        // Failures are recorded too.
+      }
+      recording.stop();
+      recording.dump( file );
+    }
+    List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+    for( RecordedEvent event : RecordingFile.readAllEvents( file ) ) {
+      if( event.getEventType().getName().startsWith( "net.minder.config." ) ) {
+        events.add( event );
+      }
+    }
+    return events;
+  }
+
+  private static List<RecordedEvent> named( List<RecordedEvent> events, String name ) {
+    List<RecordedEvent> named = new ArrayList<RecordedEvent>();
+    for( RecordedEvent event : events ) {
+      if( event.getEventType().getName().equals( "net.minder.config." + name ) ) {
+        named.add( event );
+      }
+    }
+    return named;
+  }
+
+  @Test
+  public void testEventsAreRecorded() throws Exception {
+    Map<String,Object> config = new HashMap<String,Object>();
+    config.put( "host", "localhost" );
+    config.put( "port", "8080" );
+    List<RecordedEvent> events = record( config );
+
+    List<RecordedEvent> injections = named( events, "ConfigInjection" );
+    assertThat( injections.size(), is( 1 ) );
+    assertThat( injections.get( 0 ).getClass( "targetClass" ).getName(), is( Target.class.getName() ) );
+    assertThat( injections.get( 0 ).getInt( "memberCount" ), is( 2 ) );
+
+    List<RecordedEvent> lookups = named( events, "ConfigLookup" );
+    assertThat( lookups.size(), is( 2 ) );
+    assertThat( lookups.get( 0 ).getString( "key" ), is( "host" ) );
+    assertThat( lookups.get( 0 ).getBoolean( "found" ), is( true ) );
+    assertThat( lookups.get( 0 ).getClass( "adapterClass" ).getName(), is( MapConfigurationAdapter.class.getName() ) );
+
+    List<RecordedEvent> conversions = named( events, "ConfigConversion" );
+    assertThat( conversions.size(), is( 2 ) );
+    assertThat( conversions.get( 1 ).getString( "key" ), is( "port" ) );
+    assertThat( conversions.get( 1 ).getClass( "targetType" ).getName(), is( Integer.class.getName() ) );
+    assertThat( conversions.get( 1 ).getString( "failure" ), is( (String)null ) );
+  }
+
+  @Test
+  public void testConversionFailureIsRecorded() throws Exception {
+    Map<String,Object> config = new HashMap<String,Object>();
+    config.put( "host", "localhost" );
+    config.put( "port", "not a number" );
+    List<RecordedEvent> conversions = named( record( config ), "ConfigConversion" );
+    assertThat( conversions.size(), is( 2 ) );
+    assertThat( conversions.get( 1 ).getString( "failure" ).contains( "NumberFormatException" ), is( true ) );
+  }
+
+  @Test
+  public void testNothingIsObservedWithoutRecording() {
+    assertThat( ConfigurationEvents.isEnabled(), is( false ) );
+    try {
+      configuration().target( new Target() ).source( new HashMap<String,Object>() ).inject();
+      fail( "Expected ConfigurationException" );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage().contains( MapConfigurationAdapter.class.getName() ), is( true ) );
+    }
+  }
+
+}
@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.Configure;
+import net.minder.config.spi.ConfigurationChangeListener;
+import net.minder.config.spi.ObservableConfigurationAdapter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ConfigurationRegistryTest {
+
+  public static class Target {
+    int hostCalls;
+    int portCalls;
+    String host;
+    int port;
+
+    @Configure
+    String timeout;
+
+    @Configure
+    public void setHost( String host ) {
+      this.host = host;
+      hostCalls++;
+    }
+
+    @Configure
+    public void setPort( int port ) {
+      this.port = port;
+      portCalls++;
+    }
+  }
+
+  private static class ObservableMapAdapter implements ObservableConfigurationAdapter {
+    private final Map<String,String> config = new ConcurrentHashMap<String,String>();
+    private final List<ConfigurationChangeListener> listeners = new CopyOnWriteArrayList<ConfigurationChangeListener>();
+
+    ObservableMapAdapter() {
+      config.put( "server.host", "localhost" );
+      config.put( "port", "80" );
+      config.put( "timeout", "5s" );
+    }
+
+    void put( String name, String value ) {
+      config.put( name, value );
+      for( ConfigurationChangeListener listener : listeners ) {
+        listener.configurationChanged( Collections.singleton( name ) );
+      }
+    }
+
+    @Override
+    public String getConfigurationValue( String name ) {
+      return config.get( name );
+    }
+
+    @Override
+    public void addConfigurationChangeListener( ConfigurationChangeListener listener ) {
+      listeners.add( listener );
+    }
+
+    @Override
+    public void removeConfigurationChangeListener( ConfigurationChangeListener listener ) {
+      listeners.remove( listener );
+    }
+  }
+
+  private static MappedConfigurationBinding binding() {
+    MappedConfigurationBinding binding = new MappedConfigurationBinding();
+    binding.bind( "host", "server.host" );
+    return binding;
+  }
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testOnlyAffectedMembersAreInjected() {
+    ObservableMapAdapter source = new ObservableMapAdapter();
+    ConfigurationRegistry registry = new ConfigurationRegistry( source );
+    Target target = new Target();
+    registry.register( target, binding() );
+    assertThat( target.hostCalls, is( 1 ) );
+    assertThat( target.portCalls, is( 1 ) );
+
+    source.put( "server.host", "remotehost" );
+    assertThat( target.host, is( "remotehost" ) );
+    assertThat( target.hostCalls, is( 2 ) );
+    assertThat( target.portCalls, is( 1 ) );
+
+    source.put( "timeout", "10s" );
+    source.put( "unrelated", "value" );
+    assertThat( target.timeout, is( "10s" ) );
+    assertThat( target.hostCalls, is( 2 ) );
+    assertThat( target.portCalls, is( 1 ) );
+
+    registry.unregister( target );
+    source.put( "port", "8080" );
+    assertThat( target.port, is( 80 ) );
+    assertThat( registry.getRegisteredCount(), is( 0 ) );
+    registry.close();
+  }
+
+  public static class DbConfig {
+    @Configure
+    String url;
+  }
+
+  public static class Service {
+    @Configure
+    DbConfig db;
+  }
+
+  @Test
+  public void testNestedMembersAreInjected() {
+    ObservableMapAdapter source = new ObservableMapAdapter();
+    source.put( "db.url", "jdbc:h2:mem" );
+    ConfigurationRegistry registry = new ConfigurationRegistry( source );
+    Service service = new Service();
+    registry.register( service, null );
+    DbConfig db = service.db;
+    assertThat( db.url, is( "jdbc:h2:mem" ) );
+
+    source.put( "db.url", "jdbc:h2:file" );
+    assertThat( service.db.url, is( "jdbc:h2:file" ) );
+    assertThat( service.db == db, is( true ) );
+    registry.close();
+  }
+
+  @Test
+  public void testTargetsAreHeldWeakly() throws InterruptedException {
+    ObservableMapAdapter source = new ObservableMapAdapter();
+    ConfigurationRegistry registry = new ConfigurationRegistry( source );
+    registry.register( new Target(), binding() );
+    long deadline = System.currentTimeMillis() + 20000;
+    while( registry.getRegisteredCount() > 0 ) {
+      if( System.currentTimeMillis() > deadline ) {
+        fail( "Target was not collected" );
+      }
+      System.gc();
+      Thread.sleep( 10 );
+    }
+    source.put( "port", "8080" );
+  }
+
+  @Test
+  public void testWatchedFileChanges() throws Exception {
+    Path file = folder.newFile( "app.properties" ).toPath();
+    Files.write( file, "server.host=localhost\nport=80\ntimeout=5s\n".getBytes( StandardCharsets.ISO_8859_1 ) );
+    try( WatchedPropertiesConfigurationAdapter source = new WatchedPropertiesConfigurationAdapter( file ) ) {
+      ConfigurationRegistry registry = new ConfigurationRegistry( source );
+      Target target = new Target();
+      registry.register( target, binding() );
+      Files.write( file, "server.host=localhost\nport=8080\ntimeout=5s\n".getBytes( StandardCharsets.ISO_8859_1 ) );
+      Files.setLastModifiedTime( file, FileTime.fromMillis( System.currentTimeMillis() + 5000 ) );
+      source.reload();
+      assertThat( target.port, is( 8080 ) );
+      assertThat( target.portCalls, is( 2 ) );
+      assertThat( target.hostCalls, is( 1 ) );
+    }
+  }
+
+}
@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ConfigurationStatisticsTest {
+
+  public static class Target {
+    @Configure
+    private Integer port;
+  }
+
+  public static class Slow {
+    @Configure
+    private String name;
+  }
+
+  private final ConfigurationStatistics statistics = ConfigurationStatistics.getInstance();
+
+  @Before
+  public void register() {
+    ConfigurationStatistics.register();
+    statistics.resetCounters();
+  }
+
+  @After
+  public void unregister() {
+    ConfigurationStatistics.unregister();
+  }
+
+  private static Map<String,Object> config( String name, String value ) {
+    Map<String,Object> config = new HashMap<String,Object>();
+    config.put( name, value );
+    return config;
+  }
+
+  @Test
+  public void testCounters() throws Exception {
+    for( int i=0; i<5; i++ ) {
+      configuration().target( new Target() ).source( config( "port", "8080" ) ).inject();
+    }
+    Properties properties = new Properties();
+    properties.setProperty( "name", "value" );
+    configuration().target( new Slow() ).source( properties ).inject();
+    try {
+      configuration().target( new Target() ).source( config( "port", "eighty" ) ).inject();
+      fail( "Expected ConfigurationException" );
+    } catch( ConfigurationException e ) {
+      // Expected.
+    }
+    assertThat( statistics.getInjectionCount(), is( 6L ) );
+    assertThat( statistics.getInjectionFailureCount(), is( 1L ) );
+    assertThat( statistics.getInjectionsPerSecond() > 0, is( true ) );
+    assertThat( statistics.getConversionFailureCount(), is( 1L ) );
+    assertThat( statistics.getAdapterResolutions().get( HashMap.class.getName() ), is( 6L ) );
+    assertThat( statistics.getAdapterResolutions().get( Properties.class.getName() ), is( 1L ) );
+    assertThat( statistics.getPlanCacheHitCount() > 0, is( true ) );
+    assertThat( statistics.getPlanCacheHitRatio() > 0, is( true ) );
+    assertThat( statistics.getCachedPlanCount() >= 2, is( true ) );
+    String[] slowest = statistics.getSlowestTargetClasses();
+    assertThat( slowest.length, is( 2 ) );
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName( ConfigurationStatistics.OBJECT_NAME );
+    assertThat( server.getAttribute( name, "InjectionCount" ), is( (Object)6L ) );
+    server.invoke( name, "resetCounters", new Object[ 0 ], new String[ 0 ] );
+    assertThat( statistics.getInjectionCount(), is( 0L ) );
+    assertThat( statistics.getInjectionFailureCount(), is( 0L ) );
+    assertThat( statistics.getSlowestTargetClasses().length, is( 0 ) );
+    assertThat( statistics.getAdapterResolutions().isEmpty(), is( true ) );
+  }
+
+  @Test
+  public void testEvictClassMetadata() {
+    configuration().target( new Target() ).source( config( "port", "8080" ) ).inject();
+    assertThat( statistics.getCachedPlanCount() > 0, is( true ) );
+    statistics.evictClassMetadata();
+    assertThat( statistics.getCachedPlanCount(), is( 0 ) );
+    statistics.resetCounters();
+    Target target = new Target();
+    configuration().target( target ).source( config( "port", "8080" ) ).inject();
+    assertThat( target.port, is( 8080 ) );
+    assertThat( statistics.getPlanCacheMissCount(), is( 1L ) );
+  }
+
+  @Test
+  public void testEvictClassMetadataEmptiesInjectorCaches() {
+    final AtomicInteger computed = new AtomicInteger();
+    ClassCache<Integer> cache = new ClassCache<Integer>() {
+      @Override
+      protected Integer compute( Class<?> type ) {
+        return computed.incrementAndGet();
+      }
+    };
+    assertThat( cache.get( Target.class ), is( 1 ) );
+    assertThat( cache.get( Target.class ), is( 1 ) );
+    statistics.evictClassMetadata();
+    assertThat( cache.get( Target.class ), is( 2 ) );
+
+    CompiledConfigurationInjector injector = new CompiledConfigurationInjector();
+    injector.prepare( Target.class );
+    statistics.evictClassMetadata();
+    Target target = new Target();
+    injector.configure( target, new MapConfigurationAdapter( config( "port", "8080" ) ), new DefaultConfigurationBinding() );
+    assertThat( target.port, is( 8080 ) );
+  }
+
+  @Test
+  public void testNothingCountedWhenUnregistered() {
+    ConfigurationStatistics.unregister();
+    configuration().target( new Target() ).source( config( "port", "8080" ) ).inject();
+    assertThat( statistics.getInjectionCount(), is( 0L ) );
+    assertThat( ManagementFactory.getPlatformMBeanServer().isRegistered(
+        objectName() ), is( false ) );
+  }
+
+  private static ObjectName objectName() {
+    try {
+      return new ObjectName( ConfigurationStatistics.OBJECT_NAME );
+    } catch( Exception e ) {
+      throw new AssertionError( e );
+    }
+  }
+
+}
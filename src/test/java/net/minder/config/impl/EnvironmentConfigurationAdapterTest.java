@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.Configure;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class EnvironmentConfigurationAdapterTest {
+
+  private static Map<String,String> variables( String... pairs ) {
+    Map<String,String> variables = new HashMap<String,String>();
+    for( int i=0; i<pairs.length; i+=2 ) {
+      variables.put( pairs[ i ], pairs[ i + 1 ] );
+    }
+    return variables;
+  }
+
+  @Test
+  public void testRelaxedNames() {
+    EnvironmentConfigurationAdapter adapter = new EnvironmentConfigurationAdapter( variables(
+        "DB_POOLSIZE", "10", "DB_MAX_IDLE", "5", "JAVA_HOME", "/opt/java", "server-port", "80", "EMPTY", "" ) );
+    assertThat( adapter.getConfigurationValue( "db.poolSize" ), is( "10" ) );
+    assertThat( adapter.getConfigurationValue( "db.maxIdle" ), is( "5" ) );
+    assertThat( adapter.getConfigurationValue( "db-max-idle" ), is( "5" ) );
+    assertThat( adapter.getConfigurationValue( "JAVA_HOME" ), is( "/opt/java" ) );
+    assertThat( adapter.getConfigurationValue( "javaHome" ), is( "/opt/java" ) );
+    assertThat( adapter.getConfigurationValue( "server.port" ), is( "80" ) );
+    assertThat( adapter.getConfigurationValue( "empty" ), is( "" ) );
+    assertThat( adapter.getConfigurationValue( "db.missing" ), nullValue() );
+    assertThat( adapter.getConfigurationValue( "db.missing" ), nullValue() );
+    assertThat( adapter.getConfigurationValue( "db.poolSize" ), is( "10" ) );
+  }
+
+  @Test
+  public void testExactNamesWin() {
+    EnvironmentConfigurationAdapter adapter = new EnvironmentConfigurationAdapter( variables(
+        "DB_POOL_SIZE", "split", "DB_POOLSIZE", "joined", "DBPOOL_SIZE", "other" ) );
+    assertThat( adapter.getConfigurationValue( "db.poolSize" ), is( "joined" ) );
+    assertThat( adapter.getConfigurationValue( "db.pool.size" ), is( "split" ) );
+    assertThat( adapter.getConfigurationValue( "dbPoolSize" ), is( "split" ) );
+    assertThat( adapter.getConfigurationValue( "d.b.poolsize" ), is( "other" ) );
+  }
+
+  public static class Pool {
+    @Configure
+    private int poolSize;
+    @Configure
+    private String url;
+  }
+
+  @Test
+  public void testInjectFromEnvironment() {
+    Pool pool = new Pool();
+    configuration().target( pool )
+        .source( new SystemEnvironment( variables( "POOL_SIZE", "8", "URL", "jdbc:h2:mem" ) ) ).inject();
+    assertThat( pool.poolSize, is( 8 ) );
+    assertThat( pool.url, is( "jdbc:h2:mem" ) );
+  }
+
+  @Test
+  public void testDescriptor() {
+    ConfigurationAdapter adapter = ConfigurationAdapterFactory.get( SystemEnvironment.get() );
+    assertThat( adapter, instanceOf( EnvironmentConfigurationAdapter.class ) );
+    for( Map.Entry<String,String> variable : System.getenv().entrySet() ) {
+      assertThat( adapter.getConfigurationValue( variable.getKey() ), is( variable.getValue() ) );
+    }
+  }
+
+}
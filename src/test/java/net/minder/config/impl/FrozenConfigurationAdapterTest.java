@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FrozenConfigurationAdapterTest {
+
+  @Test
+  public void testFreezeMap() {
+    Map<String,Object> map = new HashMap<String,Object>();
+    for( int i=0; i<5000; i++ ) {
+      map.put( "key" + i, "value" + i );
+    }
+    FrozenConfigurationAdapter frozen = FrozenConfigurationAdapter.freeze( map );
+    assertThat( frozen.size(), is( 5000 ) );
+    for( int i=0; i<5000; i++ ) {
+      assertThat( frozen.getConfigurationValue( "key" + i ), is( "value" + i ) );
+    }
+    assertThat( frozen.getConfigurationValue( "key5000" ), nullValue() );
+    assertThat( frozen.getTypedValue( "missing" ), nullValue() );
+    map.put( "key0", "changed" );
+    assertThat( frozen.getConfigurationValue( "key0" ), is( "value0" ) );
+  }
+
+  @Test
+  public void testFreezeCollidingNames() {
+    // These names all have the same String.hashCode.
+    Map<String,Object> map = new HashMap<String,Object>();
+    map.put( "Aa", "1" );
+    map.put( "BB", "2" );
+    map.put( "AaAa", "3" );
+    map.put( "BBBB", "4" );
+    map.put( "AaBB", "5" );
+    map.put( "BBAa", "6" );
+    FrozenConfigurationAdapter frozen = FrozenConfigurationAdapter.freeze( map );
+    for( Map.Entry<String,Object> entry : map.entrySet() ) {
+      assertThat( frozen.getConfigurationValue( entry.getKey() ), is( entry.getValue() ) );
+    }
+  }
+
+  @Test
+  public void testFreezeEmpty() {
+    FrozenConfigurationAdapter frozen = FrozenConfigurationAdapter.freeze( new HashMap<String,Object>() );
+    assertThat( frozen.size(), is( 0 ) );
+    assertThat( frozen.getConfigurationValue( "any" ), nullValue() );
+  }
+
+  @Test
+  public void testFreezePropertiesWithDefaults() {
+    Properties defaults = new Properties();
+    defaults.setProperty( "inherited", "default" );
+    defaults.setProperty( "overridden", "default" );
+    Properties properties = new Properties( defaults );
+    properties.setProperty( "overridden", "value" );
+    FrozenConfigurationAdapter frozen = FrozenConfigurationAdapter.freeze( properties );
+    assertThat( frozen.getConfigurationValue( "inherited" ), is( "default" ) );
+    assertThat( frozen.getConfigurationValue( "overridden" ), is( "value" ) );
+  }
+
+  @Test
+  public void testFreezeTypedValues() {
+    Map<String,Object> map = new HashMap<String,Object>();
+    map.put( "count", 42 );
+    map.put( "ratio", "0.5" );
+    FrozenConfigurationAdapter frozen = FrozenConfigurationAdapter.freeze( map );
+    assertThat( frozen.getTypedValue( "count" ), is( (Object)42 ) );
+    assertThat( frozen.getConfigurationValue( "count" ), is( "42" ) );
+    assertThat( frozen.getTypedValue( "ratio" ), is( (Object)"0.5" ) );
+  }
+
+  public static class Bean {
+    public int getSize() { return 3; }
+    public boolean isEnabled() { return true; }
+    public String getName() { return null; }
+  }
+
+  @Test
+  public void testFreezeBean() {
+    FrozenConfigurationAdapter frozen = FrozenConfigurationAdapter.freeze( new Bean() );
+    assertThat( frozen.size(), is( 2 ) );
+    assertThat( frozen.getConfigurationValue( "size" ), is( "3" ) );
+    assertThat( frozen.getConfigurationValue( "enabled" ), is( "true" ) );
+    assertThat( frozen.getConfigurationValue( "name" ), nullValue() );
+  }
+
+  @Test
+  public void testFreezeAdapterNames() {
+    Map<String,Object> map = new HashMap<String,Object>();
+    map.put( "a", "1" );
+    map.put( "b", "2" );
+    FrozenConfigurationAdapter frozen = FrozenConfigurationAdapter.freeze(
+        new MapConfigurationAdapter( map ), Arrays.asList( "a", "c" ) );
+    assertThat( frozen.size(), is( 1 ) );
+    assertThat( frozen.getConfigurationValue( "a" ), is( "1" ) );
+    assertThat( frozen.getConfigurationValue( "b" ), nullValue() );
+  }
+
+  @Test( expected = ConfigurationException.class )
+  public void testFreezeAdapterWithoutNames() {
+    FrozenConfigurationAdapter.freeze( (Object)new MapConfigurationAdapter( new HashMap<String,Object>() ) );
+  }
+
+  public static class Target {
+    @Configure
+    private int port;
+    @Configure
+    private String host;
+  }
+
+  @Test
+  public void testInjectFromFrozen() {
+    Properties properties = new Properties();
+    properties.setProperty( "port", "8080" );
+    properties.setProperty( "host", "localhost" );
+    Target target = new Target();
+    configuration().target( target ).source( FrozenConfigurationAdapter.freeze( properties ) ).inject();
+    assertThat( target.port, is( 8080 ) );
+    assertThat( target.host, is( "localhost" ) );
+  }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import net.minder.config.Default;
+import net.minder.config.Optional;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class InjectionMetricsTest {
+
+  public static class Target {
+    @Configure
+    private String host;
+    @Configure
+    private int port;
+    @Configure
+    @Optional
+    private String proxy;
+    private int retries;
+
+    @Configure
+    public void setRetries( @Default("3") Integer retries ) {
+      this.retries = retries;
+    }
+  }
+
+  private static Map<String,Object> config() {
+    Map<String,Object> config = new HashMap<String,Object>();
+    config.put( "host", "localhost" );
+    config.put( "port", "8080" );
+    return config;
+  }
+
+  @Test
+  public void testMetrics() {
+    InjectionMetrics metrics = new InjectionMetrics();
+    for( int i=0; i<3; i++ ) {
+      Target target = new Target();
+      configuration().target( target ).source( config() ).listener( metrics ).inject();
+      assertThat( target.port, is( 8080 ) );
+      assertThat( target.retries, is( 3 ) );
+    }
+    InjectionMetrics.TypeMetrics type = metrics.getTypeMetrics( Target.class );
+    assertThat( type.getTime().getCount(), is( 3L ) );
+    assertThat( type.getMemberCount(), is( 12L ) );
+    assertThat( metrics.getKeyMetrics( "host" ).getLookupTime().getCount(), is( 3L ) );
+    assertThat( metrics.getKeyMetrics( "host" ).getConversionTime().getCount(), is( 3L ) );
+    assertThat( metrics.getKeyMetrics( "host" ).getNotFoundCount(), is( 0L ) );
+    assertThat( metrics.getKeyMetrics( "proxy" ).getNotFoundCount(), is( 3L ) );
+    assertThat( metrics.getKeyMetrics( "proxy" ).getOptionalMissCount(), is( 3L ) );
+    assertThat( metrics.getKeyMetrics( "retries" ).getDefaultCount(), is( 3L ) );
+    assertThat( metrics.getKeyMetrics( "port" ).getLookupTime().getCount(), is( 3L ) );
+  }
+
+  @Test
+  public void testFailuresAreReported() {
+    InjectionMetrics metrics = new InjectionMetrics();
+    Map<String,Object> config = config();
+    config.put( "port", "not a number" );
+    try {
+      configuration().target( new Target() ).source( config ).listener( metrics ).inject();
+      fail( "Expected ConfigurationException" );
+    } catch( ConfigurationException e ) {
+      // Expected.
+    }
+    assertThat( metrics.getKeyMetrics( "port" ).getFailureCount(), is( 1L ) );
+    assertThat( metrics.getTypeMetrics( Target.class ).getTime().getCount(), is( 1L ) );
+  }
+
+  @Test
+  public void testBatchLookupsAreReportedPerName() {
+    final List<String> names = new ArrayList<String>();
+    ConfigurationInjectionListener listener = new ConfigurationInjectionListener() {
+      @Override
+      public void lookedUp( String name, boolean found, long nanos ) {
+        names.add( name );
+      }
+    };
+    MapConfigurationAdapter batching = new MapConfigurationAdapter( config() ) {
+      @Override
+      public Map<String,String> getConfigurationValues( Collection<String> names ) {
+        return super.getConfigurationValues( names );
+      }
+    };
+    configuration().target( new Target() ).source( batching ).listener( listener ).inject();
+    assertThat( names.contains( "host" ), is( true ) );
+    assertThat( names.contains( "retries" ), is( true ) );
+  }
+
+  @Test
+  public void testNoListener() {
+    Target target = new Target();
+    configuration().target( target ).source( config() ).listener( ConfigurationInjectionListener.NONE ).inject();
+    assertThat( target.host, is( "localhost" ) );
+  }
+
+  @Test
+  public void testHistogram() {
+    InjectionMetrics.Histogram histogram = new InjectionMetrics.Histogram();
+    for( int i=1; i<=100; i++ ) {
+      histogram.record( i * 10 );
+    }
+    assertThat( histogram.getCount(), is( 100L ) );
+    assertThat( histogram.getTotal(), is( 50500L ) );
+    assertThat( histogram.getMean(), is( 505.0 ) );
+    assertThat( histogram.getPercentile( 0.5 ), is( 511L ) );
+    assertThat( histogram.getPercentile( 1.0 ), is( 1023L ) );
+  }
+
+}
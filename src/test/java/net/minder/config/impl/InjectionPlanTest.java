@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.Alias;
+import net.minder.config.Configure;
+import net.minder.config.Default;
+import net.minder.config.Optional;
+import net.minder.config.impl.PrefixedConfigurationAdapter.KeyTable;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InjectionPlanTest {
+
+  public static class Base {
+    @Configure
+    @Optional
+    private String baseField;
+  }
+
+  public static class Middle extends Base {
+    private String unconfigured;
+  }
+
+  public static class Leaf extends Middle {
+    @Configure
+    @Alias("leaf.field")
+    private int leafField;
+
+    @Configure
+    public void setLeafArgs( @Alias("first") String first, @Default("2") int second ) {
+    }
+  }
+
+  @Test
+  public void testPlanIsCached() {
+    assertThat( InjectionPlan.get( Leaf.class ), sameInstance( InjectionPlan.get( Leaf.class ) ) );
+  }
+
+  @Test
+  public void testPlanContents() {
+    InjectionPlan plan = InjectionPlan.get( Leaf.class );
+    assertThat( plan.getType() == Leaf.class, is( true ) );
+    assertThat( plan.getFields().length, is( 1 ) );
+    assertThat( plan.getFields()[0].getName(), is( "leaf.field" ) );
+    assertThat( plan.getFields()[0].getType() == int.class, is( true ) );
+    assertThat( plan.getFields()[0].isOptional(), is( false ) );
+    assertThat( plan.getMethods().length, is( 1 ) );
+    InjectionPlan.ParameterPlan[] params = plan.getMethods()[0].getParameters();
+    assertThat( params[0].getName(), is( "first" ) );
+    assertThat( params[0].hasDefault(), is( false ) );
+    assertThat( params[1].getName(), is( "leafArgs" ) );
+    assertThat( params[1].getDefault(), is( "2" ) );
+  }
+
+  @Test
+  public void testParentSkipsClassesWithoutMembers() {
+    InjectionPlan parent = InjectionPlan.get( Leaf.class ).getParent();
+    assertThat( parent, sameInstance( InjectionPlan.get( Base.class ) ) );
+    assertThat( parent.getFields()[0].isOptional(), is( true ) );
+    assertThat( parent.getParent(), nullValue() );
+  }
+
+  @Test
+  public void testKeyTablesAreKeptPerBinding() {
+    InjectionPlan plan = InjectionPlan.get( Leaf.class );
+    Leaf target = new Leaf();
+    MappedConfigurationBinding mapped = new MappedConfigurationBinding();
+    mapped.bind( "first", "one" );
+    DefaultConfigurationBinding plain = new DefaultConfigurationBinding();
+    KeyTable keys = plan.getKeyTable( "db", 1, target, mapped );
+    assertThat( plan.getKeyTable( "db", 1, target, plain ).resolve( "first" ), is( "db.first" ) );
+    assertThat( plan.getKeyTable( "db", 1, target, mapped ), sameInstance( keys ) );
+    assertThat( keys.resolve( "one" ), is( "db.one" ) );
+  }
+
+}
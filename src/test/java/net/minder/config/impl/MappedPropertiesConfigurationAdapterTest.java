@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MappedPropertiesConfigurationAdapterTest {
+
+  private static final String SYNTAX =
+      "# comment\n" +
+      "! other comment\n" +
+      "\n" +
+      "   \t\n" +
+      "simple=value\n" +
+      "  indented = spaced value  \n" +
+      "colon:value\n" +
+      "space value with spaces\n" +
+      "tab\t\tvalue\n" +
+      "empty=\n" +
+      "keyonly\n" +
+      "escaped\\ key\\:x=a\\=b\n" +
+      "unicode=\\u00e9t\\u00E9\n" +
+      "controls=a\\tb\\nc\\rd\\fe\\\\f\n" +
+      "continued=first \\\n" +
+      "      second \\\r\n" +
+      "  third\n" +
+      "even=ends with backslash\\\\\n" +
+      "next=line\r" +
+      "cr=only\r\n" +
+      "dup=first\n" +
+      "dup=second\n" +
+      "latin=caf\u00e9\n" +
+      "last=no newline";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path write( String content ) throws Exception {
+    Path file = folder.newFile().toPath();
+    Files.write( file, content.getBytes( StandardCharsets.ISO_8859_1 ) );
+    return file;
+  }
+
+  private static Properties load( String content ) throws Exception {
+    Properties properties = new Properties();
+    properties.load( new ByteArrayInputStream( content.getBytes( StandardCharsets.ISO_8859_1 ) ) );
+    return properties;
+  }
+
+  private static void assertSame( Properties expected, MappedPropertiesConfigurationAdapter adapter ) {
+    assertThat( new HashSet<String>( adapter.getNames() ), is( expected.stringPropertyNames() ) );
+    for( String name : expected.stringPropertyNames() ) {
+      assertThat( name, adapter.getConfigurationValue( name ), is( expected.getProperty( name ) ) );
+    }
+  }
+
+  @Test
+  public void testSyntaxMatchesProperties() throws Exception {
+    Properties expected = load( SYNTAX );
+    MappedPropertiesConfigurationAdapter adapter = new MappedPropertiesConfigurationAdapter( write( SYNTAX ) );
+    assertSame( expected, adapter );
+    assertThat( adapter.getConfigurationValue( "dup" ), is( "second" ) );
+    assertThat( adapter.getConfigurationValue( "continued" ), is( "first second third" ) );
+    assertThat( adapter.getConfigurationValue( "missing" ), nullValue() );
+    assertThat( adapter.getConfigurationValue( "# comment" ), nullValue() );
+  }
+
+  @Test
+  public void testContinuationsMatchProperties() throws Exception {
+    String[] contents = {
+        "\\\n\t\n0\t=b",
+        "\\\r##uu",
+        "\\\n  !comment\nkey=value",
+        "\\\n\\\r\n\nkey=value",
+        "key=value\n\\\n",
+        "key=value\n\\\r\n",
+        "key \\\n  = value",
+        "key\t\\\r:\\\n  value",
+        "key = \\\n\tvalue \\\n  continued" };
+    for( String content : contents ) {
+      assertSame( load( content ), new MappedPropertiesConfigurationAdapter( write( content ) ) );
+    }
+  }
+
+  @Test
+  public void testGeneratedFile() throws Exception {
+    Random random = new Random( 42 );
+    StringBuilder content = new StringBuilder();
+    for( int i=0; i<50000; i++ ) {
+      content.append( "flag." ).append( random.nextInt( 40000 ) ).append( ".route" )
+          .append( random.nextBoolean() ? "=" : " : " ).append( "target-" ).append( random.nextLong() ).append( '\n' );
+    }
+    Properties expected = load( content.toString() );
+    MappedPropertiesConfigurationAdapter adapter = new MappedPropertiesConfigurationAdapter( write( content.toString() ) );
+    assertSame( expected, adapter );
+    assertThat( adapter.getConfigurationValue( "flag.40001.route" ), nullValue() );
+  }
+
+  @Test
+  public void testEmptyFile() throws Exception {
+    MappedPropertiesConfigurationAdapter adapter = new MappedPropertiesConfigurationAdapter( write( "" ) );
+    assertThat( adapter.getConfigurationValue( "any" ), nullValue() );
+  }
+
+  @Test
+  public void testPathAndFileSources() throws Exception {
+    Path file = write( SYNTAX );
+    assertThat( ConfigurationAdapterFactory.get( file ), instanceOf( MappedPropertiesConfigurationAdapter.class ) );
+    ConfigurationAdapter adapter = ConfigurationAdapterFactory.get( file.toFile() );
+    assertThat( adapter, instanceOf( MappedPropertiesConfigurationAdapter.class ) );
+    assertThat( adapter.getConfigurationValue( "simple" ), is( "value" ) );
+  }
+
+}
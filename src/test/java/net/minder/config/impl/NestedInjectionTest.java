@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.Alias;
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import net.minder.config.Default;
+import net.minder.config.Optional;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.fail;
+
+public class NestedInjectionTest {
+
+  public static class PoolConfig {
+    @Configure
+    private int size;
+    @Configure
+    @Optional
+    private String name = "default";
+  }
+
+  public static class DbConfig {
+    @Configure
+    private String url;
+    @Configure
+    private PoolConfig pool;
+    private long timeout;
+
+    @Configure
+    void setTimeout( @Default("30") long timeout ) {
+      this.timeout = timeout;
+    }
+  }
+
+  public static class AppConfig {
+    @Configure
+    private String name;
+    @Configure
+    private DbConfig db;
+    @Configure
+    @Alias("replica")
+    private DbConfig secondary = new DbConfig();
+  }
+
+  public static class Node {
+    @Configure
+    @Optional
+    private String value;
+    @Configure
+    private Node next;
+  }
+
+  private static Map<String,String> config() {
+    Map<String,String> config = new HashMap<String,String>();
+    config.put( "name", "app" );
+    config.put( "db.url", "jdbc:primary" );
+    config.put( "db.pool.size", "10" );
+    config.put( "db.pool.name", "main" );
+    config.put( "replica.url", "jdbc:replica" );
+    config.put( "replica.pool.size", "2" );
+    config.put( "replica.timeout", "5" );
+    return config;
+  }
+
+  private static void assertInjected( AppConfig app ) {
+    assertThat( app.name, is( "app" ) );
+    assertThat( app.db.url, is( "jdbc:primary" ) );
+    assertThat( app.db.pool.size, is( 10 ) );
+    assertThat( app.db.pool.name, is( "main" ) );
+    assertThat( app.db.timeout, is( 30L ) );
+    assertThat( app.secondary.url, is( "jdbc:replica" ) );
+    assertThat( app.secondary.pool.size, is( 2 ) );
+    assertThat( app.secondary.pool.name, is( "default" ) );
+    assertThat( app.secondary.timeout, is( 5L ) );
+  }
+
+  @Test
+  public void testNestedObjects() {
+    AppConfig app = new AppConfig();
+    DbConfig secondary = app.secondary;
+    configuration().target( app ).source( config() ).inject();
+    assertInjected( app );
+    assertThat( app.secondary, sameInstance( secondary ) );
+  }
+
+  @Test
+  public void testNestedObjectsReused() {
+    AppConfig app = new AppConfig();
+    configuration().target( app ).source( config() ).inject();
+    DbConfig db = app.db;
+    PoolConfig pool = app.db.pool;
+    configuration().target( app ).source( config() ).inject();
+    assertThat( app.db, sameInstance( db ) );
+    assertThat( app.db.pool, sameInstance( pool ) );
+  }
+
+  @Test
+  public void testNestedObjectsCompiled() {
+    AppConfig app = new AppConfig();
+    new CompiledConfigurationInjector().configure( app, new MapConfigurationAdapter( config() ), name -> name );
+    assertInjected( app );
+  }
+
+  @Test
+  public void testNestedBinding() {
+    Map<String,String> config = config();
+    config.put( "database.url", "jdbc:bound" );
+    config.put( "database.pool.size", "3" );
+    AppConfig app = new AppConfig();
+    configuration().target( app ).source( config ).bind( "db", "database" ).inject();
+    assertThat( app.db.url, is( "jdbc:bound" ) );
+    assertThat( app.db.pool.size, is( 3 ) );
+  }
+
+  @Test
+  public void testNestedKeysPrecomputed() {
+    final List<String> names = new ArrayList<String>();
+    final Map<String,String> config = config();
+    ConfigurationAdapter adapter = name -> {
+      names.add( name );
+      return config.get( name );
+    };
+    DefaultConfigurationInjector injector = new DefaultConfigurationInjector();
+    ConfigurationBinding binding = name -> name;
+    injector.configure( new AppConfig(), adapter, binding );
+    List<String> first = new ArrayList<String>( names );
+    names.clear();
+    injector.configure( new AppConfig(), adapter, binding );
+    assertThat( names.contains( "db.pool.size" ), is( true ) );
+    assertThat( names.size(), is( first.size() ) );
+    for( int i=0; i<names.size(); i++ ) {
+      assertThat( names.get( i ), sameInstance( first.get( i ) ) );
+    }
+  }
+
+  @Test
+  public void testNestedBatchLookups() {
+    final List<Collection<String>> batches = new ArrayList<Collection<String>>();
+    final Map<String,String> config = config();
+    ConfigurationAdapter adapter = new ConfigurationAdapter() {
+      @Override
+      public String getConfigurationValue( String name ) {
+        return config.get( name );
+      }
+      @Override
+      public Map<String,String> getConfigurationValues( Collection<String> names ) {
+        batches.add( new ArrayList<String>( names ) );
+        Map<String,String> values = new HashMap<String,String>();
+        for( String name : names ) {
+          if( config.containsKey( name ) ) {
+            values.put( name, config.get( name ) );
+          }
+        }
+        return values;
+      }
+    };
+    AppConfig app = new AppConfig();
+    configuration().target( app ).source( adapter ).inject();
+    assertInjected( app );
+    assertThat( batches.size(), is( 5 ) );
+    assertThat( batches.get( 1 ).contains( "db.url" ), is( true ) );
+    assertThat( batches.get( 2 ).contains( "db.pool.size" ), is( true ) );
+  }
+
+  @Test
+  public void testNestedLookupsObserved() {
+    final List<String> found = new ArrayList<String>();
+    AppConfig app = new AppConfig();
+    configuration().target( app ).source( config() ).listener( new ConfigurationInjectionListener() {
+      @Override
+      public void lookedUp( String name, boolean present, long nanos ) {
+        if( present ) {
+          found.add( name );
+        }
+      }
+    } ).inject();
+    assertThat( found.contains( "db.pool.size" ), is( true ) );
+    assertThat( found.contains( "replica.timeout" ), is( true ) );
+  }
+
+  @Test
+  public void testNestedMissingValue() {
+    Map<String,String> config = config();
+    config.remove( "db.pool.size" );
+    try {
+      configuration().target( new AppConfig() ).source( config ).inject();
+      fail( "Expected the missing nested value to be reported." );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( PoolConfig.class.getName() ) );
+    }
+  }
+
+  @Test
+  public void testNestedDepthLimited() {
+    Map<String,String> config = new HashMap<String,String>();
+    config.put( "next.value", "1" );
+    try {
+      configuration().target( new Node() ).source( config ).inject();
+      fail( "Expected self referencing nested objects to be limited." );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( "deeper than" ) );
+    }
+  }
+
+  @Test
+  public void testConvertedTypesNotNested() {
+    assertThat( InjectionPlan.isConfigurable( String.class ), is( false ) );
+    assertThat( InjectionPlan.isConfigurable( Integer.class ), is( false ) );
+    assertThat( InjectionPlan.isConfigurable( DbConfig.class ), is( true ) );
+  }
+
+}
@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationAdapter;
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import net.minder.config.Default;
+import net.minder.config.Optional;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class PrimitiveInjectionTest {
+
+  public static class Target {
+    @Configure
+    private int intField;
+    @Configure
+    private long longField;
+    @Configure
+    private boolean booleanField;
+    @Configure
+    private double doubleField;
+    @Configure
+    @Optional
+    private int optionalField = 7;
+
+    private int port;
+    private boolean enabled;
+
+    @Configure
+    private void setPort( @Default("8080") int port ) {
+      this.port = port;
+    }
+
+    @Configure
+    public void setEnabled( boolean enabled ) {
+      this.enabled = enabled;
+    }
+  }
+
+  // Fails if the injector asks for a string for any of the primitive members.
+  private static class TypedAdapter extends MapConfigurationAdapter {
+    TypedAdapter( Map<String,Object> config ) {
+      super( config );
+    }
+    @Override
+    public String getConfigurationValue( String name ) {
+      throw new AssertionError( "String requested for " + name );
+    }
+  }
+
+  private static Map<String,Object> config() {
+    Map<String,Object> config = new HashMap<String,Object>();
+    config.put( "intField", 42 );
+    config.put( "longField", 5000000000L );
+    config.put( "booleanField", Boolean.TRUE );
+    config.put( "doubleField", 1.5d );
+    config.put( "enabled", Boolean.FALSE );
+    return config;
+  }
+
+  @Test
+  public void testTypedValuesAreNotStringified() {
+    for( AccessStrategy strategy : AccessStrategy.values() ) {
+      Target target = new Target();
+      new DefaultConfigurationInjector( strategy ).configure(
+          target, new TypedAdapter( config() ), new DefaultConfigurationBinding() );
+      assertThat( target.intField, is( 42 ) );
+      assertThat( target.longField, is( 5000000000L ) );
+      assertThat( target.booleanField, is( true ) );
+      assertThat( target.doubleField, is( 1.5d ) );
+      assertThat( target.optionalField, is( 7 ) );
+      assertThat( target.port, is( 8080 ) );
+      assertThat( target.enabled, is( false ) );
+    }
+  }
+
+  @Test
+  public void testStringValuesAreConverted() {
+    Map<String,Object> config = new HashMap<String,Object>();
+    config.put( "intField", " 12 " );
+    config.put( "longField", "13" );
+    config.put( "booleanField", "yes" );
+    config.put( "doubleField", "NaN" );
+    config.put( "optionalField", "14" );
+    config.put( "port", "15" );
+    config.put( "enabled", "on" );
+    Target target = new Target();
+    new DefaultConfigurationInjector().configure(
+        target, new MapConfigurationAdapter( config ), new DefaultConfigurationBinding() );
+    assertThat( target.intField, is( 12 ) );
+    assertThat( target.longField, is( 13L ) );
+    assertThat( target.booleanField, is( true ) );
+    assertThat( Double.isNaN( target.doubleField ), is( true ) );
+    assertThat( target.optionalField, is( 14 ) );
+    assertThat( target.port, is( 15 ) );
+    assertThat( target.enabled, is( true ) );
+  }
+
+  @Test
+  public void testValuesEqualToMissingMarkers() {
+    Map<String,Object> config = config();
+    config.put( "intField", Integer.MIN_VALUE );
+    config.put( "longField", Long.MIN_VALUE );
+    config.put( "booleanField", Boolean.FALSE );
+    config.put( "doubleField", Double.NaN );
+    config.put( "port", Integer.MIN_VALUE );
+    Target target = new Target();
+    target.booleanField = true;
+    new DefaultConfigurationInjector().configure(
+        target, new TypedAdapter( config ), new DefaultConfigurationBinding() );
+    assertThat( target.intField, is( Integer.MIN_VALUE ) );
+    assertThat( target.longField, is( Long.MIN_VALUE ) );
+    assertThat( target.booleanField, is( false ) );
+    assertThat( Double.isNaN( target.doubleField ), is( true ) );
+    assertThat( target.port, is( Integer.MIN_VALUE ) );
+  }
+
+  @Test
+  public void testMissingRequiredValue() {
+    Map<String,Object> config = config();
+    config.remove( "longField" );
+    try {
+      new DefaultConfigurationInjector().configure(
+          new Target(), new TypedAdapter( config ), new DefaultConfigurationBinding() );
+      fail( "Expected ConfigurationException" );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( "Failed to find configuration for longField" ) );
+    }
+  }
+
+  @Test
+  public void testInvalidValue() {
+    Map<String,Object> config = config();
+    config.put( "intField", "forty-two" );
+    try {
+      new DefaultConfigurationInjector().configure(
+          new Target(), new MapConfigurationAdapter( config ), new DefaultConfigurationBinding() );
+      fail( "Expected ConfigurationException" );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( "Failed to convert configuration for intField" ) );
+    }
+  }
+
+  @Test
+  public void testDefaultTypedValue() {
+    ConfigurationAdapter adapter = name -> "missing".equals( name ) ? null : "1";
+    assertThat( adapter.getTypedValue( "value" ), is( (Object)"1" ) );
+    assertThat( adapter.getTypedValue( "missing" ), nullValue() );
+  }
+
+  @Test
+  public void testFalseFoundWithOneLookup() {
+    final List<String> lookups = new ArrayList<String>();
+    Map<String,Object> config = config();
+    config.put( "booleanField", Boolean.FALSE );
+    new DefaultConfigurationInjector().configure(
+        new Target(), new MapConfigurationAdapter( config ), new DefaultConfigurationBinding(),
+        new ConfigurationInjectionListener() {
+          @Override
+          public void lookedUp( String name, boolean found, long nanos ) {
+            lookups.add( name + "=" + found );
+          }
+        } );
+    assertThat( Collections.frequency( lookups, "booleanField=true" ), is( 1 ) );
+    assertThat( Collections.frequency( lookups, "enabled=true" ), is( 1 ) );
+    assertThat( lookups.contains( "booleanField=false" ), is( false ) );
+  }
+
+  @Test
+  public void testConversionReported() {
+    final List<String> events = new ArrayList<String>();
+    Map<String,Object> config = config();
+    config.put( "intField", "1" );
+    config.put( "longField", "forty-two" );
+    try {
+      new DefaultConfigurationInjector().configure(
+          new Target(), new MapConfigurationAdapter( config ), new DefaultConfigurationBinding(),
+          new ConfigurationInjectionListener() {
+            @Override
+            public void converted( String name, Class<?> type, long nanos ) {
+              events.add( name + ":" + type.getName() );
+            }
+            @Override
+            public void failed( String member, Throwable cause ) {
+              events.add( "failed " + member );
+            }
+          } );
+      fail( "Expected ConfigurationException" );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( "Failed to convert configuration for longField" ) );
+    }
+    assertThat( events.contains( "intField:int" ), is( true ) );
+    assertThat( events.contains( "failed longField" ), is( true ) );
+  }
+
+}
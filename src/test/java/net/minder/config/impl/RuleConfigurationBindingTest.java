@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.ConfigurationBinding;
+import net.minder.config.Configure;
+import net.minder.config.impl.RuleConfigurationBinding.NamingStyle;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RuleConfigurationBindingTest {
+
+  @Test
+  public void testNamingStyles() {
+    assertThat( NamingStyle.DOTTED.translate( "maxPoolSize" ), is( "max.pool.size" ) );
+    assertThat( NamingStyle.KEBAB.translate( "maxPoolSize" ), is( "max-pool-size" ) );
+    assertThat( NamingStyle.SNAKE.translate( "maxPoolSize" ), is( "max_pool_size" ) );
+    assertThat( NamingStyle.UPPER_SNAKE.translate( "maxPoolSize" ), is( "MAX_POOL_SIZE" ) );
+    assertThat( NamingStyle.DOTTED.translate( "maxHTTPConnections" ), is( "max.http.connections" ) );
+    assertThat( NamingStyle.DOTTED.translate( "HTTPServer" ), is( "http.server" ) );
+    assertThat( NamingStyle.DOTTED.translate( "pool2Size" ), is( "pool2.size" ) );
+    assertThat( NamingStyle.DOTTED.translate( "url" ), is( "url" ) );
+    assertThat( NamingStyle.KEBAB.translate( "already_snake__case" ), is( "already-snake-case" ) );
+    assertThat( NamingStyle.UPPER_SNAKE.translate( "db.pool.max" ), is( "DB_POOL_MAX" ) );
+  }
+
+  @Test
+  public void testRulesApplyInOrder() {
+    ConfigurationBinding binding = RuleConfigurationBinding.rules()
+        .style( NamingStyle.DOTTED ).prefix( "db." ).build();
+    assertThat( binding.getConfigurationName( "maxPoolSize" ), is( "db.max.pool.size" ) );
+    binding = RuleConfigurationBinding.rules()
+        .prefix( "db." ).style( NamingStyle.UPPER_SNAKE ).build();
+    assertThat( binding.getConfigurationName( "maxPoolSize" ), is( "DB_MAX_POOL_SIZE" ) );
+  }
+
+  @Test
+  public void testRewriteAndBind() {
+    ConfigurationBinding binding = RuleConfigurationBinding.rules()
+        .style( NamingStyle.KEBAB ).rewrite( "^(.*)-millis$", "$1.ms" ).bind( "url", "jdbc.url" ).build();
+    assertThat( binding.getConfigurationName( "idleTimeoutMillis" ), is( "idle-timeout.ms" ) );
+    assertThat( binding.getConfigurationName( "url" ), is( "jdbc.url" ) );
+    assertThat( binding.getConfigurationName( "userName" ), is( "user-name" ) );
+  }
+
+  @Test
+  public void testNamesAreMemoized() {
+    ConfigurationBinding binding = RuleConfigurationBinding.rules().style( NamingStyle.DOTTED ).build();
+    assertThat( binding.getConfigurationName( "maxPoolSize" ),
+        sameInstance( binding.getConfigurationName( "maxPoolSize" ) ) );
+  }
+
+  public static class Pool {
+    @Configure
+    private int maxPoolSize;
+    @Configure
+    private String url;
+    private long idleTimeout;
+
+    @Configure
+    public void setIdleTimeout( long idleTimeout ) {
+      this.idleTimeout = idleTimeout;
+    }
+  }
+
+  @Test
+  public void testInject() {
+    Map<String,Object> config = new HashMap<String,Object>();
+    config.put( "DB_MAX_POOL_SIZE", "20" );
+    config.put( "DB_IDLE_TIMEOUT", "5000" );
+    config.put( "JDBC_URL", "jdbc:h2:mem" );
+    Pool pool = new Pool();
+    configuration().target( pool ).source( config ).binding( RuleConfigurationBinding.rules()
+        .bind( "url", "JDBC_URL" ).prefix( "db." ).style( NamingStyle.UPPER_SNAKE ).build() ).inject();
+    assertThat( pool.maxPoolSize, is( 20 ) );
+    assertThat( pool.idleTimeout, is( 5000L ) );
+    assertThat( pool.url, is( "jdbc:h2:mem" ) );
+  }
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.impl;
+
+import net.minder.config.Configure;
+import net.minder.config.Optional;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.fail;
+
+public class WatchedPropertiesConfigurationAdapterTest {
+
+  public static class Target {
+    @Configure
+    private volatile String host;
+    @Configure
+    @Optional
+    private volatile int port;
+  }
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static void write( Path file, String content ) throws Exception {
+    Files.write( file, content.getBytes( StandardCharsets.ISO_8859_1 ) );
+  }
+
+  // Replaces the file in one step, the way deployment tools roll configuration.
+  private static void replace( Path file, String content ) throws Exception {
+    Path temp = file.resolveSibling( file.getFileName() + ".tmp" );
+    write( temp, content );
+    Files.move( temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+  }
+
+  private static void await( BooleanSupplier condition ) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 20000;
+    while( !condition.getAsBoolean() ) {
+      if( System.currentTimeMillis() > deadline ) {
+        fail( "Timed out waiting for reload" );
+      }
+      Thread.sleep( 20 );
+    }
+  }
+
+  @Test
+  public void testLaterFilesOverrideEarlierOnes() throws Exception {
+    Path defaults = folder.newFile( "defaults.properties" ).toPath();
+    Path overrides = folder.newFile( "overrides.properties" ).toPath();
+    write( defaults, "host=localhost\nport=80\n" );
+    write( overrides, "port=8080\n" );
+    try( WatchedPropertiesConfigurationAdapter adapter = new WatchedPropertiesConfigurationAdapter( defaults, overrides ) ) {
+      assertThat( adapter.getConfigurationValue( "host" ), is( "localhost" ) );
+      assertThat( adapter.getConfigurationValue( "port" ), is( "8080" ) );
+      Files.delete( overrides );
+      assertThat( adapter.reload(), is( true ) );
+      assertThat( adapter.getConfigurationValue( "port" ), is( "80" ) );
+      assertThat( adapter.getConfigurationValue( "missing" ), nullValue() );
+    }
+  }
+
+  @Test
+  public void testUnchangedContentIsNotParsedAgain() throws Exception {
+    Path file = folder.newFile( "app.properties" ).toPath();
+    write( file, "host=localhost\n" );
+    try( WatchedPropertiesConfigurationAdapter adapter = new WatchedPropertiesConfigurationAdapter( file ) ) {
+      Target target = new Target();
+      adapter.register( target, null );
+      long parses = adapter.getParseCount();
+      long reloads = adapter.getReloadCount();
+      write( file, "host=localhost\n" );
+      Files.setLastModifiedTime( file, FileTime.fromMillis( System.currentTimeMillis() + 5000 ) );
+      assertThat( adapter.reload(), is( false ) );
+      assertThat( adapter.reload(), is( false ) );
+      assertThat( adapter.getParseCount(), is( parses ) );
+      assertThat( adapter.getReloadCount(), is( reloads ) );
+      write( file, "host=remotehost\n" );
+      Files.setLastModifiedTime( file, FileTime.fromMillis( System.currentTimeMillis() + 10000 ) );
+      assertThat( adapter.reload(), is( true ) );
+      assertThat( target.host, is( "remotehost" ) );
+    }
+  }
+
+  @Test
+  public void testWatchedChangeIsInjected() throws Exception {
+    Path file = folder.newFile( "app.properties" ).toPath();
+    write( file, "host=localhost\nport=80\n" );
+    try( WatchedPropertiesConfigurationAdapter adapter = new WatchedPropertiesConfigurationAdapter( file ).start() ) {
+      final Target target = new Target();
+      adapter.register( target, null );
+      assertThat( target.port, is( 80 ) );
+      write( file, "host=remotehost\nport=8080\n" );
+      await( () -> target.port == 8080 );
+      assertThat( target.host, is( "remotehost" ) );
+    }
+  }
+
+  @Test
+  public void testReloadStorm() throws Exception {
+    Path file = folder.newFile( "app.properties" ).toPath();
+    Path other = folder.newFile( "other.properties" ).toPath();
+    write( file, "host=host0\n" );
+    try( WatchedPropertiesConfigurationAdapter adapter = new WatchedPropertiesConfigurationAdapter(
+        Arrays.asList( file ), Duration.ofMillis( 200 ) ).start() ) {
+      final Target target = new Target();
+      adapter.register( target, null );
+      long parses = adapter.getParseCount();
+      int writes = 1000;
+      for( int i=1; i<=writes; i++ ) {
+        replace( file, "host=host" + i + "\n" );
+        write( other, "unrelated=" + i + "\n" );
+      }
+      await( () -> "host1000".equals( target.host ) );
+      assertThat( adapter.getParseCount() - parses, lessThan( (long)writes / 10 ) );
+      assertThat( adapter.getLastFailure(), nullValue() );
+    }
+  }
+
+}
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.minder.config.processor;
+
+import net.minder.config.Alias;
+import net.minder.config.ConfigurationException;
+import net.minder.config.Configure;
+import net.minder.config.Default;
+import net.minder.config.Optional;
+import net.minder.config.impl.GeneratedConfigurationInjector;
+import net.minder.config.spi.ConfigurationInjectionListener;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.minder.config.ConfigurationInjectorBuilder.configuration;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.fail;
+
+// The test sources are compiled with the processor so these targets get generated injectors.
+public class ConfigurationProcessorTest {
+
+  public static class Base {
+    @Configure
+    @Optional
+    protected String baseField = "unchanged";
+
+    @Configure
+    public void setBaseValue( @Default("7") String value ) {
+      baseValue = value;
+    }
+    String baseValue;
+  }
+
+  public static class Target extends Base {
+    @Configure
+    @Alias("int.value")
+    int intField;
+
+    @Configure
+    String[] arrayField;
+
+    @Configure
+    void setPair( @Alias("first") String first, @Alias("second") int second ) {
+      pair = first + second;
+    }
+    String pair;
+  }
+
+  public static class Endpoint {
+    @Configure
+    String host;
+    @Configure
+    int port;
+  }
+
+  public static class NestedTarget {
+    @Configure
+    Endpoint endpoint;
+  }
+
+  public static class PrivateTarget {
+    @Configure
+    private String value;
+  }
+
+  public static class FailingTarget {
+    @Configure
+    public void setValue( String value ) {
+      throw new IllegalStateException( value );
+    }
+  }
+
+  @Test
+  public void testInjectorGenerated() throws Exception {
+    Class<?> type = Class.forName( Target.class.getName() + GeneratedConfigurationInjector.SUFFIX );
+    assertThat( GeneratedConfigurationInjector.class.isAssignableFrom( type ), is( true ) );
+  }
+
+  @Test
+  public void testPrivateMembersSkipped() {
+    try {
+      Class.forName( PrivateTarget.class.getName() + GeneratedConfigurationInjector.SUFFIX );
+      fail( "Expected no injector to be generated for a class with private members." );
+    } catch( ClassNotFoundException e ) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testGeneratedInjection() {
+    Map<String,String> config = new HashMap<String,String>();
+    config.put( "int.value", "42" );
+    config.put( "arrayField", "a,b" );
+    config.put( "first", "x" );
+    config.put( "second", "2" );
+    Target target = new Target();
+    configuration().target( target ).source( config ).inject();
+    assertThat( target.intField, is( 42 ) );
+    assertThat( target.arrayField.length, is( 2 ) );
+    assertThat( target.pair, is( "x2" ) );
+    assertThat( target.baseField, is( "unchanged" ) );
+    assertThat( target.baseValue, is( "7" ) );
+  }
+
+  @Test
+  public void testGeneratedNestedInjection() throws Exception {
+    Class.forName( NestedTarget.class.getName() + GeneratedConfigurationInjector.SUFFIX );
+    Map<String,String> config = new HashMap<String,String>();
+    config.put( "endpoint.host", "localhost" );
+    config.put( "endpoint.port", "8080" );
+    NestedTarget target = new NestedTarget();
+    configuration().target( target ).source( config ).inject();
+    assertThat( target.endpoint.host, is( "localhost" ) );
+    assertThat( target.endpoint.port, is( 8080 ) );
+  }
+
+  @Test
+  public void testGeneratedMethodFailure() {
+    Map<String,String> config = new HashMap<String,String>();
+    config.put( "value", "failure" );
+    try {
+      configuration().target( new FailingTarget() ).source( config ).inject();
+      fail( "Expected setter failure to be reported." );
+    } catch( ConfigurationException e ) {
+      assertThat( e.getMessage(), containsString( "Failed to inject method configuration via value" ) );
+      assertThat( e.getCause(), instanceOf( IllegalStateException.class ) );
+    }
+  }
+
+  @Test
+  public void testGeneratedFailuresAreReported() {
+    final List<String> failures = new ArrayList<String>();
+    ConfigurationInjectionListener listener = new ConfigurationInjectionListener() {
+      @Override
+      public void failed( String name, Throwable cause ) {
+        failures.add( name );
+      }
+    };
+    Map<String,String> config = new HashMap<String,String>();
+    config.put( "host", "localhost" );
+    config.put( "server.port", "nope" );
+    config.put( "value", "failure" );
+    try {
+      configuration().target( new Endpoint() ).source( config ).bind( "port", "server.port" ).listener( listener ).inject();
+      fail( "Expected conversion failure to be reported." );
+    } catch( ConfigurationException e ) {
+      // Expected.
+    }
+    try {
+      configuration().target( new FailingTarget() ).source( config ).listener( listener ).inject();
+      fail( "Expected setter failure to be reported." );
+    } catch( ConfigurationException e ) {
+      // Expected.
+    }
+    assertThat( failures, is( Arrays.asList( "server.port", "value" ) ) );
+  }
+
+}